@@ -0,0 +1,112 @@
+package com.enonic.lib.graphql;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import graphql.Scalars;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLNonNull;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLTypeReference;
+
+/**
+ * Schemas and data shared by the benchmarks, built through {@link GraphQlBean} like an app would.
+ */
+final class BenchmarkSchemas
+{
+    static final int FIELDS_PER_TYPE = 10;
+
+    private BenchmarkSchemas()
+    {
+    }
+
+    /**
+     * A schema with {@code typeCount} object types of {@link #FIELDS_PER_TYPE} fields, each type referencing the next.
+     */
+    static GraphQLSchema wideSchema( final GraphQlBean bean, final int typeCount )
+    {
+        final GraphQLObjectType[] types = new GraphQLObjectType[typeCount];
+        for ( int i = 0; i < typeCount; i++ )
+        {
+            final Map<String, Object> fields = new LinkedHashMap<>();
+            for ( int j = 0; j < FIELDS_PER_TYPE; j++ )
+            {
+                fields.put( "field" + j, field( Scalars.GraphQLString, sourceProperty( "field" + j ) ) );
+            }
+            fields.put( "next", field( new GraphQLTypeReference( "Type" + ( ( i + 1 ) % typeCount ) ), sourceProperty( "next" ) ) );
+            types[i] = bean.createObjectType( "Type" + i, StandInScriptValues.of( fields ), null, null );
+        }
+
+        final Map<String, Object> queryFields = new LinkedHashMap<>();
+        queryFields.put( "root", field( types[0], env -> Map.of() ) );
+        final GraphQLObjectType queryType = bean.createObjectType( "Query", StandInScriptValues.of( queryFields ), null, null );
+        return bean.createSchema( queryType, null, null, types );
+    }
+
+    /**
+     * A schema with a single recursive {@code Node} type, queried from {@code Query.node}.
+     */
+    static GraphQLSchema nodeSchema( final Map<String, Object> root )
+    {
+        final GraphQlBean bean = new GraphQlBean();
+
+        final Map<String, Object> nodeFields = new LinkedHashMap<>();
+        nodeFields.put( "id", field( GraphQLNonNull.nonNull( Scalars.GraphQLID ), sourceProperty( "id" ) ) );
+        nodeFields.put( "name", field( Scalars.GraphQLString, sourceProperty( "name" ) ) );
+        nodeFields.put( "value", field( Scalars.GraphQLInt, sourceProperty( "value" ) ) );
+        nodeFields.put( "description", field( Scalars.GraphQLString, sourceProperty( "description" ) ) );
+        nodeFields.put( "children", field( GraphQLList.list( new GraphQLTypeReference( "Node" ) ), sourceProperty( "children" ) ) );
+        final GraphQLObjectType nodeType = bean.createObjectType( "Node", StandInScriptValues.of( nodeFields ), null, null );
+
+        final Map<String, Object> queryFields = new LinkedHashMap<>();
+        queryFields.put( "node", field( nodeType, env -> root ) );
+        final GraphQLObjectType queryType = bean.createObjectType( "Query", StandInScriptValues.of( queryFields ), null, null );
+
+        return bean.createSchema( queryType, null, null, null );
+    }
+
+    /**
+     * A tree of nodes, {@code depth} levels deep with {@code width} children per node.
+     */
+    static Map<String, Object> tree( final int depth, final int width )
+    {
+        return node( "0", depth, width );
+    }
+
+    private static Map<String, Object> node( final String id, final int depth, final int width )
+    {
+        final Map<String, Object> node = new LinkedHashMap<>();
+        node.put( "id", id );
+        node.put( "name", "Node " + id );
+        node.put( "value", id.length() );
+        node.put( "description", null );
+        final List<Object> children = new ArrayList<>();
+        if ( depth > 1 )
+        {
+            for ( int i = 0; i < width; i++ )
+            {
+                children.add( node( id + "." + i, depth - 1, width ) );
+            }
+        }
+        node.put( "children", children );
+        return node;
+    }
+
+    private static Map<String, Object> field( final Object type, final Function<Map<String, Object>, Object> resolve )
+    {
+        final Map<String, Object> field = new LinkedHashMap<>();
+        field.put( "type", type );
+        field.put( "resolve", resolve );
+        return field;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Map<String, Object>, Object> sourceProperty( final String name )
+    {
+        return env -> ( (Map<String, Object>) env.get( "source" ) ).get( name );
+    }
+}
@@ -0,0 +1,66 @@
+package com.enonic.lib.graphql;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CursorHelperBenchmark
+{
+    private int offset = 12345;
+
+    private final String encoded = CursorHelper.encode( "12345" );
+
+    private final String encodedOffset = CursorHelper.encodeOffset( 12345 );
+
+    private final List<Object> key = List.of( 1.25, "0000-0000-0000-0001" );
+
+    private final String encodedKey = CursorHelper.encodeKey( key );
+
+    @Benchmark
+    public String encode()
+    {
+        return CursorHelper.encode( String.valueOf( offset++ ) );
+    }
+
+    @Benchmark
+    public String decode()
+    {
+        return CursorHelper.decode( encoded );
+    }
+
+    @Benchmark
+    public String encodeOffset()
+    {
+        return CursorHelper.encodeOffset( offset++ );
+    }
+
+    @Benchmark
+    public long decodeOffset()
+    {
+        return CursorHelper.decodeOffset( encodedOffset );
+    }
+
+    @Benchmark
+    public String encodeKey()
+    {
+        return CursorHelper.encodeKey( key );
+    }
+
+    @Benchmark
+    public List<Object> decodeKey()
+    {
+        return CursorHelper.decodeKey( encodedKey );
+    }
+}
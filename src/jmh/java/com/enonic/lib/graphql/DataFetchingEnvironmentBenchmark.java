@@ -0,0 +1,70 @@
+package com.enonic.lib.graphql;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import graphql.GraphQLContext;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.DataFetchingEnvironmentImpl;
+
+/**
+ * A resolver reading {@code env.source.id} on a wide source: the eager {@link EagerEnvironmentMapper} copies
+ * the whole environment, the {@link DataFetchingEnvironmentView} only the member that is read. Run with the GC
+ * profiler to compare the allocation per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataFetchingEnvironmentBenchmark
+{
+    @Param({"10", "100"})
+    public int width;
+
+    private DataFetchingEnvironment env;
+
+    @Setup
+    public void setUp()
+    {
+        final Map<String, Object> source = new LinkedHashMap<>();
+        source.put( "id", "0001" );
+        for ( int i = 0; i < width; i++ )
+        {
+            source.put( "field" + i, Map.of( "name", "value" + i, "tags", List.of( "a", "b", "c" ) ) );
+        }
+        env = DataFetchingEnvironmentImpl.newDataFetchingEnvironment()
+            .source( source )
+            .arguments( Map.of( "first", 10 ) )
+            .graphQLContext( GraphQLContext.of( Map.of( DataFetchingEnvironmentView.CONTEXT_KEY, Map.of( "locale", "en" ) ) ) )
+            .build();
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Object eager()
+    {
+        final Map<String, Object> nativeEnv = StandInScriptValues.toMap( new EagerEnvironmentMapper( env ) );
+        return ( (Map<String, Object>) nativeEnv.get( "source" ) ).get( "id" );
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Object lazy()
+    {
+        final Map<String, Object> nativeEnv = StandInScriptValues.toLazyEnv( new DataFetchingEnvironmentView( env ) );
+        return ( (Map<String, Object>) nativeEnv.get( "source" ) ).get( "id" );
+    }
+}
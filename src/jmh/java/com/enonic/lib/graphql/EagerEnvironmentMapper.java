@@ -5,12 +5,16 @@ import graphql.schema.DataFetchingEnvironment;
 import com.enonic.xp.script.serializer.MapGenerator;
 import com.enonic.xp.script.serializer.MapSerializable;
 
-public final class DataFetchingEnvironmentMapper
+/**
+ * The environment as resolvers got it before {@link DataFetchingEnvironmentView}: {@code source}, {@code args} and
+ * {@code context} copied in full on every call. Kept for {@link DataFetchingEnvironmentBenchmark} only.
+ */
+final class EagerEnvironmentMapper
     implements MapSerializable
 {
     private final DataFetchingEnvironment env;
 
-    public DataFetchingEnvironmentMapper( final DataFetchingEnvironment env )
+    EagerEnvironmentMapper( final DataFetchingEnvironment env )
     {
         this.env = env;
     }
@@ -20,6 +24,6 @@ public final class DataFetchingEnvironmentMapper
     {
         MapMapper.serializeKeyValue( gen, "source", this.env.getSource() );
         MapMapper.serializeKeyValue( gen, "args", this.env.getArguments() );
-        MapMapper.serializeKeyValue( gen, "context", this.env.getContext() );
+        MapMapper.serializeKeyValue( gen, "context", this.env.getGraphQlContext().get( DataFetchingEnvironmentView.CONTEXT_KEY ) );
     }
 }
@@ -0,0 +1,71 @@
+package com.enonic.lib.graphql;
+
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import graphql.schema.GraphQLSchema;
+
+import com.enonic.xp.script.serializer.MapSerializable;
+
+/**
+ * {@link GraphQLHandler#execute} including the mapping of the result, as seen by a controller.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecuteBenchmark
+{
+    private static final String SHALLOW = "{node{id name}}";
+
+    private static final String DEEP = "{node{id children{id children{id children{id children{id children{id children{id}}}}}}}}";
+
+    private static final String WIDE = "{node{id name value description children{id name value description children{id name value description}}}}";
+
+    @Param({"shallow", "deep", "wide"})
+    public String shape;
+
+    private GraphQLHandler handler;
+
+    private GraphQLSchema schema;
+
+    private String query;
+
+    @Setup
+    public void setUp()
+    {
+        handler = new GraphQLHandler();
+        switch ( shape )
+        {
+            case "shallow":
+                schema = BenchmarkSchemas.nodeSchema( BenchmarkSchemas.tree( 1, 0 ) );
+                query = SHALLOW;
+                break;
+            case "deep":
+                schema = BenchmarkSchemas.nodeSchema( BenchmarkSchemas.tree( 7, 2 ) );
+                query = DEEP;
+                break;
+            default:
+                schema = BenchmarkSchemas.nodeSchema( BenchmarkSchemas.tree( 3, 30 ) );
+                query = WIDE;
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> execute()
+    {
+        final Object result = handler.execute( schema, query, null, null );
+        return StandInScriptValues.toMap( (MapSerializable) result );
+    }
+}
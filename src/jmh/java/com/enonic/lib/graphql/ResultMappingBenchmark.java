@@ -0,0 +1,52 @@
+package com.enonic.lib.graphql;
+
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+
+/**
+ * Serialization of an already computed result, through {@link ExecutionResultMapper} and {@link MapMapper}
+ * or straight to JSON.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResultMappingBenchmark
+{
+    @Param({"3", "30"})
+    public int width;
+
+    private ExecutionResult executionResult;
+
+    @Setup
+    public void setUp()
+    {
+        executionResult = ExecutionResultImpl.newExecutionResult().data( Map.of( "node", BenchmarkSchemas.tree( 3, width ) ) ).build();
+    }
+
+    @Benchmark
+    public Map<String, Object> mapper()
+    {
+        return StandInScriptValues.toMap( new ExecutionResultMapper( executionResult ) );
+    }
+
+    @Benchmark
+    public byte[] json()
+    {
+        return ExecutionResultJsonWriter.toJson( executionResult );
+    }
+}
@@ -0,0 +1,63 @@
+package com.enonic.lib.graphql;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.implementation.StubMethod;
+
+import com.enonic.xp.script.serializer.MapGenerator;
+import com.enonic.xp.script.serializer.MapGeneratorBase;
+
+import static net.bytebuddy.matcher.ElementMatchers.isDeclaredBy;
+import static net.bytebuddy.matcher.ElementMatchers.not;
+
+/**
+ * Generators that behave like the script engine ones as far as {@link MapMapper} can tell, without an XP runtime.
+ * Every generator method is a no-op, so that benchmarks measure the mapping code only.
+ */
+final class StandInMapGenerators
+{
+    private static final Class<? extends MapGeneratorBase> GENERATOR_CLASS = new ByteBuddy().subclass( MapGeneratorBase.class )
+        .method( not( isDeclaredBy( Object.class ) ) )
+        .intercept( StubMethod.INSTANCE )
+        .make()
+        .load( MapGeneratorBase.class.getClassLoader() )
+        .getLoaded();
+
+    private StandInMapGenerators()
+    {
+    }
+
+    /**
+     * Nashorn generators build {@link java.util.Map} instances, so the current container is a map.
+     */
+    static MapGenerator nashornStyle()
+    {
+        return newGenerator( new HashMap<>() );
+    }
+
+    /**
+     * GraalJS generators build polyglot values, so the current container is not a map.
+     */
+    static MapGenerator graalJsStyle()
+    {
+        return newGenerator( new Object() );
+    }
+
+    static MapGenerator newGenerator( final Object current )
+    {
+        try
+        {
+            final MapGeneratorBase generator = GENERATOR_CLASS.getDeclaredConstructor().newInstance();
+            final Field currentField = MapGeneratorBase.class.getDeclaredField( "current" );
+            currentField.setAccessible( true );
+            currentField.set( generator, current );
+            return generator;
+        }
+        catch ( ReflectiveOperationException e )
+        {
+            throw new IllegalStateException( e );
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.enonic.lib.graphql;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import com.enonic.xp.script.ScriptValue;
+import com.enonic.xp.script.serializer.MapGenerator;
+import com.enonic.xp.script.serializer.MapSerializable;
+
+/**
+ * {@link ScriptValue} and {@link MapGenerator} stand-ins backed by plain Java maps and lists, so that benchmarks
+ * can drive {@link GraphQlBean} and {@link GraphQLHandler} without an XP script runtime. Functions receive their
+ * {@link MapSerializable} arguments converted to maps, the way a script function receives native objects.
+ */
+final class StandInScriptValues
+{
+    private StandInScriptValues()
+    {
+    }
+
+    static ScriptValue of( final Object value )
+    {
+        if ( value == null || value instanceof ScriptValue )
+        {
+            return (ScriptValue) value;
+        }
+        return (ScriptValue) Proxy.newProxyInstance( ScriptValue.class.getClassLoader(), new Class<?>[]{ScriptValue.class},
+                                                     new ScriptValueHandler( value ) );
+    }
+
+    static ScriptValue function( final Function<Map<String, Object>, Object> function )
+    {
+        return of( function );
+    }
+
+    static Map<String, Object> toMap( final MapSerializable serializable )
+    {
+        final MapBuilder builder = new MapBuilder();
+        serializable.serialize( builder.generator );
+        return builder.root;
+    }
+
+    /**
+     * Same lazy view as the resolver wrapper of graphql.js.
+     */
+    static Map<String, Object> toLazyEnv( final DataFetchingEnvironmentView env )
+    {
+        final LazyMap lazyEnv = new LazyMap();
+        lazyEnv.define( "source", () -> env.isSourceMap() ? toLazySource( env ) : toNativeValue( env.getSource() ) );
+        lazyEnv.define( "args", () -> toNativeValue( env.getArgs() ) );
+        lazyEnv.define( "context", () -> toNativeValue( env.getContext() ) );
+        final DataLoaderLookup loader = env.getLoader();
+        if ( loader != null )
+        {
+            lazyEnv.define( "loader", () -> loader );
+        }
+        return lazyEnv;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> toLazySource( final DataFetchingEnvironmentView env )
+    {
+        final LazyMap source = new LazyMap();
+        for ( String key : (List<String>) toNativeValue( env.getSourceKeys() ) )
+        {
+            source.define( key, () -> toNativeValue( env.getSourceMember( key ) ) );
+        }
+        return source;
+    }
+
+    private static Object toNativeValue( final ValueMapper valueMapper )
+    {
+        return toMap( valueMapper ).get( "value" );
+    }
+
+    private static final class LazyMap
+        extends AbstractMap<String, Object>
+    {
+        private final Map<String, Object> values = new LinkedHashMap<>();
+
+        void define( final String key, final Supplier<Object> getter )
+        {
+            values.put( key, getter );
+        }
+
+        @Override
+        public Object get( final Object key )
+        {
+            final Object value = values.get( key );
+            if ( value instanceof Supplier )
+            {
+                final Object resolved = ( (Supplier<?>) value ).get();
+                values.put( (String) key, resolved );
+                return resolved;
+            }
+            return value;
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet()
+        {
+            values.keySet().forEach( this::get );
+            return values.entrySet();
+        }
+    }
+
+    private static final class ScriptValueHandler
+        implements InvocationHandler
+    {
+        private final Object value;
+
+        ScriptValueHandler( final Object value )
+        {
+            this.value = value;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object invoke( final Object proxy, final Method method, final Object[] args )
+        {
+            switch ( method.getName() )
+            {
+                case "isArray":
+                    return value instanceof List;
+                case "isObject":
+                    return value instanceof Map;
+                case "isFunction":
+                    return value instanceof Function;
+                case "isValue":
+                    return !( value instanceof List || value instanceof Map || value instanceof Function );
+                case "getValue":
+                    if ( args != null && args.length == 1 )
+                    {
+                        final Class<?> type = (Class<?>) args[0];
+                        return type.isInstance( value ) ? value : null;
+                    }
+                    return value;
+                case "getKeys":
+                    return ( (Map<String, Object>) value ).keySet();
+                case "hasMember":
+                    return value instanceof Map && ( (Map<String, Object>) value ).containsKey( (String) args[0] );
+                case "getMember":
+                    return value instanceof Map ? of( ( (Map<String, Object>) value ).get( (String) args[0] ) ) : null;
+                case "getArray":
+                    return ( (List<Object>) value ).stream().map( StandInScriptValues::of ).collect( Collectors.toList() );
+                case "getList":
+                    return value;
+                case "getMap":
+                    return value;
+                case "call":
+                    return of( call( (Object[]) args[0] ) );
+                case "toString":
+                    return String.valueOf( value );
+                case "hashCode":
+                    return System.identityHashCode( proxy );
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    throw new UnsupportedOperationException( method.getName() );
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private Object call( final Object[] args )
+        {
+            final Object argument = args.length == 0 ? null : args[0];
+            final Map<String, Object> nativeArgument;
+            if ( argument instanceof DataFetchingEnvironmentView )
+            {
+                nativeArgument = toLazyEnv( (DataFetchingEnvironmentView) argument );
+            }
+            else
+            {
+                nativeArgument = argument instanceof MapSerializable ? toMap( (MapSerializable) argument ) : (Map<String, Object>) argument;
+            }
+            return ( (Function<Map<String, Object>, Object>) value ).apply( nativeArgument );
+        }
+    }
+
+    /**
+     * Builds maps and lists the way the Nashorn generator does, but is not a MapGeneratorBase.
+     */
+    static final class MapBuilder
+        implements InvocationHandler
+    {
+        final Map<String, Object> root = new LinkedHashMap<>();
+
+        final MapGenerator generator =
+            (MapGenerator) Proxy.newProxyInstance( MapGenerator.class.getClassLoader(), new Class<?>[]{MapGenerator.class}, this );
+
+        private final Deque<Object> stack = new ArrayDeque<>();
+
+        MapBuilder()
+        {
+            stack.push( root );
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object invoke( final Object proxy, final Method method, final Object[] args )
+        {
+            final String name = args != null && args.length == 1 && ( method.getName().equals( "map" ) || method.getName().equals( "array" ) )
+                ? (String) args[0]
+                : null;
+            switch ( method.getName() )
+            {
+                case "map":
+                    push( name, new LinkedHashMap<String, Object>() );
+                    return proxy;
+                case "array":
+                    push( name, new ArrayList<>() );
+                    return proxy;
+                case "value":
+                case "rawValue":
+                    if ( args.length == 2 )
+                    {
+                        ( (Map<String, Object>) stack.peek() ).put( (String) args[0], args[1] );
+                    }
+                    else
+                    {
+                        ( (List<Object>) stack.peek() ).add( args[0] );
+                    }
+                    return proxy;
+                case "end":
+                    stack.pop();
+                    return proxy;
+                case "hashCode":
+                    return System.identityHashCode( proxy );
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return root.toString();
+                default:
+                    throw new UnsupportedOperationException( method.getName() );
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void push( final String name, final Object container )
+        {
+            final Object current = stack.peek();
+            if ( current instanceof Map )
+            {
+                ( (Map<String, Object>) current ).put( name, container );
+            }
+            else
+            {
+                ( (List<Object>) current ).add( container );
+            }
+            stack.push( container );
+        }
+    }
+}
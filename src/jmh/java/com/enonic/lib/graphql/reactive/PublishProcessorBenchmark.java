@@ -0,0 +1,101 @@
+package com.enonic.lib.graphql.reactive;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Cost of publishing one item to all subscribers, unfiltered and through a filter matching a tenth of them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PublishProcessorBenchmark
+{
+    @Param({"1", "100", "1000"})
+    public int subscribers;
+
+    @Param({"false", "true"})
+    public boolean filtered;
+
+    private PublishProcessor<Integer> processor;
+
+    private int item;
+
+    @Setup
+    public void setUp( final Blackhole blackhole )
+    {
+        processor = new PublishProcessor<>();
+        for ( int i = 0; i < subscribers; i++ )
+        {
+            final int key = i % 10;
+            final BlackholeSubscriber subscriber = new BlackholeSubscriber( blackhole );
+            if ( filtered )
+            {
+                processor.filter( value -> value % 10 == key ).subscribe( subscriber );
+            }
+            else
+            {
+                processor.subscribe( subscriber );
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        processor.onComplete();
+    }
+
+    @Benchmark
+    public void onNext()
+    {
+        processor.onNext( item++ );
+    }
+
+    private static final class BlackholeSubscriber
+        implements Subscriber<Integer>
+    {
+        private final Blackhole blackhole;
+
+        BlackholeSubscriber( final Blackhole blackhole )
+        {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void onSubscribe( final Subscription subscription )
+        {
+            subscription.request( Long.MAX_VALUE );
+        }
+
+        @Override
+        public void onNext( final Integer item )
+        {
+            blackhole.consume( item );
+        }
+
+        @Override
+        public void onError( final Throwable throwable )
+        {
+        }
+
+        @Override
+        public void onComplete()
+        {
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.enonic.lib.graphql;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.enonic.xp.context.Context;
+import com.enonic.xp.context.ContextAccessor;
+
+/**
+ * Runs async resolvers with at most {@code maxConcurrency} of them in flight. A resolver submitted while all permits
+ * are taken runs on the submitting thread instead, so a saturated executor degrades to synchronous execution rather
+ * than queueing without bound, and so does a resolver submitted after {@link #shutdown()}. The XP context of the
+ * submitting thread is applied on the worker thread.
+ */
+final class AsyncResolverExecutor
+    implements Executor
+{
+    static final int DEFAULT_MAX_CONCURRENCY = Runtime.getRuntime().availableProcessors() * 2;
+
+    private final Semaphore permits;
+
+    private final ExecutorService delegate;
+
+    AsyncResolverExecutor( final int maxConcurrency, final boolean virtualThreads )
+    {
+        if ( maxConcurrency < 1 )
+        {
+            throw new IllegalArgumentException( "maxConcurrency must be positive" );
+        }
+        this.permits = new Semaphore( maxConcurrency );
+        this.delegate = virtualThreads ? Executors.newVirtualThreadPerTaskExecutor() : Executors.newCachedThreadPool( new DaemonThreadFactory() );
+    }
+
+    @Override
+    public void execute( final Runnable command )
+    {
+        if ( !permits.tryAcquire() )
+        {
+            command.run();
+            return;
+        }
+
+        final Context context = ContextAccessor.current();
+        try
+        {
+            delegate.execute( () -> {
+                try
+                {
+                    context.runWith( command );
+                }
+                finally
+                {
+                    permits.release();
+                }
+            } );
+        }
+        catch ( RejectedExecutionException e )
+        {
+            permits.release();
+            command.run();
+        }
+    }
+
+    /**
+     * Lets the resolvers in flight complete and stops the worker threads.
+     */
+    void shutdown()
+    {
+        delegate.shutdown();
+    }
+
+    private static final class DaemonThreadFactory
+        implements ThreadFactory
+    {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread( final Runnable runnable )
+        {
+            final Thread thread = new Thread( runnable, "lib-graphql-resolver-" + counter.incrementAndGet() );
+            thread.setDaemon( true );
+            return thread;
+        }
+    }
+}
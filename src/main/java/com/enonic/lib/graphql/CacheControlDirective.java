@@ -0,0 +1,55 @@
+package com.enonic.lib.graphql;
+
+import graphql.Scalars;
+import graphql.introspection.Introspection;
+import graphql.schema.GraphQLAppliedDirective;
+import graphql.schema.GraphQLAppliedDirectiveArgument;
+import graphql.schema.GraphQLArgument;
+import graphql.schema.GraphQLDirective;
+import graphql.schema.GraphQLFieldDefinition;
+
+/**
+ * The {@code @cacheControl(maxAge: Int)} directive carrying how long, in seconds, the value of a field may be served
+ * from the result cache.
+ */
+final class CacheControlDirective
+{
+    static final String NAME = "cacheControl";
+
+    static final String MAX_AGE = "maxAge";
+
+    static final GraphQLDirective DEFINITION = GraphQLDirective.newDirective()
+        .name( NAME )
+        .description( "Seconds the value of the field may be served from the result cache" )
+        .validLocation( Introspection.DirectiveLocation.FIELD_DEFINITION )
+        .argument( GraphQLArgument.newArgument().name( MAX_AGE ).type( Scalars.GraphQLInt ) )
+        .build();
+
+    /**
+     * The definition in SDL, added to schemas defined in SDL that use the directive without declaring it.
+     */
+    static final String SDL = "directive @cacheControl(maxAge: Int) on FIELD_DEFINITION";
+
+    private CacheControlDirective()
+    {
+    }
+
+    static GraphQLAppliedDirective apply( final int maxAge )
+    {
+        return GraphQLAppliedDirective.newDirective()
+            .name( NAME )
+            .argument( GraphQLAppliedDirectiveArgument.newArgument().name( MAX_AGE ).type( Scalars.GraphQLInt ).valueProgrammatic( maxAge ) )
+            .build();
+    }
+
+    /**
+     * @return the max age of the field in seconds, or {@code null} if it has no hint
+     */
+    static Integer getMaxAge( final GraphQLFieldDefinition fieldDefinition )
+    {
+        final GraphQLAppliedDirective directive = fieldDefinition.getAppliedDirective( NAME );
+        final GraphQLAppliedDirectiveArgument argument = directive == null ? null : directive.getArgument( MAX_AGE );
+        final Number maxAge = argument == null ? null : argument.getValue();
+        return maxAge == null ? null : maxAge.intValue();
+    }
+}
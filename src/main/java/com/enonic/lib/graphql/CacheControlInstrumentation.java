@@ -0,0 +1,70 @@
+package com.enonic.lib.graphql;
+
+import graphql.ExecutionResult;
+import graphql.execution.ExecutionStepInfo;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.language.OperationDefinition;
+
+/**
+ * Narrows the {@link CachePolicy} of an execution by the {@code @cacheControl} hints of the fields it fetches.
+ * Mutations and subscriptions are never cached. Executions without a policy get no state and pay nothing per field.
+ */
+final class CacheControlInstrumentation
+    extends SimplePerformantInstrumentation
+{
+    @Override
+    public InstrumentationState createState( final InstrumentationCreateStateParameters parameters )
+    {
+        final Object policy = parameters.getExecutionInput().getGraphQLContext().get( CachePolicy.CONTEXT_KEY );
+        return policy == null ? null : new PolicyState( (CachePolicy) policy );
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation( final InstrumentationExecuteOperationParameters parameters,
+                                                                          final InstrumentationState state )
+    {
+        if ( state != null &&
+            parameters.getExecutionContext().getOperationDefinition().getOperation() != OperationDefinition.Operation.QUERY )
+        {
+            ( (PolicyState) state ).policy.restrict( 0 );
+        }
+        return super.beginExecuteOperation( parameters, state );
+    }
+
+    @Override
+    public InstrumentationContext<Object> beginFieldFetch( final InstrumentationFieldFetchParameters parameters,
+                                                           final InstrumentationState state )
+    {
+        if ( state != null )
+        {
+            final CachePolicy policy = ( (PolicyState) state ).policy;
+            final ExecutionStepInfo stepInfo = parameters.getExecutionStepInfo();
+            final Integer maxAge = CacheControlDirective.getMaxAge( stepInfo.getFieldDefinition() );
+            if ( maxAge != null )
+            {
+                policy.restrict( maxAge );
+            }
+            else if ( stepInfo.getPath().getLevel() == 1 )
+            {
+                policy.restrict( policy.getDefaultMaxAge() );
+            }
+        }
+        return super.beginFieldFetch( parameters, state );
+    }
+
+    private static final class PolicyState
+        implements InstrumentationState
+    {
+        private final CachePolicy policy;
+
+        PolicyState( final CachePolicy policy )
+        {
+            this.policy = policy;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.enonic.lib.graphql;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The max age of a result, the lowest of the {@code @cacheControl} hints of the fields it resolved. Root fields without
+ * a hint count with the default max age of the execution; other fields without a hint do not count, their value is
+ * part of the value of a field above them.
+ */
+final class CachePolicy
+{
+    static final String CONTEXT_KEY = CachePolicy.class.getName();
+
+    private final int defaultMaxAge;
+
+    private final AtomicInteger maxAge = new AtomicInteger( Integer.MAX_VALUE );
+
+    CachePolicy( final int defaultMaxAge )
+    {
+        this.defaultMaxAge = defaultMaxAge;
+    }
+
+    void restrict( final int seconds )
+    {
+        maxAge.accumulateAndGet( seconds, Math::min );
+    }
+
+    int getDefaultMaxAge()
+    {
+        return defaultMaxAge;
+    }
+
+    /**
+     * @return the max age in seconds, 0 if the result must not be cached
+     */
+    int getMaxAge()
+    {
+        final int value = maxAge.get();
+        return value == Integer.MAX_VALUE ? defaultMaxAge : Math.max( 0, value );
+    }
+}
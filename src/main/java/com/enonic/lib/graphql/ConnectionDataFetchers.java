@@ -0,0 +1,127 @@
+package com.enonic.lib.graphql;
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import graphql.schema.DataFetcher;
+
+/**
+ * Data fetchers of the Relay connection types built by {@link GraphQlBean#createConnectionType}. The source of a
+ * connection is a map with the members {@code total}, {@code hits}, and optionally {@code start} and {@code hasNext}.
+ * Edges are created when the list is read and cursors are encoded only when selected.
+ */
+final class ConnectionDataFetchers
+{
+    private ConnectionDataFetchers()
+    {
+    }
+
+    static DataFetcher<List<Map<String, Object>>> edges( final String cursorProperty )
+    {
+        return env -> {
+            final Map<?, ?> connection = env.getSource();
+            if ( connection == null )
+            {
+                return null;
+            }
+            final List<?> hits = getHits( connection );
+            final long start = getStart( connection );
+            return new AbstractList<>()
+            {
+                @Override
+                public Map<String, Object> get( final int index )
+                {
+                    final Object hit = hits.get( index );
+                    final Map<String, Object> edge = new HashMap<>( 4 );
+                    edge.put( "node", hit );
+                    edge.put( "cursor", cursorOf( hit, start + index, cursorProperty ) );
+                    return edge;
+                }
+
+                @Override
+                public int size()
+                {
+                    return hits.size();
+                }
+            };
+        };
+    }
+
+    static DataFetcher<Map<String, Object>> pageInfo( final String cursorProperty )
+    {
+        return env -> {
+            final Map<?, ?> connection = env.getSource();
+            if ( connection == null )
+            {
+                return null;
+            }
+            final List<?> hits = getHits( connection );
+            final long start = getStart( connection );
+            final int count = hits.size();
+            final long last = start + ( count == 0 ? 0 : count - 1 );
+
+            final Map<String, Object> pageInfo = new HashMap<>( 4 );
+            pageInfo.put( "startCursor", count == 0 ? cursorOf( null, start, cursorProperty ) : cursorOf( hits.get( 0 ), start, cursorProperty ) );
+            pageInfo.put( "endCursor", count == 0 ? cursorOf( null, last, cursorProperty ) : cursorOf( hits.get( count - 1 ), last, cursorProperty ) );
+            final Object hasNext = connection.get( "hasNext" );
+            pageInfo.put( "hasNext", hasNext instanceof Boolean ? hasNext : start + count < getTotal( connection ) );
+            return pageInfo;
+        };
+    }
+
+    /**
+     * Encodes the raw cursor of an edge or a page info: an offset, or the sort key of a hit.
+     */
+    static DataFetcher<String> encodedCursor( final String name )
+    {
+        return env -> {
+            final Map<?, ?> source = env.getSource();
+            final Object cursor = source == null ? null : source.get( name );
+            if ( cursor instanceof Long )
+            {
+                return CursorHelper.encodeOffset( (Long) cursor );
+            }
+            if ( cursor instanceof List )
+            {
+                return CursorHelper.encodeKey( (List<?>) cursor );
+            }
+            return cursor == null ? null : CursorHelper.encode( String.valueOf( cursor ) );
+        };
+    }
+
+    private static Object cursorOf( final Object hit, final long offset, final String cursorProperty )
+    {
+        if ( cursorProperty == null )
+        {
+            return offset;
+        }
+        // Keyset cursor, an empty page has no position to continue from.
+        final Object key = hit instanceof Map ? ( (Map<?, ?>) hit ).get( cursorProperty ) : null;
+        if ( key instanceof List )
+        {
+            return key;
+        }
+        return key == null ? List.of() : Collections.singletonList( key );
+    }
+
+    private static List<?> getHits( final Map<?, ?> connection )
+    {
+        final Object hits = connection.get( "hits" );
+        return hits instanceof List ? (List<?>) hits : List.of();
+    }
+
+    private static long getStart( final Map<?, ?> connection )
+    {
+        final Object start = connection.get( "start" );
+        return start instanceof Number ? ( (Number) start ).longValue() : 0;
+    }
+
+    private static long getTotal( final Map<?, ?> connection )
+    {
+        final Object total = connection.get( "total" );
+        return total instanceof Number ? ( (Number) total ).longValue() : 0;
+    }
+}
@@ -0,0 +1,78 @@
+package com.enonic.lib.graphql;
+
+import java.util.List;
+
+import graphql.Scalars;
+import graphql.introspection.Introspection;
+import graphql.schema.GraphQLAppliedDirective;
+import graphql.schema.GraphQLAppliedDirectiveArgument;
+import graphql.schema.GraphQLArgument;
+import graphql.schema.GraphQLDirective;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLNonNull;
+
+/**
+ * The {@code @cost(weight: Int, multipliers: [String!])} directive carrying the cost model of a field in the schema.
+ */
+final class CostDirective
+{
+    static final String NAME = "cost";
+
+    static final String WEIGHT = "weight";
+
+    static final String MULTIPLIERS = "multipliers";
+
+    static final int DEFAULT_WEIGHT = 1;
+
+    static final GraphQLDirective DEFINITION = GraphQLDirective.newDirective()
+        .name( NAME )
+        .description( "Cost of the field for query cost analysis" )
+        .validLocation( Introspection.DirectiveLocation.FIELD_DEFINITION )
+        .argument( GraphQLArgument.newArgument().name( WEIGHT ).type( Scalars.GraphQLInt ) )
+        .argument( GraphQLArgument.newArgument().name( MULTIPLIERS ).type( GraphQLList.list( GraphQLNonNull.nonNull( Scalars.GraphQLString ) ) ) )
+        .build();
+
+    /**
+     * The definition in SDL, added to schemas defined in SDL that use the directive without declaring it.
+     */
+    static final String SDL = "directive @cost(weight: Int, multipliers: [String!]) on FIELD_DEFINITION";
+
+    private CostDirective()
+    {
+    }
+
+    static GraphQLAppliedDirective apply( final Integer weight, final List<String> multipliers )
+    {
+        final GraphQLAppliedDirective.Builder directive = GraphQLAppliedDirective.newDirective().name( NAME );
+        if ( weight != null )
+        {
+            directive.argument(
+                GraphQLAppliedDirectiveArgument.newArgument().name( WEIGHT ).type( Scalars.GraphQLInt ).valueProgrammatic( weight ) );
+        }
+        if ( multipliers != null )
+        {
+            directive.argument( GraphQLAppliedDirectiveArgument.newArgument()
+                                    .name( MULTIPLIERS )
+                                    .type( GraphQLList.list( GraphQLNonNull.nonNull( Scalars.GraphQLString ) ) )
+                                    .valueProgrammatic( multipliers ) );
+        }
+        return directive.build();
+    }
+
+    static int getWeight( final GraphQLFieldDefinition fieldDefinition )
+    {
+        final GraphQLAppliedDirective directive = fieldDefinition.getAppliedDirective( NAME );
+        final GraphQLAppliedDirectiveArgument argument = directive == null ? null : directive.getArgument( WEIGHT );
+        final Number weight = argument == null ? null : argument.getValue();
+        return weight == null ? DEFAULT_WEIGHT : weight.intValue();
+    }
+
+    static List<String> getMultipliers( final GraphQLFieldDefinition fieldDefinition )
+    {
+        final GraphQLAppliedDirective directive = fieldDefinition.getAppliedDirective( NAME );
+        final GraphQLAppliedDirectiveArgument argument = directive == null ? null : directive.getArgument( MULTIPLIERS );
+        final List<String> multipliers = argument == null ? null : argument.getValue();
+        return multipliers == null ? List.of() : multipliers;
+    }
+}
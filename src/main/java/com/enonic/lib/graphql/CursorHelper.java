@@ -1,18 +1,549 @@
 package com.enonic.lib.graphql;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.List;
 
+/**
+ * Cursor codec. {@link #encode} and {@link #decode} convert any text to and from Base64. Connection cursors use typed
+ * payloads instead, written straight to URL-safe Base64 without padding:
+ * <pre>
+ * offset cursor: VERSION OFFSET zigzag-varint
+ * key cursor:    VERSION KEY count-varint (tag value)*
+ * </pre>
+ * The leading version byte encodes to the character {@code A}, which Base64 of text never starts with, so typed and
+ * text cursors can be told apart without decoding.
+ */
 public class CursorHelper
 {
+    private static final byte VERSION = 1;
+
+    private static final byte OFFSET = 'o';
+
+    private static final byte KEY = 'k';
+
+    private static final byte TAG_NULL = 'n';
+
+    private static final byte TAG_FALSE = 'f';
+
+    private static final byte TAG_TRUE = 't';
+
+    private static final byte TAG_LONG = 'l';
+
+    private static final byte TAG_DOUBLE = 'd';
+
+    private static final byte TAG_STRING = 's';
+
+    private static final char VERSION_CHAR = 'A';
+
+    private static final char[] ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+
+    private static final byte[] DECODE = new byte[128];
+
+    static
+    {
+        Arrays.fill( DECODE, (byte) -1 );
+        for ( int i = 0; i < ALPHABET.length; i++ )
+        {
+            DECODE[ALPHABET[i]] = (byte) i;
+        }
+        // Accept the standard alphabet too
+        DECODE['+'] = 62;
+        DECODE['/'] = 63;
+    }
+
     public static String encode( final String value )
     {
-        final byte[] encodedBytes = Base64.getEncoder().encode( value.getBytes() );
-        return new String( encodedBytes );
+        return Base64.getEncoder().encodeToString( value.getBytes( StandardCharsets.UTF_8 ) );
     }
 
+    /**
+     * Decodes a text cursor. Typed cursors are decoded to their text form: the offset, or the comma separated key values.
+     */
     public static String decode( final String value )
     {
-        final byte[] decodedBytes = Base64.getDecoder().decode( value.getBytes() );
-        return new String( decodedBytes );
+        if ( isTyped( value ) )
+        {
+            final Reader reader = new Reader( value );
+            if ( reader.readByte() == OFFSET )
+            {
+                return Long.toString( reader.readZigZag() );
+            }
+            final StringBuilder text = new StringBuilder();
+            for ( Object key : readKey( reader ) )
+            {
+                if ( text.length() > 0 )
+                {
+                    text.append( ',' );
+                }
+                text.append( key );
+            }
+            return text.toString();
+        }
+        return new String( Base64.getDecoder().decode( value ), StandardCharsets.UTF_8 );
+    }
+
+    public static String encodeOffset( final long offset )
+    {
+        final long zigZag = zigZag( offset );
+        final int length = 2 + varintLength( zigZag );
+        final char[] chars = new char[encodedLength( length )];
+        final Writer writer = new Writer( chars );
+        writer.write( VERSION );
+        writer.write( OFFSET );
+        writer.writeVarint( zigZag );
+        writer.flush();
+        return new String( chars );
+    }
+
+    /**
+     * Decodes an offset cursor, typed or text, without creating intermediate strings.
+     */
+    public static long decodeOffset( final String value )
+    {
+        if ( isTyped( value ) )
+        {
+            final Reader reader = new Reader( value );
+            if ( reader.readByte() != OFFSET )
+            {
+                throw new IllegalArgumentException( "Not an offset cursor: " + value );
+            }
+            return reader.readZigZag();
+        }
+
+        final Reader reader = new Reader( value );
+        long offset = 0;
+        boolean negative = false;
+        boolean digits = false;
+        while ( reader.hasMore() )
+        {
+            final int c = reader.readByte();
+            if ( c == '-' && !digits && !negative )
+            {
+                negative = true;
+            }
+            else if ( c >= '0' && c <= '9' )
+            {
+                try
+                {
+                    offset = Math.addExact( Math.multiplyExact( offset, 10 ), c - '0' );
+                }
+                catch ( ArithmeticException e )
+                {
+                    throw new IllegalArgumentException( "Not an offset cursor: " + value, e );
+                }
+                digits = true;
+            }
+            else
+            {
+                throw new IllegalArgumentException( "Not an offset cursor: " + value );
+            }
+        }
+        if ( !digits )
+        {
+            throw new IllegalArgumentException( "Not an offset cursor: " + value );
+        }
+        return negative ? -offset : offset;
+    }
+
+    /**
+     * Encodes a composite sort key. Values may be {@code null}, booleans, numbers or strings, other values are
+     * encoded as their string form. Integral numbers are decoded as {@link Long}, others as {@link Double}.
+     */
+    public static String encodeKey( final List<?> values )
+    {
+        int length = 2 + varintLength( values.size() );
+        for ( Object value : values )
+        {
+            length += keyValueLength( value );
+        }
+
+        final char[] chars = new char[encodedLength( length )];
+        final Writer writer = new Writer( chars );
+        writer.write( VERSION );
+        writer.write( KEY );
+        writer.writeVarint( values.size() );
+        for ( Object value : values )
+        {
+            writeKeyValue( writer, value );
+        }
+        writer.flush();
+        return new String( chars );
+    }
+
+    public static List<Object> decodeKey( final String value )
+    {
+        if ( !isTyped( value ) )
+        {
+            throw new IllegalArgumentException( "Not a key cursor: " + value );
+        }
+        final Reader reader = new Reader( value );
+        if ( reader.readByte() != KEY )
+        {
+            throw new IllegalArgumentException( "Not a key cursor: " + value );
+        }
+        return readKey( reader );
+    }
+
+    private static boolean isTyped( final String value )
+    {
+        return !value.isEmpty() && value.charAt( 0 ) == VERSION_CHAR;
+    }
+
+    private static List<Object> readKey( final Reader reader )
+    {
+        final int count = reader.readLength();
+        final List<Object> values = new ArrayList<>( count );
+        for ( int i = 0; i < count; i++ )
+        {
+            values.add( readKeyValue( reader ) );
+        }
+        return values;
+    }
+
+    private static Object readKeyValue( final Reader reader )
+    {
+        final int tag = reader.readByte();
+        switch ( tag )
+        {
+            case TAG_NULL:
+                return null;
+            case TAG_FALSE:
+                return false;
+            case TAG_TRUE:
+                return true;
+            case TAG_LONG:
+                return reader.readZigZag();
+            case TAG_DOUBLE:
+                return Double.longBitsToDouble( reader.readFixed64() );
+            case TAG_STRING:
+                final byte[] bytes = new byte[reader.readLength()];
+                for ( int i = 0; i < bytes.length; i++ )
+                {
+                    bytes[i] = (byte) reader.readByte();
+                }
+                return new String( bytes, StandardCharsets.UTF_8 );
+            default:
+                throw new IllegalArgumentException( "Invalid cursor value tag: " + tag );
+        }
+    }
+
+    private static int keyValueLength( final Object value )
+    {
+        if ( value == null || value instanceof Boolean )
+        {
+            return 1;
+        }
+        if ( isIntegral( value ) )
+        {
+            return 1 + varintLength( zigZag( ( (Number) value ).longValue() ) );
+        }
+        if ( value instanceof Number )
+        {
+            return 9;
+        }
+        final int utf8Length = utf8Length( value.toString() );
+        return 1 + varintLength( utf8Length ) + utf8Length;
+    }
+
+    private static void writeKeyValue( final Writer writer, final Object value )
+    {
+        if ( value == null )
+        {
+            writer.write( TAG_NULL );
+        }
+        else if ( value instanceof Boolean )
+        {
+            writer.write( (Boolean) value ? TAG_TRUE : TAG_FALSE );
+        }
+        else if ( isIntegral( value ) )
+        {
+            writer.write( TAG_LONG );
+            writer.writeVarint( zigZag( ( (Number) value ).longValue() ) );
+        }
+        else if ( value instanceof Number )
+        {
+            writer.write( TAG_DOUBLE );
+            writer.writeFixed64( Double.doubleToRawLongBits( ( (Number) value ).doubleValue() ) );
+        }
+        else
+        {
+            final String text = value.toString();
+            writer.write( TAG_STRING );
+            writer.writeVarint( utf8Length( text ) );
+            writer.writeUtf8( text );
+        }
+    }
+
+    private static boolean isIntegral( final Object value )
+    {
+        if ( value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte )
+        {
+            return true;
+        }
+        // Script numbers are doubles, keep whole ones compact
+        if ( value instanceof Double || value instanceof Float )
+        {
+            final double d = ( (Number) value ).doubleValue();
+            return d == Math.rint( d ) && Math.abs( d ) < 0x1p53 && !( d == 0 && 1 / d < 0 );
+        }
+        return false;
+    }
+
+    private static long zigZag( final long value )
+    {
+        return ( value << 1 ) ^ ( value >> 63 );
+    }
+
+    private static int varintLength( final long value )
+    {
+        final int bits = 64 - Long.numberOfLeadingZeros( value | 1 );
+        return ( bits + 6 ) / 7;
+    }
+
+    private static int utf8Length( final String text )
+    {
+        int length = 0;
+        for ( int i = 0; i < text.length(); i++ )
+        {
+            final char c = text.charAt( i );
+            if ( c < 0x80 )
+            {
+                length++;
+            }
+            else if ( c < 0x800 )
+            {
+                length += 2;
+            }
+            else if ( Character.isHighSurrogate( c ) && i + 1 < text.length() && Character.isLowSurrogate( text.charAt( i + 1 ) ) )
+            {
+                length += 4;
+                i++;
+            }
+            else
+            {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private static int encodedLength( final int byteLength )
+    {
+        return ( byteLength * 4 + 2 ) / 3;
+    }
+
+    /**
+     * Writes bytes as unpadded URL-safe Base64 into a char array of the exact size.
+     */
+    private static final class Writer
+    {
+        private final char[] chars;
+
+        private int position;
+
+        private int buffer;
+
+        private int bufferedBytes;
+
+        Writer( final char[] chars )
+        {
+            this.chars = chars;
+        }
+
+        void write( final int b )
+        {
+            buffer = ( buffer << 8 ) | ( b & 0xFF );
+            if ( ++bufferedBytes == 3 )
+            {
+                chars[position++] = ALPHABET[( buffer >>> 18 ) & 0x3F];
+                chars[position++] = ALPHABET[( buffer >>> 12 ) & 0x3F];
+                chars[position++] = ALPHABET[( buffer >>> 6 ) & 0x3F];
+                chars[position++] = ALPHABET[buffer & 0x3F];
+                buffer = 0;
+                bufferedBytes = 0;
+            }
+        }
+
+        void writeVarint( long value )
+        {
+            while ( ( value & ~0x7FL ) != 0 )
+            {
+                write( (int) ( ( value & 0x7F ) | 0x80 ) );
+                value >>>= 7;
+            }
+            write( (int) value );
+        }
+
+        void writeFixed64( final long value )
+        {
+            for ( int shift = 56; shift >= 0; shift -= 8 )
+            {
+                write( (int) ( value >>> shift ) );
+            }
+        }
+
+        void writeUtf8( final String text )
+        {
+            for ( int i = 0; i < text.length(); i++ )
+            {
+                final char c = text.charAt( i );
+                if ( c < 0x80 )
+                {
+                    write( c );
+                }
+                else if ( c < 0x800 )
+                {
+                    write( 0xC0 | ( c >> 6 ) );
+                    write( 0x80 | ( c & 0x3F ) );
+                }
+                else if ( Character.isHighSurrogate( c ) && i + 1 < text.length() && Character.isLowSurrogate( text.charAt( i + 1 ) ) )
+                {
+                    final int codePoint = Character.toCodePoint( c, text.charAt( ++i ) );
+                    write( 0xF0 | ( codePoint >> 18 ) );
+                    write( 0x80 | ( ( codePoint >> 12 ) & 0x3F ) );
+                    write( 0x80 | ( ( codePoint >> 6 ) & 0x3F ) );
+                    write( 0x80 | ( codePoint & 0x3F ) );
+                }
+                else
+                {
+                    // Lone surrogates are written as U+FFFD, the same as String.getBytes
+                    final int codePoint = Character.isSurrogate( c ) ? 0xFFFD : c;
+                    write( 0xE0 | ( codePoint >> 12 ) );
+                    write( 0x80 | ( ( codePoint >> 6 ) & 0x3F ) );
+                    write( 0x80 | ( codePoint & 0x3F ) );
+                }
+            }
+        }
+
+        void flush()
+        {
+            if ( bufferedBytes == 1 )
+            {
+                chars[position++] = ALPHABET[( buffer >>> 2 ) & 0x3F];
+                chars[position++] = ALPHABET[( buffer << 4 ) & 0x3F];
+            }
+            else if ( bufferedBytes == 2 )
+            {
+                chars[position++] = ALPHABET[( buffer >>> 10 ) & 0x3F];
+                chars[position++] = ALPHABET[( buffer >>> 4 ) & 0x3F];
+                chars[position++] = ALPHABET[( buffer << 2 ) & 0x3F];
+            }
+        }
+    }
+
+    /**
+     * Reads bytes from Base64 text, padded or not, in either alphabet. A typed cursor starts after its version byte.
+     */
+    private static final class Reader
+    {
+        private final String text;
+
+        private int position;
+
+        private int buffer;
+
+        private int bufferedBits;
+
+        Reader( final String text )
+        {
+            this.text = text;
+            if ( isTyped( text ) && readByte() != VERSION )
+            {
+                throw new IllegalArgumentException( "Unsupported cursor version: " + text );
+            }
+        }
+
+        boolean hasMore()
+        {
+            int available = bufferedBits;
+            for ( int i = position; i < text.length() && available < 8; i++ )
+            {
+                if ( text.charAt( i ) == '=' )
+                {
+                    break;
+                }
+                available += 6;
+            }
+            return available >= 8;
+        }
+
+        int readByte()
+        {
+            while ( bufferedBits < 8 )
+            {
+                if ( position >= text.length() || text.charAt( position ) == '=' )
+                {
+                    throw new IllegalArgumentException( "Truncated cursor: " + text );
+                }
+                final char c = text.charAt( position++ );
+                final int sextet = c < 128 ? DECODE[c] : -1;
+                if ( sextet < 0 )
+                {
+                    throw new IllegalArgumentException( "Invalid cursor: " + text );
+                }
+                buffer = ( buffer << 6 ) | sextet;
+                bufferedBits += 6;
+            }
+            bufferedBits -= 8;
+            return ( buffer >>> bufferedBits ) & 0xFF;
+        }
+
+        long readVarint()
+        {
+            long value = 0;
+            for ( int shift = 0; shift < 64; shift += 7 )
+            {
+                final int b = readByte();
+                value |= (long) ( b & 0x7F ) << shift;
+                if ( ( b & 0x80 ) == 0 )
+                {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException( "Invalid cursor: " + text );
+        }
+
+        /**
+         * Reads the count or length of what follows, which the client controls, so it is checked against the bytes left
+         * before anything is allocated for it. Every key value takes at least one byte.
+         */
+        int readLength()
+        {
+            final long length = readVarint();
+            if ( length < 0 || length > remaining() )
+            {
+                throw new IllegalArgumentException( "Invalid cursor: " + text );
+            }
+            return (int) length;
+        }
+
+        private int remaining()
+        {
+            int bits = bufferedBits;
+            for ( int i = position; i < text.length() && text.charAt( i ) != '='; i++ )
+            {
+                bits += 6;
+            }
+            return bits / 8;
+        }
+
+        long readZigZag()
+        {
+            final long value = readVarint();
+            return ( value >>> 1 ) ^ -( value & 1 );
+        }
+
+        long readFixed64()
+        {
+            long value = 0;
+            for ( int i = 0; i < 8; i++ )
+            {
+                value = ( value << 8 ) | readByte();
+            }
+            return value;
+        }
     }
 }
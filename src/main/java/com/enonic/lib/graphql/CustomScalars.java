@@ -1,5 +1,11 @@
 package com.enonic.lib.graphql;
 
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import graphql.scalars.ExtendedScalars;
 import graphql.schema.GraphQLScalarType;
 
 import com.enonic.lib.graphql.scalars.LocalDateTimeScalar;
@@ -11,6 +17,13 @@ public class CustomScalars
 
     public static final GraphQLScalarType LocalTime = LocalTimeScalar.newLocalTime();
 
+    /**
+     * The scalars exported by the library, by name, to wire the scalars of a schema defined in SDL.
+     */
+    static final Map<String, GraphQLScalarType> SDL_SCALARS =
+        Stream.of( ExtendedScalars.Date, ExtendedScalars.DateTime, ExtendedScalars.Time, ExtendedScalars.Json, LocalDateTime, LocalTime )
+            .collect( Collectors.toUnmodifiableMap( GraphQLScalarType::getName, Function.identity() ) );
+
     private CustomScalars()
     {
     }
@@ -0,0 +1,71 @@
+package com.enonic.lib.graphql;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.dataloader.DataLoaderRegistry;
+
+import graphql.schema.DataFetchingEnvironment;
+
+/**
+ * Read-through view of a {@link DataFetchingEnvironment} for resolver functions. Nothing is converted up front:
+ * graphql.js exposes {@code source}, {@code args}, {@code context} and {@code loader} as lazy properties, and the
+ * members of a map source one by one, so a resolver only pays for the values it reads.
+ */
+public final class DataFetchingEnvironmentView
+{
+    // The context argument of execute, kept in the GraphQL context rather than the deprecated execution context.
+    static final String CONTEXT_KEY = DataFetchingEnvironmentView.class.getName() + ".context";
+
+    private final DataFetchingEnvironment env;
+
+    public DataFetchingEnvironmentView( final DataFetchingEnvironment env )
+    {
+        this.env = env;
+    }
+
+    public boolean isSourceMap()
+    {
+        return env.getSource() instanceof Map;
+    }
+
+    public ValueMapper getSource()
+    {
+        return new ValueMapper( env.getSource() );
+    }
+
+    public ValueMapper getSourceKeys()
+    {
+        final Map<?, ?> source = env.getSource();
+        final List<String> keys = new ArrayList<>( source.size() );
+        source.keySet().forEach( key -> keys.add( String.valueOf( key ) ) );
+        return new ValueMapper( keys );
+    }
+
+    public ValueMapper getSourceMember( final String key )
+    {
+        final Map<?, ?> source = env.getSource();
+        return new ValueMapper( source.get( key ) );
+    }
+
+    public ValueMapper getArgs()
+    {
+        return new ValueMapper( env.getArguments() );
+    }
+
+    public ValueMapper getContext()
+    {
+        return new ValueMapper( env.getGraphQlContext().get( CONTEXT_KEY ) );
+    }
+
+    public DataLoaderLookup getLoader()
+    {
+        final DataLoaderRegistry dataLoaderRegistry = env.getDataLoaderRegistry();
+        if ( dataLoaderRegistry == null || dataLoaderRegistry.getKeys().isEmpty() )
+        {
+            return null;
+        }
+        return new DataLoaderLookup( dataLoaderRegistry );
+    }
+}
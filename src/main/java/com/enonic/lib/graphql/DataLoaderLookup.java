@@ -0,0 +1,32 @@
+package com.enonic.lib.graphql;
+
+import java.util.function.Function;
+
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
+
+/**
+ * Exposed to resolvers as {@code env.loader}. Being a functional interface, it can be called from script as
+ * {@code env.loader('name').load(key)}.
+ */
+public final class DataLoaderLookup
+    implements Function<String, ScriptDataLoader>
+{
+    private final DataLoaderRegistry dataLoaderRegistry;
+
+    DataLoaderLookup( final DataLoaderRegistry dataLoaderRegistry )
+    {
+        this.dataLoaderRegistry = dataLoaderRegistry;
+    }
+
+    @Override
+    public ScriptDataLoader apply( final String name )
+    {
+        final DataLoader<Object, Object> dataLoader = dataLoaderRegistry.getDataLoader( name );
+        if ( dataLoader == null )
+        {
+            throw new IllegalArgumentException( "Data loader '" + name + "' is not defined" );
+        }
+        return new ScriptDataLoader( dataLoader );
+    }
+}
@@ -0,0 +1,95 @@
+package com.enonic.lib.graphql;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+
+final class DocumentCache
+    implements PreparsedDocumentProvider
+{
+    static final int DEFAULT_MAX_SIZE = 500;
+
+    static final String ENABLED_CONTEXT_KEY = DocumentCache.class.getName() + ".enabled";
+
+    private final Map<DocumentKey, PreparsedDocumentEntry> entries;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    DocumentCache( final int maxSize )
+    {
+        this.entries = new LinkedHashMap<>( 16, 0.75f, true )
+        {
+            @Override
+            protected boolean removeEldestEntry( final Map.Entry<DocumentKey, PreparsedDocumentEntry> eldest )
+            {
+                if ( size() > maxSize )
+                {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync( final ExecutionInput executionInput,
+                                                                       final Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction )
+    {
+        if ( Boolean.FALSE.equals( executionInput.getGraphQLContext().get( ENABLED_CONTEXT_KEY ) ) )
+        {
+            return CompletableFuture.completedFuture( parseAndValidateFunction.apply( executionInput ) );
+        }
+
+        final DocumentKey key = new DocumentKey( executionInput.getQuery(), executionInput.getOperationName() );
+        final PreparsedDocumentEntry cached = get( key );
+        if ( cached != null )
+        {
+            hits.increment();
+            return CompletableFuture.completedFuture( cached );
+        }
+
+        misses.increment();
+        final PreparsedDocumentEntry entry = parseAndValidateFunction.apply( executionInput );
+        // Invalid documents are not kept, so that malformed client input cannot push valid queries out of the cache.
+        if ( !entry.hasErrors() )
+        {
+            put( key, entry );
+        }
+        return CompletableFuture.completedFuture( entry );
+    }
+
+    synchronized PreparsedDocumentEntry get( final DocumentKey key )
+    {
+        return entries.get( key );
+    }
+
+    synchronized void put( final DocumentKey key, final PreparsedDocumentEntry entry )
+    {
+        entries.put( key, entry );
+    }
+
+    synchronized int size()
+    {
+        return entries.size();
+    }
+
+    DocumentCacheStats stats()
+    {
+        return new DocumentCacheStats( size(), hits.sum(), misses.sum(), evictions.sum() );
+    }
+
+    record DocumentKey(String query, String operationName)
+    {
+    }
+}
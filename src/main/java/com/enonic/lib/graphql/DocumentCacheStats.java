@@ -0,0 +1,53 @@
+package com.enonic.lib.graphql;
+
+import com.enonic.xp.script.serializer.MapGenerator;
+import com.enonic.xp.script.serializer.MapSerializable;
+
+public final class DocumentCacheStats
+    implements MapSerializable
+{
+    private final int size;
+
+    private final long hits;
+
+    private final long misses;
+
+    private final long evictions;
+
+    DocumentCacheStats( final int size, final long hits, final long misses, final long evictions )
+    {
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    public int getSize()
+    {
+        return size;
+    }
+
+    public long getHits()
+    {
+        return hits;
+    }
+
+    public long getMisses()
+    {
+        return misses;
+    }
+
+    public long getEvictions()
+    {
+        return evictions;
+    }
+
+    @Override
+    public void serialize( final MapGenerator gen )
+    {
+        gen.value( "size", size );
+        gen.value( "hits", hits );
+        gen.value( "misses", misses );
+        gen.value( "evictions", evictions );
+    }
+}
@@ -0,0 +1,120 @@
+package com.enonic.lib.graphql;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.enonic.xp.script.ScriptValue;
+
+final class ExecutionOptions
+{
+    static final ExecutionOptions DEFAULT = new ExecutionOptions( null );
+
+    private final boolean documentCache;
+
+    private final Map<String, Object> extensions;
+
+    private final Map<String, ScriptValue> dataLoaders;
+
+    private final QueryLimits limits;
+
+    private final boolean tracing;
+
+    private final boolean metrics;
+
+    private final ResultCacheOptions cache;
+
+    private ExecutionOptions( final ScriptValue options )
+    {
+        this.documentCache = getBoolean( options, "documentCache", true );
+        this.extensions = getMap( options, "extensions" );
+        this.dataLoaders = getFunctions( options, "dataLoaders" );
+        this.limits = options == null ? null : QueryLimits.from( options.getMember( "limits" ) );
+        this.tracing = getBoolean( options, "tracing", false );
+        this.metrics = getBoolean( options, "metrics", false );
+        this.cache = options == null ? null : ResultCacheOptions.from( options.getMember( "cache" ) );
+    }
+
+    static ExecutionOptions from( final ScriptValue options )
+    {
+        return options == null ? DEFAULT : new ExecutionOptions( options );
+    }
+
+    boolean isDocumentCache()
+    {
+        return documentCache;
+    }
+
+    Map<String, Object> getExtensions()
+    {
+        return extensions;
+    }
+
+    Map<String, ScriptValue> getDataLoaders()
+    {
+        return dataLoaders;
+    }
+
+    QueryLimits getLimits()
+    {
+        return limits;
+    }
+
+    boolean isTracing()
+    {
+        return tracing;
+    }
+
+    boolean isMetrics()
+    {
+        return metrics;
+    }
+
+    /**
+     * @return the result cache options, or {@code null} if the result is not to be cached
+     */
+    ResultCacheOptions getCache()
+    {
+        return cache;
+    }
+
+    private static Map<String, ScriptValue> getFunctions( final ScriptValue options, final String name )
+    {
+        final ScriptValue value = options == null ? null : options.getMember( name );
+        if ( value == null || !value.isObject() )
+        {
+            return Map.of();
+        }
+
+        final Map<String, ScriptValue> functions = new LinkedHashMap<>();
+        for ( String key : value.getKeys() )
+        {
+            final ScriptValue function = value.getMember( key );
+            if ( function == null || !function.isFunction() )
+            {
+                throw new IllegalArgumentException( "Value '" + name + "." + key + "' must be a function" );
+            }
+            functions.put( key, function );
+        }
+        return functions;
+    }
+
+    private static Map<String, Object> getMap( final ScriptValue options, final String name )
+    {
+        final ScriptValue value = options == null ? null : options.getMember( name );
+        if ( value == null || !value.isObject() )
+        {
+            return Map.of();
+        }
+        return value.getMap();
+    }
+
+    private static boolean getBoolean( final ScriptValue options, final String name, final boolean defaultValue )
+    {
+        final ScriptValue value = options == null ? null : options.getMember( name );
+        if ( value == null || !value.isValue() )
+        {
+            return defaultValue;
+        }
+        return Boolean.TRUE.equals( value.getValue( Boolean.class ) );
+    }
+}
@@ -0,0 +1,287 @@
+package com.enonic.lib.graphql;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import graphql.ExceptionWhileDataFetching;
+import graphql.ExecutionResult;
+import graphql.GraphQLError;
+import graphql.language.SourceLocation;
+import graphql.validation.ValidationError;
+
+/**
+ * Writes an {@link ExecutionResult} as UTF-8 JSON in a single pass, producing the same document as
+ * {@link ExecutionResultMapper} would after a {@code JSON.stringify}. Null values are written, not omitted.
+ */
+public final class ExecutionResultJsonWriter
+{
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Writer writer;
+
+    private ExecutionResultJsonWriter( final Writer writer )
+    {
+        this.writer = writer;
+    }
+
+    public static byte[] toJson( final ExecutionResult executionResult )
+    {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream( 1024 );
+        write( executionResult, out );
+        return out.toByteArray();
+    }
+
+    public static void write( final ExecutionResult executionResult, final OutputStream out )
+    {
+        try
+        {
+            final Writer writer = new BufferedWriter( new OutputStreamWriter( out, StandardCharsets.UTF_8 ), 8192 );
+            new ExecutionResultJsonWriter( writer ).writeResult( executionResult );
+            writer.flush();
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    private void writeResult( final ExecutionResult executionResult )
+        throws IOException
+    {
+        writer.write( '{' );
+        boolean first = true;
+        if ( executionResult.getData() instanceof Map )
+        {
+            writeName( "data", first );
+            writeMap( executionResult.getData() );
+            first = false;
+        }
+        if ( executionResult.getErrors() != null && !executionResult.getErrors().isEmpty() )
+        {
+            writeName( "errors", first );
+            writer.write( '[' );
+            boolean firstError = true;
+            for ( GraphQLError error : executionResult.getErrors() )
+            {
+                if ( !firstError )
+                {
+                    writer.write( ',' );
+                }
+                writeError( error );
+                firstError = false;
+            }
+            writer.write( ']' );
+            first = false;
+        }
+        if ( executionResult.getExtensions() != null && !executionResult.getExtensions().isEmpty() )
+        {
+            writeName( "extensions", first );
+            writeMap( executionResult.getExtensions() );
+        }
+        writer.write( '}' );
+    }
+
+    private void writeError( final GraphQLError error )
+        throws IOException
+    {
+        writer.write( '{' );
+        writeName( "errorType", true );
+        writeValue( error.getErrorType() );
+        writeName( "message", false );
+        writeValue( error.getMessage() );
+
+        if ( error.getLocations() != null )
+        {
+            writeName( "locations", false );
+            writer.write( '[' );
+            boolean first = true;
+            for ( SourceLocation location : error.getLocations() )
+            {
+                if ( !first )
+                {
+                    writer.write( ',' );
+                }
+                writer.write( '{' );
+                writeName( "line", true );
+                writeValue( location.getLine() );
+                writeName( "column", false );
+                writeValue( location.getColumn() );
+                writer.write( '}' );
+                first = false;
+            }
+            writer.write( ']' );
+        }
+
+        if ( error instanceof ValidationError )
+        {
+            writeName( "validationErrorType", false );
+            writeValue( ( (ValidationError) error ).getValidationErrorType() );
+        }
+        else if ( error instanceof ExceptionWhileDataFetching )
+        {
+            final Throwable exception = ( (ExceptionWhileDataFetching) error ).getException();
+            writeName( "exception", false );
+            writer.write( '{' );
+            writeName( "name", true );
+            writeValue( exception.getClass().getName() );
+            final String message = exception.getLocalizedMessage();
+            if ( message != null )
+            {
+                writeName( "message", false );
+                writeValue( message );
+            }
+            writer.write( '}' );
+        }
+
+        if ( error.getExtensions() != null && !error.getExtensions().isEmpty() )
+        {
+            writeName( "extensions", false );
+            writeMap( error.getExtensions() );
+        }
+
+        writer.write( '}' );
+    }
+
+    private void writeMap( final Map<?, ?> map )
+        throws IOException
+    {
+        writer.write( '{' );
+        boolean first = true;
+        for ( Map.Entry<?, ?> entry : map.entrySet() )
+        {
+            writeName( entry.getKey().toString(), first );
+            writeValue( entry.getValue() );
+            first = false;
+        }
+        writer.write( '}' );
+    }
+
+    private void writeList( final List<?> list )
+        throws IOException
+    {
+        writer.write( '[' );
+        boolean first = true;
+        for ( Object value : list )
+        {
+            if ( !first )
+            {
+                writer.write( ',' );
+            }
+            writeValue( value );
+            first = false;
+        }
+        writer.write( ']' );
+    }
+
+    private void writeValue( final Object value )
+        throws IOException
+    {
+        if ( value == null )
+        {
+            writer.write( "null" );
+        }
+        else if ( value instanceof Map )
+        {
+            writeMap( (Map<?, ?>) value );
+        }
+        else if ( value instanceof List )
+        {
+            writeList( (List<?>) value );
+        }
+        else if ( value instanceof Boolean )
+        {
+            writer.write( value.toString() );
+        }
+        else if ( value instanceof Number )
+        {
+            writeNumber( (Number) value );
+        }
+        else
+        {
+            writeString( value.toString() );
+        }
+    }
+
+    private void writeNumber( final Number number )
+        throws IOException
+    {
+        if ( ( number instanceof Double && !Double.isFinite( number.doubleValue() ) ) ||
+            ( number instanceof Float && !Float.isFinite( number.floatValue() ) ) )
+        {
+            writer.write( "null" );
+        }
+        else
+        {
+            writer.write( number.toString() );
+        }
+    }
+
+    private void writeName( final String name, final boolean first )
+        throws IOException
+    {
+        if ( !first )
+        {
+            writer.write( ',' );
+        }
+        writeString( name );
+        writer.write( ':' );
+    }
+
+    private void writeString( final String value )
+        throws IOException
+    {
+        writer.write( '"' );
+        int start = 0;
+        final int length = value.length();
+        for ( int i = 0; i < length; i++ )
+        {
+            final char c = value.charAt( i );
+            if ( c >= 0x20 && c != '"' && c != '\\' && c != 0x2028 && c != 0x2029 )
+            {
+                continue;
+            }
+            writer.write( value, start, i - start );
+            start = i + 1;
+            switch ( c )
+            {
+                case '"':
+                    writer.write( "\\\"" );
+                    break;
+                case '\\':
+                    writer.write( "\\\\" );
+                    break;
+                case '\n':
+                    writer.write( "\\n" );
+                    break;
+                case '\r':
+                    writer.write( "\\r" );
+                    break;
+                case '\t':
+                    writer.write( "\\t" );
+                    break;
+                case '\b':
+                    writer.write( "\\b" );
+                    break;
+                case '\f':
+                    writer.write( "\\f" );
+                    break;
+                default:
+                    writer.write( "\\u" );
+                    writer.write( HEX[( c >> 12 ) & 0xF] );
+                    writer.write( HEX[( c >> 8 ) & 0xF] );
+                    writer.write( HEX[( c >> 4 ) & 0xF] );
+                    writer.write( HEX[c & 0xF] );
+            }
+        }
+        writer.write( value, start, length - start );
+        writer.write( '"' );
+    }
+}
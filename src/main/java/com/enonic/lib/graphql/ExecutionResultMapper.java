@@ -5,6 +5,7 @@ import java.util.Map;
 import graphql.ExceptionWhileDataFetching;
 import graphql.ExecutionResult;
 import graphql.GraphQLError;
+import graphql.incremental.IncrementalExecutionResult;
 import graphql.language.SourceLocation;
 import graphql.validation.ValidationError;
 import graphql.validation.ValidationErrorClassification;
@@ -27,7 +28,8 @@ public class ExecutionResultMapper
     {
         serializeData( gen );
         serializeErrors( gen );
-
+        serializeExtensions( gen );
+        serializeIncremental( gen );
     }
 
     private void serializeData( final MapGenerator gen )
@@ -50,12 +52,30 @@ public class ExecutionResultMapper
         {
             gen.array( "errors" );
             executionResult.getErrors().
-                forEach( ( error ) -> this.serializeError( gen, error ) );
+                forEach( ( error ) -> serializeError( gen, error ) );
             gen.end();
         }
     }
 
-    private void serializeError( final MapGenerator gen, final GraphQLError error )
+    private void serializeExtensions( final MapGenerator gen )
+    {
+        if ( executionResult.getExtensions() != null && !executionResult.getExtensions().isEmpty() )
+        {
+            MapMapper.serializeMap( gen, "extensions", executionResult.getExtensions() );
+        }
+    }
+
+    private void serializeIncremental( final MapGenerator gen )
+    {
+        if ( executionResult instanceof IncrementalExecutionResult )
+        {
+            final IncrementalExecutionResult incrementalResult = (IncrementalExecutionResult) executionResult;
+            gen.value( "hasNext", incrementalResult.hasNext() );
+            gen.rawValue( "subsequent", new IncrementalPayloadPublisher( incrementalResult.getIncrementalItemPublisher() ) );
+        }
+    }
+
+    static void serializeError( final MapGenerator gen, final GraphQLError error )
     {
         gen.map();
         gen.value( "errorType", error.getErrorType() );
@@ -92,6 +112,11 @@ public class ExecutionResultMapper
             gen.end();
         }
 
+        if ( error.getExtensions() != null && !error.getExtensions().isEmpty() )
+        {
+            MapMapper.serializeMap( gen, "extensions", error.getExtensions() );
+        }
+
         gen.end();
     }
 }
@@ -0,0 +1,107 @@
+package com.enonic.lib.graphql;
+
+import java.util.Objects;
+
+import graphql.schema.DataFetcher;
+import graphql.schema.PropertyDataFetcher;
+
+/**
+ * How the data of a field is fetched, in a form that can be written to a schema snapshot and bound again when the
+ * snapshot is loaded. Fields resolved by a script function are only marked, the function itself is bound again from
+ * the resolver map given on load.
+ */
+final class FieldBinding
+{
+    enum Kind
+    {
+        SCRIPT( "script" ), PROPERTY( "property" ), CURSOR( "cursor" ), EDGES( "edges" ), PAGE_INFO( "pageInfo" );
+
+        private final String id;
+
+        Kind( final String id )
+        {
+            this.id = id;
+        }
+    }
+
+    static final FieldBinding SCRIPT = new FieldBinding( Kind.SCRIPT, null );
+
+    private final Kind kind;
+
+    private final String argument;
+
+    private FieldBinding( final Kind kind, final String argument )
+    {
+        this.kind = kind;
+        this.argument = argument;
+    }
+
+    static FieldBinding property( final String name )
+    {
+        return new FieldBinding( Kind.PROPERTY, Objects.requireNonNull( name, "property" ) );
+    }
+
+    static FieldBinding cursor( final String name )
+    {
+        return new FieldBinding( Kind.CURSOR, Objects.requireNonNull( name, "cursor" ) );
+    }
+
+    static FieldBinding edges( final String cursorProperty )
+    {
+        return new FieldBinding( Kind.EDGES, cursorProperty );
+    }
+
+    static FieldBinding pageInfo( final String cursorProperty )
+    {
+        return new FieldBinding( Kind.PAGE_INFO, cursorProperty );
+    }
+
+    Kind getKind()
+    {
+        return kind;
+    }
+
+    DataFetcher<?> dataFetcher()
+    {
+        switch ( kind )
+        {
+            case PROPERTY:
+                return PropertyDataFetcher.fetching( argument );
+            case CURSOR:
+                return ConnectionDataFetchers.encodedCursor( argument );
+            case EDGES:
+                return ConnectionDataFetchers.edges( argument );
+            case PAGE_INFO:
+                return ConnectionDataFetchers.pageInfo( argument );
+            default:
+                throw new IllegalStateException( "Field is resolved by a script function" );
+        }
+    }
+
+    String format()
+    {
+        return argument == null ? kind.id : kind.id + ":" + argument;
+    }
+
+    static FieldBinding parse( final String value )
+    {
+        final int separator = value.indexOf( ':' );
+        final String id = separator < 0 ? value : value.substring( 0, separator );
+        final String argument = separator < 0 ? null : value.substring( separator + 1 );
+        switch ( id )
+        {
+            case "script":
+                return SCRIPT;
+            case "property":
+                return property( argument );
+            case "cursor":
+                return cursor( argument );
+            case "edges":
+                return edges( argument );
+            case "pageInfo":
+                return pageInfo( argument );
+            default:
+                throw new IllegalArgumentException( "Unknown field binding: " + value );
+        }
+    }
+}
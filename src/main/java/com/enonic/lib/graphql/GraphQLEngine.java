@@ -0,0 +1,55 @@
+package com.enonic.lib.graphql;
+
+import graphql.GraphQL;
+import graphql.execution.instrumentation.ChainedInstrumentation;
+import graphql.schema.GraphQLSchema;
+
+final class GraphQLEngine
+{
+    private final GraphQL graphQL;
+
+    private final DocumentCache documentCache;
+
+    private final PersistedQueryDocumentProvider persistedQueries;
+
+    private final ResolverMetrics resolverMetrics = new ResolverMetrics();
+
+    private final ResultCache resultCache = new ResultCache( ResultCache.DEFAULT_MAX_SIZE );
+
+    GraphQLEngine( final GraphQLSchema schema )
+    {
+        this.documentCache = new DocumentCache( DocumentCache.DEFAULT_MAX_SIZE );
+        this.persistedQueries = new PersistedQueryDocumentProvider( documentCache, new InMemoryPersistedQueryStore() );
+        this.graphQL = GraphQL.newGraphQL( schema )
+            .preparsedDocumentProvider( persistedQueries )
+            .instrumentation(
+                new ChainedInstrumentation( new QueryCostInstrumentation(), new ResolverTimingInstrumentation( resolverMetrics ),
+                                            new CacheControlInstrumentation() ) )
+            .build();
+    }
+
+    GraphQL getGraphQL()
+    {
+        return graphQL;
+    }
+
+    DocumentCache getDocumentCache()
+    {
+        return documentCache;
+    }
+
+    ResolverMetrics getResolverMetrics()
+    {
+        return resolverMetrics;
+    }
+
+    ResultCache getResultCache()
+    {
+        return resultCache;
+    }
+
+    void setPersistedQueryStore( final PersistedQueryStore store )
+    {
+        persistedQueries.setStore( store );
+    }
+}
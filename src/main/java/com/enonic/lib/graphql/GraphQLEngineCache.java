@@ -0,0 +1,79 @@
+package com.enonic.lib.graphql;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import graphql.schema.GraphQLSchema;
+
+final class GraphQLEngineCache
+{
+    // An app usually executes against one schema; the others are the stale ones of rebuilds, kept alive until evicted.
+    static final int DEFAULT_MAX_ENGINES = 4;
+
+    // GraphQLSchema does not override equals/hashCode, so entries are looked up by identity.
+    // A hit only reads the map, so that concurrent executions never wait for each other here.
+    private final Map<GraphQLSchema, Entry> engines = new ConcurrentHashMap<>();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final int maxEngines;
+
+    private final Function<GraphQLSchema, GraphQLEngine> engineFactory;
+
+    GraphQLEngineCache( final Function<GraphQLSchema, GraphQLEngine> engineFactory )
+    {
+        this( DEFAULT_MAX_ENGINES, engineFactory );
+    }
+
+    GraphQLEngineCache( final int maxEngines, final Function<GraphQLSchema, GraphQLEngine> engineFactory )
+    {
+        this.maxEngines = maxEngines;
+        this.engineFactory = engineFactory;
+    }
+
+    GraphQLEngine get( final GraphQLSchema schema )
+    {
+        final Entry entry = engines.get( schema );
+        if ( entry != null )
+        {
+            return entry.engine;
+        }
+        final Entry created = engines.computeIfAbsent( schema, key -> new Entry( engineFactory.apply( key ), sequence.incrementAndGet() ) );
+        if ( engines.size() > maxEngines )
+        {
+            evictOldest();
+        }
+        return created.engine;
+    }
+
+    int size()
+    {
+        return engines.size();
+    }
+
+    /**
+     * Drops the engines added first, those of schemas replaced on rebuild. An app alternating between a few schemas
+     * keeps all of them as long as they fit.
+     */
+    private synchronized void evictOldest()
+    {
+        while ( engines.size() > maxEngines )
+        {
+            Map.Entry<GraphQLSchema, Entry> oldest = null;
+            for ( Map.Entry<GraphQLSchema, Entry> candidate : engines.entrySet() )
+            {
+                if ( oldest == null || candidate.getValue().added < oldest.getValue().added )
+                {
+                    oldest = candidate;
+                }
+            }
+            engines.remove( oldest.getKey(), oldest.getValue() );
+        }
+    }
+
+    private record Entry(GraphQLEngine engine, long added)
+    {
+    }
+}
@@ -1,11 +1,15 @@
 package com.enonic.lib.graphql;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 
+import org.dataloader.DataLoaderFactory;
+import org.dataloader.DataLoaderRegistry;
+
 import graphql.ExecutionInput;
 import graphql.ExecutionResult;
-import graphql.GraphQL;
+import graphql.ExperimentalApi;
 import graphql.schema.GraphQLList;
 import graphql.schema.GraphQLNonNull;
 import graphql.schema.GraphQLSchema;
@@ -16,6 +20,10 @@ import com.enonic.xp.script.ScriptValue;
 
 public class GraphQLHandler
 {
+    // One handler instance is created per script runtime, so the cached engines are dropped
+    // together with the schemas they were built for when the app is reloaded.
+    private final GraphQLEngineCache engineCache = new GraphQLEngineCache( GraphQLEngine::new );
+
     public GraphQLList list( GraphQLType type )
     {
         return new GraphQLList( type );
@@ -33,18 +41,136 @@ public class GraphQLHandler
 
     public Object execute( final GraphQLSchema schema, final String query, final ScriptValue variables, final Object context )
     {
-        final GraphQL graphQL = GraphQL.newGraphQL( schema ).build();
+        return execute( schema, query, variables, context, null );
+    }
+
+    public Object execute( final GraphQLSchema schema, final String query, final ScriptValue variables, final Object context,
+                           final ScriptValue options )
+    {
+        return new ExecutionResultMapper( doExecute( schema, query, variables, context, options, false ) );
+    }
+
+    /**
+     * Executes with incremental delivery: the result holds the initial payload, and for a query with deferred
+     * fragments {@code hasNext} and a publisher of the subsequent payloads in {@code subsequent}.
+     */
+    public Object executeIncremental( final GraphQLSchema schema, final String query, final ScriptValue variables, final Object context,
+                                      final ScriptValue options )
+    {
+        return new ExecutionResultMapper( doExecute( schema, query, variables, context, options, true ) );
+    }
+
+    public byte[] executeToJson( final GraphQLSchema schema, final String query, final ScriptValue variables, final Object context,
+                                 final ScriptValue options )
+    {
+        return ExecutionResultJsonWriter.toJson( doExecute( schema, query, variables, context, options, false ) );
+    }
+
+    private ExecutionResult doExecute( final GraphQLSchema schema, final String query, final ScriptValue variables, final Object context,
+                                       final ScriptValue options, final boolean incremental )
+    {
+        final GraphQLEngine engine = engineCache.get( schema );
+        final ExecutionOptions executionOptions = ExecutionOptions.from( options );
 
         final Map<String, Object> variablesMap = variables == null ? Collections.emptyMap() : variables.getMap();
 
-        final ExecutionInput executionInput = ExecutionInput.newExecutionInput().
-            query( query ).
+        final Map<Object, Object> graphQLContext = new HashMap<>();
+        graphQLContext.put( DocumentCache.ENABLED_CONTEXT_KEY, executionOptions.isDocumentCache() );
+        if ( executionOptions.getLimits() != null )
+        {
+            graphQLContext.put( QueryLimits.CONTEXT_KEY, executionOptions.getLimits() );
+        }
+        graphQLContext.put( ResolverTimingInstrumentation.TRACING_CONTEXT_KEY, executionOptions.isTracing() );
+        graphQLContext.put( ResolverTimingInstrumentation.METRICS_CONTEXT_KEY, executionOptions.isMetrics() );
+        graphQLContext.put( ExperimentalApi.ENABLE_INCREMENTAL_SUPPORT, incremental );
+        if ( context != null )
+        {
+            graphQLContext.put( DataFetchingEnvironmentView.CONTEXT_KEY, context );
+        }
+
+        // A persisted query request may come without the query text, graphql-java requires one anyway.
+        final String queryText = PersistedQueryDocumentProvider.isQueryMissing( query ) ? ExecutionInput.PERSISTED_QUERY_MARKER : query;
+
+        // Tracing reports the timings of one execution, and persisted queries without text are left uncached.
+        final ResultCacheOptions cacheOptions = executionOptions.getCache();
+        final ResultCache.ResultKey cacheKey =
+            cacheOptions == null || incremental || executionOptions.isTracing() || queryText.equals( ExecutionInput.PERSISTED_QUERY_MARKER )
+                ? null
+                : engine.getResultCache().key( cacheOptions.getScope(), queryText, null, variablesMap );
+        final CachePolicy cachePolicy = cacheKey == null ? null : new CachePolicy( cacheOptions.getDefaultMaxAge() );
+        if ( cachePolicy != null )
+        {
+            graphQLContext.put( CachePolicy.CONTEXT_KEY, cachePolicy );
+        }
+
+        final ExecutionInput.Builder executionInput = ExecutionInput.newExecutionInput().
+            query( queryText ).
             context( context ).
+            graphQLContext( graphQLContext ).
             variables( variablesMap ).
-            build();
+            extensions( executionOptions.getExtensions() );
 
-        final ExecutionResult executionResult = graphQL.execute( executionInput );
+        if ( !executionOptions.getDataLoaders().isEmpty() )
+        {
+            // A new registry per execution, so that loaded values are never shared between requests.
+            executionInput.dataLoaderRegistry( createDataLoaderRegistry( executionOptions.getDataLoaders() ) );
+        }
 
-        return new ExecutionResultMapper( executionResult );
+        if ( cacheKey == null )
+        {
+            return engine.getGraphQL().execute( executionInput.build() );
+        }
+        return engine.getResultCache()
+            .get( cacheKey, cacheOptions.getTags(), cachePolicy, () -> engine.getGraphQL().execute( executionInput.build() ) );
+    }
+
+    private static DataLoaderRegistry createDataLoaderRegistry( final Map<String, ScriptValue> dataLoaders )
+    {
+        final DataLoaderRegistry dataLoaderRegistry = new DataLoaderRegistry();
+        dataLoaders.forEach( ( name, batchFunction ) -> dataLoaderRegistry.register(
+            name, DataLoaderFactory.newDataLoader( name, new ScriptBatchLoader( name, batchFunction ) ) ) );
+        return dataLoaderRegistry;
+    }
+
+    public DocumentCacheStats getDocumentCacheStats( final GraphQLSchema schema )
+    {
+        return engineCache.get( schema ).getDocumentCache().stats();
+    }
+
+    public ResolverMetricsSnapshot getResolverMetrics( final GraphQLSchema schema )
+    {
+        return engineCache.get( schema ).getResolverMetrics().snapshot();
+    }
+
+    public ResultCacheStats getResultCacheStats( final GraphQLSchema schema )
+    {
+        return engineCache.get( schema ).getResultCache().stats();
+    }
+
+    /**
+     * @return the number of cached results dropped, those with the tag or all of them without a tag
+     */
+    public int invalidateResultCache( final GraphQLSchema schema, final String tag )
+    {
+        final ResultCache resultCache = engineCache.get( schema ).getResultCache();
+        return tag == null ? resultCache.clear() : resultCache.invalidate( tag );
+    }
+
+    public void setPersistedQueryStore( final GraphQLSchema schema, final ScriptValue store )
+    {
+        final PersistedQueryStore persistedQueryStore;
+        if ( store == null )
+        {
+            persistedQueryStore = new InMemoryPersistedQueryStore();
+        }
+        else if ( store.getValue() instanceof PersistedQueryStore )
+        {
+            persistedQueryStore = (PersistedQueryStore) store.getValue();
+        }
+        else
+        {
+            persistedQueryStore = new ScriptPersistedQueryStore( store );
+        }
+        engineCache.get( schema ).setPersistedQueryStore( persistedQueryStore );
     }
 }
@@ -1,10 +1,24 @@
 package com.enonic.lib.graphql;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
+import graphql.Scalars;
+import graphql.language.EnumTypeDefinition;
+import graphql.language.InterfaceTypeDefinition;
+import graphql.language.TypeDefinition;
+import graphql.language.UnionTypeDefinition;
 import graphql.schema.DataFetcher;
 import graphql.schema.FieldCoordinates;
 import graphql.schema.GraphQLArgument;
@@ -15,23 +29,86 @@ import graphql.schema.GraphQLInputObjectField;
 import graphql.schema.GraphQLInputObjectType;
 import graphql.schema.GraphQLInputType;
 import graphql.schema.GraphQLInterfaceType;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLNamedOutputType;
+import graphql.schema.GraphQLNonNull;
 import graphql.schema.GraphQLObjectType;
 import graphql.schema.GraphQLOutputType;
 import graphql.schema.GraphQLSchema;
 import graphql.schema.GraphQLTypeReference;
 import graphql.schema.GraphQLUnionType;
+import graphql.schema.TypeResolver;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import graphql.schema.idl.TypeRuntimeWiring;
 
 import com.enonic.xp.script.ScriptValue;
 
 public class GraphQlBean
 {
+    private static final String RESOLVE_TYPE = "__resolveType";
+
     private GraphQLCodeRegistry.Builder codeRegistryBuilder = GraphQLCodeRegistry.newCodeRegistry();
 
     private GraphQLObjectType pageInfoObjectType;
 
+    private int asyncMaxConcurrency = AsyncResolverExecutor.DEFAULT_MAX_CONCURRENCY;
+
+    private boolean asyncVirtualThreads = true;
+
+    private boolean asyncConcurrentScripts;
+
+    private AsyncResolverExecutor asyncResolverExecutor;
+
+    private boolean costDirectiveUsed;
+
+    private boolean cacheControlDirectiveUsed;
+
+    private final Map<FieldCoordinates, FieldBinding> fieldBindings = new HashMap<>();
+
+    private int typeCount;
+
+    private int fieldCount;
+
+    private long readNanos;
+
+    private long typeNanos;
+
+    private long schemaNanos;
+
+    public void setAsyncExecutorOptions( final Integer maxConcurrency, final Boolean virtualThreads, final Boolean concurrentScripts )
+    {
+        if ( maxConcurrency != null )
+        {
+            this.asyncMaxConcurrency = maxConcurrency;
+        }
+        if ( virtualThreads != null )
+        {
+            this.asyncVirtualThreads = virtualThreads;
+        }
+        if ( concurrentScripts != null )
+        {
+            this.asyncConcurrentScripts = concurrentScripts;
+        }
+    }
+
+    /**
+     * Stops the threads of async resolvers, when the app stops. Async resolvers called afterwards run on the request thread.
+     */
+    public void dispose()
+    {
+        if ( asyncResolverExecutor != null )
+        {
+            asyncResolverExecutor.shutdown();
+        }
+    }
+
     public GraphQLSchema createSchema( final GraphQLObjectType queryObjectType, final GraphQLObjectType mutationObjectType,
                                        final GraphQLObjectType subscriptionObjectType, final GraphQLObjectType[] additionalTypes )
     {
+        final long start = System.nanoTime();
         final GraphQLSchema.Builder graphQLSchema = GraphQLSchema.newSchema().query( queryObjectType );
         if ( mutationObjectType != null )
         {
@@ -46,9 +123,170 @@ public class GraphQlBean
             graphQLSchema.additionalTypes( new HashSet<>( Arrays.asList( additionalTypes ) ) );
         }
 
+        if ( costDirectiveUsed )
+        {
+            graphQLSchema.additionalDirective( CostDirective.DEFINITION );
+        }
+        if ( cacheControlDirectiveUsed )
+        {
+            graphQLSchema.additionalDirective( CacheControlDirective.DEFINITION );
+        }
+
         graphQLSchema.codeRegistry( codeRegistryBuilder.build() );
 
-        return graphQLSchema.build();
+        final GraphQLSchema schema = graphQLSchema.build();
+        schemaNanos += System.nanoTime() - start;
+        return schema;
+    }
+
+    public SchemaBuildStats getBuildStats()
+    {
+        return new SchemaBuildStats( typeCount, fieldCount, readNanos / 1000, ( typeNanos - readNanos ) / 1000, schemaNanos / 1000 );
+    }
+
+    public GraphQLSchema createSchemaFromSdl( final String sdl, final ScriptValue resolvers )
+    {
+        final long start = System.nanoTime();
+        final GraphQLSchema schema = createSchema( new SchemaParser().parse( sdl ), Map.of(), resolvers );
+        schemaNanos += System.nanoTime() - start;
+        return schema;
+    }
+
+    /**
+     * @param appName the app whose directory in the default cache directory holds the snapshot, without {@code cacheDir}
+     * @return the schema of the snapshot written for this fingerprint, or {@code null} if there is none or the resolver
+     * map misses a resolver it needs
+     */
+    public GraphQLSchema loadSchema( final String cacheDir, final String appName, final String name, final String fingerprint,
+                                     final ScriptValue resolvers )
+    {
+        final long start = System.nanoTime();
+        final SchemaSnapshot snapshot = SchemaSnapshot.read( snapshotDirectory( cacheDir, appName ), name, fingerprint );
+        if ( snapshot == null )
+        {
+            return null;
+        }
+
+        final TypeDefinitionRegistry typeDefinitionRegistry = new SchemaParser().parse( snapshot.getSdl() );
+        for ( Map.Entry<FieldCoordinates, FieldBinding> fieldBinding : snapshot.getFieldBindings().entrySet() )
+        {
+            final FieldCoordinates coordinates = fieldBinding.getKey();
+            if ( fieldBinding.getValue().getKind() == FieldBinding.Kind.SCRIPT &&
+                getResolver( resolvers, coordinates.getTypeName(), coordinates.getFieldName() ) == null )
+            {
+                return null;
+            }
+        }
+        for ( TypeDefinition<?> typeDefinition : typeDefinitionRegistry.types().values() )
+        {
+            if ( ( typeDefinition instanceof InterfaceTypeDefinition || typeDefinition instanceof UnionTypeDefinition ) &&
+                getResolver( resolvers, typeDefinition.getName(), RESOLVE_TYPE ) == null )
+            {
+                return null;
+            }
+        }
+
+        snapshot.getFieldBindings().forEach( ( coordinates, binding ) -> {
+            if ( binding.getKind() != FieldBinding.Kind.SCRIPT )
+            {
+                bind( coordinates, binding );
+            }
+        } );
+        final GraphQLSchema schema = createSchema( typeDefinitionRegistry, snapshot.getEnumValues(), resolvers );
+        schemaNanos += System.nanoTime() - start;
+        return schema;
+    }
+
+    /**
+     * @return {@code false} if the schema cannot be written to SDL, because it uses scalars not exported by the library or
+     * enum values that are not strings, or if the snapshot files cannot be written
+     */
+    public boolean saveSchema( final String cacheDir, final String appName, final String name, final String fingerprint,
+                               final GraphQLSchema schema )
+    {
+        final SchemaSnapshot snapshot = SchemaSnapshot.of( schema, fieldBindings );
+        return snapshot != null && snapshot.write( snapshotDirectory( cacheDir, appName ), name, fingerprint );
+    }
+
+    private GraphQLSchema createSchema( final TypeDefinitionRegistry typeDefinitionRegistry, final Map<String, String> enumValues,
+                                        final ScriptValue resolvers )
+    {
+        final RuntimeWiring.Builder runtimeWiring = RuntimeWiring.newRuntimeWiring();
+        CustomScalars.SDL_SCALARS.values().forEach( runtimeWiring::scalar );
+        if ( typeDefinitionRegistry.getDirectiveDefinition( CostDirective.NAME ).isEmpty() )
+        {
+            typeDefinitionRegistry.merge( new SchemaParser().parse( CostDirective.SDL ) );
+        }
+        if ( typeDefinitionRegistry.getDirectiveDefinition( CacheControlDirective.NAME ).isEmpty() )
+        {
+            typeDefinitionRegistry.merge( new SchemaParser().parse( CacheControlDirective.SDL ) );
+        }
+
+        for ( TypeDefinition<?> typeDefinition : typeDefinitionRegistry.types().values() )
+        {
+            final String typeName = typeDefinition.getName();
+            if ( typeDefinition instanceof EnumTypeDefinition )
+            {
+                runtimeWiring.type( TypeRuntimeWiring.newTypeWiring( typeName )
+                                        .enumValues( valueName -> enumValues.getOrDefault( typeName + "." + valueName, valueName ) ) );
+            }
+        }
+
+        if ( resolvers != null )
+        {
+            for ( String typeName : resolvers.getKeys() )
+            {
+                final ScriptValue typeResolvers = resolvers.getMember( typeName );
+                for ( String fieldName : typeResolvers.getKeys() )
+                {
+                    final ScriptValue resolver = typeResolvers.getMember( fieldName );
+                    if ( resolver == null )
+                    {
+                        continue;
+                    }
+                    if ( RESOLVE_TYPE.equals( fieldName ) )
+                    {
+                        runtimeWiring.type( TypeRuntimeWiring.newTypeWiring( typeName ).typeResolver( scriptTypeResolver( resolver ) ) );
+                    }
+                    else
+                    {
+                        setFieldData( typeName, resolver.isFunction()
+                            ? ScriptFieldDefinition.ofResolver( fieldName, resolver )
+                            : ScriptFieldDefinition.read( fieldName, resolver ) );
+                    }
+                }
+            }
+        }
+
+        runtimeWiring.codeRegistry( codeRegistryBuilder );
+        return new SchemaGenerator().makeExecutableSchema( typeDefinitionRegistry, runtimeWiring.build() );
+    }
+
+    private static ScriptValue getResolver( final ScriptValue resolvers, final String typeName, final String fieldName )
+    {
+        final ScriptValue typeResolvers = resolvers == null ? null : resolvers.getMember( typeName );
+        return typeResolvers == null ? null : typeResolvers.getMember( fieldName );
+    }
+
+    private static Path snapshotDirectory( final String cacheDir, final String appName )
+    {
+        if ( cacheDir != null )
+        {
+            return Paths.get( cacheDir );
+        }
+        final String xpHome = System.getProperty( "xp.home" );
+        final Path directory = xpHome != null
+            ? Paths.get( xpHome, "work", "lib-graphql" )
+            : Paths.get( System.getProperty( "java.io.tmpdir" ), "lib-graphql" );
+        // Apps on the same node may use the same snapshot names and fingerprints.
+        return appName == null ? directory : directory.resolve( appName );
+    }
+
+    private <T> T typeBuilt( final long start, final T type )
+    {
+        typeNanos += System.nanoTime() - start;
+        typeCount++;
+        return type;
     }
 
     public GraphQLObjectType createPageInfoObjectType( final String name, final ScriptValue fieldsScriptValue,
@@ -64,9 +302,50 @@ public class GraphQlBean
         return pageInfoObjectType;
     }
 
+    public GraphQLObjectType createConnectionType( final GraphQLNamedOutputType nodeType, final String cursorProperty )
+    {
+        final String connectionName = nodeType.getName() + "Connection";
+        final String edgeName = nodeType.getName() + "Edge";
+
+        final GraphQLObjectType edgeType = GraphQLObjectType.newObject()
+            .name( edgeName )
+            .field( GraphQLFieldDefinition.newFieldDefinition().name( "node" ).type( GraphQLNonNull.nonNull( nodeType ) ) )
+            .field( GraphQLFieldDefinition.newFieldDefinition().name( "cursor" ).type( GraphQLNonNull.nonNull( Scalars.GraphQLString ) ) )
+            .build();
+        bind( FieldCoordinates.coordinates( edgeName, "cursor" ), FieldBinding.cursor( "cursor" ) );
+
+        final GraphQLObjectType connectionType = GraphQLObjectType.newObject()
+            .name( connectionName )
+            .field( GraphQLFieldDefinition.newFieldDefinition().name( "totalCount" ).type( GraphQLNonNull.nonNull( Scalars.GraphQLInt ) ) )
+            .field( GraphQLFieldDefinition.newFieldDefinition().name( "edges" ).type( GraphQLList.list( edgeType ) ) )
+            .field( GraphQLFieldDefinition.newFieldDefinition().name( "pageInfo" ).type( getPageInfoObjectType() ) )
+            .build();
+        bind( FieldCoordinates.coordinates( connectionName, "totalCount" ), FieldBinding.property( "total" ) );
+        bind( FieldCoordinates.coordinates( connectionName, "edges" ), FieldBinding.edges( cursorProperty ) );
+        bind( FieldCoordinates.coordinates( connectionName, "pageInfo" ), FieldBinding.pageInfo( cursorProperty ) );
+        return connectionType;
+    }
+
+    private GraphQLObjectType getPageInfoObjectType()
+    {
+        if ( pageInfoObjectType == null )
+        {
+            pageInfoObjectType = GraphQLObjectType.newObject()
+                .name( "PageInfo" )
+                .field( GraphQLFieldDefinition.newFieldDefinition().name( "startCursor" ).type( GraphQLNonNull.nonNull( Scalars.GraphQLString ) ) )
+                .field( GraphQLFieldDefinition.newFieldDefinition().name( "endCursor" ).type( GraphQLNonNull.nonNull( Scalars.GraphQLString ) ) )
+                .field( GraphQLFieldDefinition.newFieldDefinition().name( "hasNext" ).type( GraphQLNonNull.nonNull( Scalars.GraphQLBoolean ) ) )
+                .build();
+            bind( FieldCoordinates.coordinates( "PageInfo", "startCursor" ), FieldBinding.cursor( "startCursor" ) );
+            bind( FieldCoordinates.coordinates( "PageInfo", "endCursor" ), FieldBinding.cursor( "endCursor" ) );
+        }
+        return pageInfoObjectType;
+    }
+
     public GraphQLObjectType createObjectType( final String name, final ScriptValue fieldsScriptValue,
                                                final ScriptValue interfacesScriptValue, final String description )
     {
+        final long start = System.nanoTime();
         final GraphQLObjectType.Builder objectType = GraphQLObjectType.newObject().name( name ).description( description );
         if ( interfacesScriptValue != null )
         {
@@ -83,33 +362,33 @@ public class GraphQlBean
             } );
         }
         setTypeFields( name, fieldsScriptValue, objectType );
-        return objectType.build();
+        return typeBuilt( start, objectType.build() );
     }
 
     public GraphQLInputObjectType createInputObjectType( final String name, final ScriptValue fieldsScriptValue, final String description )
     {
+        final long start = System.nanoTime();
         final GraphQLInputObjectType.Builder objectType = GraphQLInputObjectType.newInputObject().name( name ).description( description );
         setTypeFields( fieldsScriptValue, objectType );
-        return objectType.build();
+        return typeBuilt( start, objectType.build() );
     }
 
     public GraphQLInterfaceType createInterfaceType( final String name, final ScriptValue fieldsScriptValue,
                                                      final ScriptValue typeResolverScriptValue, final String description )
     {
+        final long start = System.nanoTime();
         final GraphQLInterfaceType.Builder interfaceType = GraphQLInterfaceType.newInterface().name( name ).description( description );
 
-        codeRegistryBuilder.typeResolver( name, ( typeResolutionEnvironment ) -> {
-            final MapMapper mapMapper = new MapMapper( (Map<?, ?>) typeResolutionEnvironment.getObject() );
-            return (GraphQLObjectType) typeResolverScriptValue.call( mapMapper ).getValue();
-        } );
+        codeRegistryBuilder.typeResolver( name, scriptTypeResolver( typeResolverScriptValue ) );
 
         setTypeFields( fieldsScriptValue, interfaceType );
-        return interfaceType.build();
+        return typeBuilt( start, interfaceType.build() );
     }
 
     public GraphQLUnionType createUnionType( final String name, final ScriptValue possibleTypesValue,
                                              final ScriptValue typeResolverScriptValue, final String description )
     {
+        final long start = System.nanoTime();
         final GraphQLUnionType.Builder unionType = GraphQLUnionType.newUnionType().name( name ).description( description );
 
         if ( possibleTypesValue != null )
@@ -127,19 +406,17 @@ public class GraphQlBean
             } );
         }
 
-        codeRegistryBuilder.typeResolver( name, ( typeResolutionEnvironment ) -> {
-            final MapMapper mapMapper = new MapMapper( (Map<?, ?>) typeResolutionEnvironment.getObject() );
-            return (GraphQLObjectType) typeResolverScriptValue.call( mapMapper ).getValue();
-        } );
+        codeRegistryBuilder.typeResolver( name, scriptTypeResolver( typeResolverScriptValue ) );
 
-        return unionType.build();
+        return typeBuilt( start, unionType.build() );
     }
 
     public GraphQLEnumType createEnumType( final String name, final ScriptValue valuesScriptValue, final String description )
     {
+        final long start = System.nanoTime();
         final GraphQLEnumType.Builder enumType = GraphQLEnumType.newEnum().name( name ).description( description );
         setValues( valuesScriptValue, enumType );
-        return enumType.build();
+        return typeBuilt( start, enumType.build() );
     }
 
     private void setValues( final ScriptValue valuesScriptValue, final GraphQLEnumType.Builder enumType )
@@ -161,56 +438,66 @@ public class GraphQlBean
     private void setTypeFields( final String parentTypeName, final ScriptValue fieldsScriptValue,
                                 final GraphQLObjectType.Builder objectType )
     {
-        for ( String fieldKey : fieldsScriptValue.getKeys() )
+        for ( ScriptFieldDefinition field : readFields( fieldsScriptValue ) )
         {
-            final ScriptValue fieldScriptValue = fieldsScriptValue.getMember( fieldKey );
+            final GraphQLFieldDefinition.Builder graphQlField = GraphQLFieldDefinition.newFieldDefinition().name( field.name );
 
-            if ( fieldScriptValue != null )
-            {
-                final GraphQLFieldDefinition.Builder graphQlField = GraphQLFieldDefinition.newFieldDefinition().name( fieldKey );
-
-                setFieldArguments( fieldScriptValue, graphQlField );
-                setFieldType( fieldScriptValue, graphQlField );
-                setFieldData( parentTypeName, fieldKey, fieldScriptValue );
-                objectType.field( graphQlField );
-            }
+            setFieldArguments( field, graphQlField );
+            setFieldType( field, graphQlField );
+            setFieldCost( field, graphQlField );
+            setFieldCacheControl( field, graphQlField );
+            setFieldData( parentTypeName, field );
+            objectType.field( graphQlField );
         }
     }
 
     private void setTypeFields( final ScriptValue fieldsScriptValue, final GraphQLInputObjectType.Builder objectType )
     {
-        for ( String fieldKey : fieldsScriptValue.getKeys() )
+        for ( ScriptFieldDefinition field : readFields( fieldsScriptValue ) )
         {
-            final ScriptValue fieldScriptValue = fieldsScriptValue.getMember( fieldKey );
-
-            final GraphQLInputObjectField.Builder graphQlField = GraphQLInputObjectField.newInputObjectField().name( fieldKey );
+            final GraphQLInputObjectField.Builder graphQlField = GraphQLInputObjectField.newInputObjectField().name( field.name );
 
-            setFieldType( fieldScriptValue, graphQlField );
+            setFieldType( field, graphQlField );
             objectType.field( graphQlField );
         }
     }
 
     private void setTypeFields( final ScriptValue fieldsScriptValue, final GraphQLInterfaceType.Builder interfaceType )
     {
-        for ( String fieldKey : fieldsScriptValue.getKeys() )
+        for ( ScriptFieldDefinition field : readFields( fieldsScriptValue ) )
         {
-            final ScriptValue fieldScriptValue = fieldsScriptValue.getMember( fieldKey );
-
-            final GraphQLFieldDefinition.Builder graphQlField = GraphQLFieldDefinition.newFieldDefinition().name( fieldKey );
+            final GraphQLFieldDefinition.Builder graphQlField = GraphQLFieldDefinition.newFieldDefinition().name( field.name );
 
-            setFieldArguments( fieldScriptValue, graphQlField );
-            setFieldType( fieldScriptValue, graphQlField );
+            setFieldArguments( field, graphQlField );
+            setFieldType( field, graphQlField );
+            setFieldCost( field, graphQlField );
+            setFieldCacheControl( field, graphQlField );
             interfaceType.field( graphQlField );
         }
     }
 
-    private void setFieldArguments( final ScriptValue fieldScriptValue, final GraphQLFieldDefinition.Builder graphQlField )
+    private List<ScriptFieldDefinition> readFields( final ScriptValue fieldsScriptValue )
+    {
+        final long start = System.nanoTime();
+        final List<ScriptFieldDefinition> fields = new ArrayList<>();
+        for ( String fieldKey : fieldsScriptValue.getKeys() )
+        {
+            final ScriptValue fieldScriptValue = fieldsScriptValue.getMember( fieldKey );
+            if ( fieldScriptValue != null )
+            {
+                fields.add( ScriptFieldDefinition.read( fieldKey, fieldScriptValue ) );
+            }
+        }
+        fieldCount += fields.size();
+        readNanos += System.nanoTime() - start;
+        return fields;
+    }
+
+    private void setFieldArguments( final ScriptFieldDefinition field, final GraphQLFieldDefinition.Builder graphQlField )
     {
-        final ScriptValue argsScriptValue = fieldScriptValue.getMember( "args" );
-        if ( argsScriptValue != null )
+        if ( field.args != null )
         {
-            Map<String, Object> argsMap = fieldScriptValue.getMember( "args" ).getMap();
-            argsMap.entrySet()
+            field.args.entrySet()
                 .stream()
                 .map( ( argEntry ) -> GraphQLArgument.newArgument()
                     .name( argEntry.getKey() )
@@ -220,9 +507,9 @@ public class GraphQlBean
         }
     }
 
-    private void setFieldType( final ScriptValue fieldScriptValue, final GraphQLFieldDefinition.Builder graphQlField )
+    private void setFieldType( final ScriptFieldDefinition field, final GraphQLFieldDefinition.Builder graphQlField )
     {
-        final Object scriptFieldType = fieldScriptValue.getMember( "type" ).getValue();
+        final Object scriptFieldType = field.type;
         if ( scriptFieldType instanceof GraphQLObjectType.Builder )
         {
             graphQlField.type( (GraphQLObjectType.Builder) scriptFieldType );
@@ -241,9 +528,31 @@ public class GraphQlBean
         }
     }
 
-    private void setFieldType( final ScriptValue fieldScriptValue, final GraphQLInputObjectField.Builder graphQlField )
+    private void setFieldCost( final ScriptFieldDefinition field, final GraphQLFieldDefinition.Builder graphQlField )
+    {
+        if ( field.cost == null && field.multipliers == null )
+        {
+            return;
+        }
+
+        graphQlField.withAppliedDirective( CostDirective.apply( field.cost, field.multipliers ) );
+        costDirectiveUsed = true;
+    }
+
+    private void setFieldCacheControl( final ScriptFieldDefinition field, final GraphQLFieldDefinition.Builder graphQlField )
     {
-        final Object scriptFieldType = fieldScriptValue.getMember( "type" ).getValue();
+        if ( field.maxAge == null )
+        {
+            return;
+        }
+
+        graphQlField.withAppliedDirective( CacheControlDirective.apply( field.maxAge ) );
+        cacheControlDirectiveUsed = true;
+    }
+
+    private void setFieldType( final ScriptFieldDefinition field, final GraphQLInputObjectField.Builder graphQlField )
+    {
+        final Object scriptFieldType = field.type;
         if ( scriptFieldType instanceof GraphQLInputObjectType.Builder )
         {
             graphQlField.type( (GraphQLInputObjectType.Builder) scriptFieldType );
@@ -254,28 +563,93 @@ public class GraphQlBean
         }
     }
 
-    private void setFieldData( final String objectTypeName, final String fieldName, final ScriptValue scriptFieldValue )
+    private void setFieldData( final String objectTypeName, final ScriptFieldDefinition field )
     {
-        final ScriptValue resolve = scriptFieldValue.getMember( "resolve" );
+        final ScriptValue resolve = field.resolve;
+        final FieldCoordinates coordinates = FieldCoordinates.coordinates( objectTypeName, field.name );
 
         if ( resolve != null )
         {
-            codeRegistryBuilder.dataFetcher( FieldCoordinates.coordinates( objectTypeName, fieldName ), (DataFetcher<Object>) env -> {
-                if ( resolve.isFunction() )
-                {
-                    final DataFetchingEnvironmentMapper environmentMapper = new DataFetchingEnvironmentMapper( env );
-                    final ScriptValue result = resolve.call( environmentMapper );
-                    return toGraphQlValue( result );
-                }
-                else
+            final DataFetcher<Object> dataFetcher;
+            if ( field.resolveFunction )
+            {
+                dataFetcher = env -> toGraphQlValue( resolve.call( new DataFetchingEnvironmentView( env ) ) );
+            }
+            else
+            {
+                dataFetcher = env -> toGraphQlValue( resolve );
+            }
+
+            if ( field.async )
+            {
+                // Async resolvers call the script from worker threads, while the request thread calls it for other fields.
+                if ( !asyncConcurrentScripts )
                 {
-                    return toGraphQlValue( resolve );
+                    throw new IllegalArgumentException(
+                        "Field '" + objectTypeName + "." + field.name + "' is async, which requires the asyncResolvers.concurrentScripts option" );
                 }
-            } );
+                codeRegistryBuilder.dataFetcher( coordinates, asyncDataFetcher( dataFetcher, getAsyncResolverExecutor() ) );
+            }
+            else
+            {
+                codeRegistryBuilder.dataFetcher( coordinates, dataFetcher );
+            }
+            fieldBindings.put( coordinates, FieldBinding.SCRIPT );
         }
+        else if ( field.property != null )
+        {
+            // Plain property reads are resolved in Java, without calling into the script engine.
+            bind( coordinates, FieldBinding.property( field.property ) );
+        }
+    }
+
+    private void bind( final FieldCoordinates coordinates, final FieldBinding binding )
+    {
+        codeRegistryBuilder.dataFetcher( coordinates, binding.dataFetcher() );
+        fieldBindings.put( coordinates, binding );
+    }
+
+    private static TypeResolver scriptTypeResolver( final ScriptValue typeResolverScriptValue )
+    {
+        return typeResolutionEnvironment -> {
+            final MapMapper mapMapper = new MapMapper( (Map<?, ?>) typeResolutionEnvironment.getObject() );
+            final Object type = typeResolverScriptValue.call( mapMapper ).getValue();
+            // A schema loaded from SDL has no type objects in the script, its type resolvers return type names.
+            return type instanceof String ? typeResolutionEnvironment.getSchema().getObjectType( (String) type ) : (GraphQLObjectType) type;
+        };
+    }
+
+    private AsyncResolverExecutor getAsyncResolverExecutor()
+    {
+        if ( asyncResolverExecutor == null )
+        {
+            asyncResolverExecutor = new AsyncResolverExecutor( asyncMaxConcurrency, asyncVirtualThreads );
+        }
+        return asyncResolverExecutor;
+    }
+
+    static DataFetcher<CompletableFuture<Object>> asyncDataFetcher( final DataFetcher<Object> dataFetcher, final Executor executor )
+    {
+        return env -> CompletableFuture.supplyAsync( () -> {
+            try
+            {
+                return dataFetcher.get( env );
+            }
+            catch ( Exception e )
+            {
+                throw new CompletionException( e );
+            }
+        }, executor ).thenCompose( value -> {
+            if ( value instanceof CompletionStage )
+            {
+                @SuppressWarnings("unchecked") final CompletionStage<Object> stage = (CompletionStage<Object>) value;
+                return stage;
+            }
+            return CompletableFuture.completedFuture( value );
+        } );
     }
 
-    private Object toGraphQlValue( final ScriptValue data )
+    static Object toGraphQlValue( final ScriptValue data )
     {
         if ( data != null )
         {
@@ -285,7 +659,7 @@ public class GraphQlBean
             }
             else if ( data.isObject() )
             {
-                if ( data.getValue() instanceof org.reactivestreams.Publisher )
+                if ( data.getValue() instanceof org.reactivestreams.Publisher || data.getValue() instanceof CompletionStage )
                 {
                     return data.getValue();
                 }
@@ -296,7 +670,7 @@ public class GraphQlBean
             }
             else if ( data.isArray() )
             {
-                return data.getArray().stream().map( this::toGraphQlValue ).collect( Collectors.toList() );
+                return data.getArray().stream().map( GraphQlBean::toGraphQlValue ).collect( Collectors.toList() );
             }
         }
         return null;
@@ -0,0 +1,41 @@
+package com.enonic.lib.graphql;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class InMemoryPersistedQueryStore
+    implements PersistedQueryStore
+{
+    static final int DEFAULT_MAX_SIZE = 1000;
+
+    private final Map<String, String> queries;
+
+    public InMemoryPersistedQueryStore()
+    {
+        this( DEFAULT_MAX_SIZE );
+    }
+
+    public InMemoryPersistedQueryStore( final int maxSize )
+    {
+        this.queries = new LinkedHashMap<>( 16, 0.75f, true )
+        {
+            @Override
+            protected boolean removeEldestEntry( final Map.Entry<String, String> eldest )
+            {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    @Override
+    public synchronized String get( final String hash )
+    {
+        return queries.get( hash );
+    }
+
+    @Override
+    public synchronized void put( final String hash, final String query )
+    {
+        queries.put( hash, query );
+    }
+}
@@ -0,0 +1,73 @@
+package com.enonic.lib.graphql;
+
+import graphql.GraphQLError;
+import graphql.incremental.DeferPayload;
+import graphql.incremental.DelayedIncrementalPartialResult;
+import graphql.incremental.IncrementalPayload;
+import graphql.incremental.StreamPayload;
+
+import com.enonic.xp.script.serializer.MapGenerator;
+import com.enonic.xp.script.serializer.MapSerializable;
+
+/**
+ * Serializes a subsequent payload of an incremental execution: {@code incremental} with the deferred fragments that
+ * completed, and {@code hasNext}. Errors are serialized as in {@link ExecutionResultMapper}.
+ */
+public final class IncrementalPayloadMapper
+    implements MapSerializable
+{
+    private final DelayedIncrementalPartialResult result;
+
+    public IncrementalPayloadMapper( final DelayedIncrementalPartialResult result )
+    {
+        this.result = result;
+    }
+
+    @Override
+    public void serialize( final MapGenerator gen )
+    {
+        if ( result.getIncremental() != null )
+        {
+            gen.array( "incremental" );
+            result.getIncremental().forEach( payload -> serializePayload( gen, payload ) );
+            gen.end();
+        }
+        gen.value( "hasNext", result.hasNext() );
+        if ( result.getExtensions() != null && !result.getExtensions().isEmpty() )
+        {
+            MapMapper.serializeMap( gen, "extensions", result.getExtensions() );
+        }
+    }
+
+    private static void serializePayload( final MapGenerator gen, final IncrementalPayload payload )
+    {
+        gen.map();
+        if ( payload instanceof DeferPayload )
+        {
+            MapMapper.serializeKeyValue( gen, "data", ( (DeferPayload) payload ).getData() );
+        }
+        else if ( payload instanceof StreamPayload )
+        {
+            MapMapper.serializeKeyValue( gen, "items", ( (StreamPayload) payload ).getItems() );
+        }
+        MapMapper.serializeKeyValue( gen, "path", payload.getPath() );
+        if ( payload.getLabel() != null )
+        {
+            gen.value( "label", payload.getLabel() );
+        }
+        if ( payload.getErrors() != null && !payload.getErrors().isEmpty() )
+        {
+            gen.array( "errors" );
+            for ( GraphQLError error : payload.getErrors() )
+            {
+                ExecutionResultMapper.serializeError( gen, error );
+            }
+            gen.end();
+        }
+        if ( payload.getExtensions() != null && !payload.getExtensions().isEmpty() )
+        {
+            MapMapper.serializeMap( gen, "extensions", payload.getExtensions() );
+        }
+        gen.end();
+    }
+}
@@ -0,0 +1,53 @@
+package com.enonic.lib.graphql;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import graphql.incremental.DelayedIncrementalPartialResult;
+
+/**
+ * Publishes the subsequent payloads of an incremental execution as {@link IncrementalPayloadMapper}s, passing demand and
+ * cancellation through to the publisher of graphql-java.
+ */
+final class IncrementalPayloadPublisher
+    implements Publisher<IncrementalPayloadMapper>
+{
+    private final Publisher<DelayedIncrementalPartialResult> source;
+
+    IncrementalPayloadPublisher( final Publisher<DelayedIncrementalPartialResult> source )
+    {
+        this.source = source;
+    }
+
+    @Override
+    public void subscribe( final Subscriber<? super IncrementalPayloadMapper> subscriber )
+    {
+        source.subscribe( new Subscriber<>()
+        {
+            @Override
+            public void onSubscribe( final Subscription subscription )
+            {
+                subscriber.onSubscribe( subscription );
+            }
+
+            @Override
+            public void onNext( final DelayedIncrementalPartialResult result )
+            {
+                subscriber.onNext( new IncrementalPayloadMapper( result ) );
+            }
+
+            @Override
+            public void onError( final Throwable throwable )
+            {
+                subscriber.onError( throwable );
+            }
+
+            @Override
+            public void onComplete()
+            {
+                subscriber.onComplete();
+            }
+        } );
+    }
+}
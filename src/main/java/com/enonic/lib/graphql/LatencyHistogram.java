@@ -0,0 +1,73 @@
+package com.enonic.lib.graphql;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Log-linear latency histogram in microseconds, with four sub-buckets per power of two. Recording is a single atomic
+ * increment, percentiles are accurate to within 25% of the value.
+ */
+final class LatencyHistogram
+{
+    private static final int SUB_BUCKETS = 4;
+
+    private static final int BUCKETS = SUB_BUCKETS * 40;
+
+    private final AtomicLongArray counts = new AtomicLongArray( BUCKETS );
+
+    void record( final long nanos )
+    {
+        counts.incrementAndGet( bucket( Math.max( 0, nanos / 1000 ) ) );
+    }
+
+    /**
+     * @return the upper bound in microseconds of the bucket containing the given quantile, 0 if nothing was recorded
+     */
+    long percentile( final double quantile )
+    {
+        long total = 0;
+        final long[] snapshot = new long[BUCKETS];
+        for ( int i = 0; i < BUCKETS; i++ )
+        {
+            snapshot[i] = counts.get( i );
+            total += snapshot[i];
+        }
+        if ( total == 0 )
+        {
+            return 0;
+        }
+
+        final long rank = Math.max( 1, (long) Math.ceil( quantile * total ) );
+        long seen = 0;
+        for ( int i = 0; i < BUCKETS; i++ )
+        {
+            seen += snapshot[i];
+            if ( seen >= rank )
+            {
+                return upperBound( i );
+            }
+        }
+        return upperBound( BUCKETS - 1 );
+    }
+
+    static int bucket( final long micros )
+    {
+        if ( micros < SUB_BUCKETS )
+        {
+            return (int) micros;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros( micros );
+        final int subBucket = (int) ( ( micros >>> ( exponent - 2 ) ) & ( SUB_BUCKETS - 1 ) );
+        return Math.min( ( exponent - 1 ) * SUB_BUCKETS + subBucket, BUCKETS - 1 );
+    }
+
+    static long upperBound( final int bucket )
+    {
+        if ( bucket < SUB_BUCKETS )
+        {
+            return bucket;
+        }
+        final int exponent = bucket / SUB_BUCKETS + 1;
+        final long lowerBound = (long) ( SUB_BUCKETS + bucket % SUB_BUCKETS ) << ( exponent - 2 );
+        return lowerBound + ( 1L << ( exponent - 2 ) ) - 1;
+    }
+}
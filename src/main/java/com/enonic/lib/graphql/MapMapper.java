@@ -1,5 +1,8 @@
 package com.enonic.lib.graphql;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.util.List;
 import java.util.Map;
@@ -11,6 +14,10 @@ import com.enonic.xp.script.serializer.MapSerializable;
 public final class MapMapper
     implements MapSerializable
 {
+    // Temporary workaround. XP < 7.8 ignores null values in MapGenerator. XP >= 7.8 gen.rawValue( key, null ) stores null
+    // The field is looked up once, null if it is not available.
+    private static final MethodHandle CURRENT_GETTER = findCurrentGetter();
+
     private final Map<?, ?> value;
 
     public MapMapper( final Map<?, ?> value )
@@ -47,36 +54,58 @@ public final class MapMapper
         }
         else if ( value == null )
         {
-            //Temporary workaround. XP < 7.8 ignores null values in MapGenerator. XP >= 7.8 gen.rawValue( key, null ) stores null
-            if ( gen instanceof MapGeneratorBase )
+            serializeNull( gen, key );
+        }
+        else
+        {
+            gen.value( key, value );
+        }
+    }
+
+    static void serializeNull( final MapGenerator gen, final String key )
+    {
+        if ( CURRENT_GETTER != null && gen instanceof MapGeneratorBase )
+        {
+            final Object map;
+            try
             {
-                try
-                {
-                    final Field currentField = MapGeneratorBase.class.getDeclaredField( "current" );
-                    currentField.setAccessible( true );
-                    final Object map = currentField.get( gen );
-                    if ( map instanceof Map ) // On Nashorn it is true. On GraalJS it is false.
-                    {
-                        ( (Map) map ).put( key, null );
-                    }
-                    else
-                    {
-                        gen.rawValue( key, null );
-                    }
-                }
-                catch ( NoSuchFieldException | IllegalAccessException e )
-                {
-                    gen.rawValue( key, null );
-                }
+                map = (Object) CURRENT_GETTER.invokeExact( (MapGeneratorBase) gen );
             }
-            else
+            catch ( RuntimeException e )
             {
                 gen.rawValue( key, null );
+                return;
+            }
+            catch ( Error e )
+            {
+                throw e;
+            }
+            catch ( Throwable t )
+            {
+                // A field getter throws no checked exception.
+                throw new IllegalStateException( t );
+            }
+
+            if ( map instanceof Map ) // On Nashorn it is true. On GraalJS it is false.
+            {
+                ( (Map) map ).put( key, null );
+                return;
             }
         }
-        else
+        gen.rawValue( key, null );
+    }
+
+    private static MethodHandle findCurrentGetter()
+    {
+        try
         {
-            gen.value( key, value );
+            final Field currentField = MapGeneratorBase.class.getDeclaredField( "current" );
+            currentField.setAccessible( true );
+            return MethodHandles.lookup().unreflectGetter( currentField ).asType( MethodType.methodType( Object.class, MapGeneratorBase.class ) );
+        }
+        catch ( NoSuchFieldException | IllegalAccessException | RuntimeException e )
+        {
+            return null;
         }
     }
 
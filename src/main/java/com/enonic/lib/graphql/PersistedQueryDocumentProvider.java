@@ -0,0 +1,130 @@
+package com.enonic.lib.graphql;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import graphql.ExecutionInput;
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.execution.preparsed.persisted.PersistedQueryError;
+import graphql.execution.preparsed.persisted.PersistedQueryIdInvalid;
+import graphql.execution.preparsed.persisted.PersistedQueryNotFound;
+
+/**
+ * Automatic persisted queries, following the Apollo protocol: the query hash is read from
+ * {@code extensions.persistedQuery.sha256Hash}. A request without query text is resolved from the store,
+ * a request with query text registers it. The resolved text goes through the shared document cache.
+ */
+final class PersistedQueryDocumentProvider
+    implements PreparsedDocumentProvider
+{
+    private final PreparsedDocumentProvider delegate;
+
+    private volatile PersistedQueryStore store;
+
+    PersistedQueryDocumentProvider( final PreparsedDocumentProvider delegate, final PersistedQueryStore store )
+    {
+        this.delegate = delegate;
+        this.store = store;
+    }
+
+    void setStore( final PersistedQueryStore store )
+    {
+        this.store = store;
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync( final ExecutionInput executionInput,
+                                                                       final Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction )
+    {
+        final String hash = getPersistedQueryHash( executionInput.getExtensions() );
+        if ( hash == null )
+        {
+            return delegate.getDocumentAsync( executionInput, parseAndValidateFunction );
+        }
+
+        final String query = executionInput.getQuery();
+        if ( isQueryMissing( query ) )
+        {
+            final String persistedQuery = store.get( hash );
+            if ( persistedQuery == null )
+            {
+                return CompletableFuture.completedFuture( new PreparsedDocumentEntry( toError( new PersistedQueryNotFound( hash ) ) ) );
+            }
+            return delegate.getDocumentAsync( executionInput.transform( builder -> builder.query( persistedQuery ) ),
+                                              parseAndValidateFunction );
+        }
+
+        if ( !hash.equals( sha256Hex( query ) ) )
+        {
+            return CompletableFuture.completedFuture( new PreparsedDocumentEntry( toError( new PersistedQueryIdInvalid( hash ) ) ) );
+        }
+
+        return delegate.getDocumentAsync( executionInput, parseAndValidateFunction ).thenApply( entry -> {
+            if ( !entry.hasErrors() )
+            {
+                store.put( hash, query );
+            }
+            return entry;
+        } );
+    }
+
+    static boolean isQueryMissing( final String query )
+    {
+        return query == null || query.isBlank() || ExecutionInput.PERSISTED_QUERY_MARKER.equals( query );
+    }
+
+    static String sha256Hex( final String query )
+    {
+        try
+        {
+            final MessageDigest messageDigest = MessageDigest.getInstance( "SHA-256" );
+            return HexFormat.of().formatHex( messageDigest.digest( query.getBytes( StandardCharsets.UTF_8 ) ) );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( e );
+        }
+    }
+
+    private static String getPersistedQueryHash( final Map<String, Object> extensions )
+    {
+        if ( extensions == null )
+        {
+            return null;
+        }
+        final Object persistedQuery = extensions.get( "persistedQuery" );
+        if ( persistedQuery instanceof Map )
+        {
+            final Object hash = ( (Map<?, ?>) persistedQuery ).get( "sha256Hash" );
+            if ( hash instanceof String && !( (String) hash ).isEmpty() )
+            {
+                // Hex digits of either case name the same query, in the store too.
+                return ( (String) hash ).toLowerCase( Locale.ROOT );
+            }
+        }
+        return null;
+    }
+
+    private static GraphQLError toError( final PersistedQueryError error )
+    {
+        return GraphqlErrorBuilder.newError().errorType( error ).message( error.getMessage() ).extensions( getExtensions( error ) ).build();
+    }
+
+    private static Map<String, Object> getExtensions( final PersistedQueryError error )
+    {
+        if ( error instanceof PersistedQueryNotFound )
+        {
+            return ( (PersistedQueryNotFound) error ).getExtensions();
+        }
+        return ( (PersistedQueryIdInvalid) error ).getExtensions();
+    }
+}
@@ -0,0 +1,8 @@
+package com.enonic.lib.graphql;
+
+public interface PersistedQueryStore
+{
+    String get( String hash );
+
+    void put( String hash, String query );
+}
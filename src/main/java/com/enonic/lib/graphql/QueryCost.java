@@ -0,0 +1,44 @@
+package com.enonic.lib.graphql;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+final class QueryCost
+{
+    private final int depth;
+
+    private final int fields;
+
+    private final long cost;
+
+    QueryCost( final int depth, final int fields, final long cost )
+    {
+        this.depth = depth;
+        this.fields = fields;
+        this.cost = cost;
+    }
+
+    int getDepth()
+    {
+        return depth;
+    }
+
+    int getFields()
+    {
+        return fields;
+    }
+
+    long getCost()
+    {
+        return cost;
+    }
+
+    Map<String, Object> toMap()
+    {
+        final Map<String, Object> map = new LinkedHashMap<>();
+        map.put( "depth", depth );
+        map.put( "fields", fields );
+        map.put( "cost", cost );
+        return map;
+    }
+}
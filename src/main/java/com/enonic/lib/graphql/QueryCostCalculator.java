@@ -0,0 +1,121 @@
+package com.enonic.lib.graphql;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import graphql.analysis.QueryTraverser;
+import graphql.analysis.QueryVisitorFieldEnvironment;
+import graphql.analysis.QueryVisitorStub;
+import graphql.execution.CoercedVariables;
+import graphql.language.Document;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLSchema;
+
+/**
+ * Computes depth, field count and cost of an operation without executing it. The cost of a field is its weight plus
+ * the cost of its selections, multiplied by the values of its multiplier arguments, see {@link CostDirective}.
+ */
+final class QueryCostCalculator
+{
+    private QueryCostCalculator()
+    {
+    }
+
+    static QueryCost calculate( final GraphQLSchema schema, final Document document, final String operationName,
+                                final CoercedVariables variables )
+    {
+        final QueryTraverser queryTraverser = QueryTraverser.newQueryTraverser()
+            .schema( schema )
+            .document( document )
+            .operationName( operationName )
+            .coercedVariables( variables )
+            .build();
+
+        final CostVisitor visitor = new CostVisitor();
+        queryTraverser.visitPostOrder( visitor );
+        return new QueryCost( visitor.maxDepth, visitor.fields, visitor.rootCost );
+    }
+
+    private static final class CostVisitor
+        extends QueryVisitorStub
+    {
+        // Children are visited before their parent, their cost is accumulated here until the parent is visited.
+        private final Map<QueryVisitorFieldEnvironment, long[]> selectionCosts = new HashMap<>();
+
+        private int maxDepth;
+
+        private int fields;
+
+        private long rootCost;
+
+        @Override
+        public void visitField( final QueryVisitorFieldEnvironment env )
+        {
+            if ( env.isTypeNameIntrospectionField() )
+            {
+                return;
+            }
+
+            fields++;
+            maxDepth = Math.max( maxDepth, depth( env ) );
+
+            final long[] selectionCost = selectionCosts.remove( env );
+            final GraphQLFieldDefinition fieldDefinition = env.getFieldDefinition();
+            final long cost = saturatedMultiply( multiplier( fieldDefinition, env.getArguments() ),
+                                                 CostDirective.getWeight( fieldDefinition ) + ( selectionCost == null ? 0 : selectionCost[0] ) );
+
+            final QueryVisitorFieldEnvironment parent = env.getParentEnvironment();
+            if ( parent == null )
+            {
+                rootCost = saturatedAdd( rootCost, cost );
+            }
+            else
+            {
+                final long[] parentCost = selectionCosts.computeIfAbsent( parent, key -> new long[1] );
+                parentCost[0] = saturatedAdd( parentCost[0], cost );
+            }
+        }
+
+        private static int depth( final QueryVisitorFieldEnvironment env )
+        {
+            int depth = 0;
+            for ( QueryVisitorFieldEnvironment current = env; current != null; current = current.getParentEnvironment() )
+            {
+                depth++;
+            }
+            return depth;
+        }
+
+        private static long multiplier( final GraphQLFieldDefinition fieldDefinition, final Map<String, Object> arguments )
+        {
+            long multiplier = 1;
+            for ( String name : CostDirective.getMultipliers( fieldDefinition ) )
+            {
+                final Object value = arguments.get( name );
+                if ( value instanceof Number )
+                {
+                    multiplier = saturatedMultiply( multiplier, Math.max( 0, ( (Number) value ).longValue() ) );
+                }
+                else if ( value instanceof Collection )
+                {
+                    multiplier = saturatedMultiply( multiplier, ( (Collection<?>) value ).size() );
+                }
+            }
+            return multiplier;
+        }
+
+        private static long saturatedAdd( final long a, final long b )
+        {
+            final long result = a + b;
+            return ( ( a ^ result ) & ( b ^ result ) ) < 0 ? Long.MAX_VALUE : result;
+        }
+
+        private static long saturatedMultiply( final long a, final long b )
+        {
+            final long high = Math.multiplyHigh( a, b );
+            final long result = a * b;
+            return ( high == 0 && result >= 0 ) ? result : Long.MAX_VALUE;
+        }
+    }
+}
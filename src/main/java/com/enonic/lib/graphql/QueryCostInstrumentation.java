@@ -0,0 +1,57 @@
+package com.enonic.lib.graphql;
+
+import java.util.concurrent.CompletableFuture;
+
+import graphql.ExecutionResult;
+import graphql.GraphQLContext;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+
+/**
+ * Computes the cost of an operation once its variables are coerced and aborts it, before any resolver runs, if it
+ * exceeds the {@link QueryLimits} of the execution. The computed cost is reported in the {@code cost} extension of
+ * the result. Nothing is computed for executions without limits.
+ */
+final class QueryCostInstrumentation
+    extends SimplePerformantInstrumentation
+{
+    static final String EXTENSION_NAME = "cost";
+
+    private static final String COST_CONTEXT_KEY = QueryCost.class.getName();
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation( final InstrumentationExecuteOperationParameters parameters,
+                                                                          final InstrumentationState state )
+    {
+        final ExecutionContext executionContext = parameters.getExecutionContext();
+        final GraphQLContext graphQLContext = executionContext.getGraphQLContext();
+        final QueryLimits limits = graphQLContext.get( QueryLimits.CONTEXT_KEY );
+        if ( limits != null )
+        {
+            final QueryCost queryCost = QueryCostCalculator.calculate( executionContext.getGraphQLSchema(), executionContext.getDocument(),
+                                                                       executionContext.getOperationDefinition().getName(),
+                                                                       executionContext.getCoercedVariables() );
+            graphQLContext.put( COST_CONTEXT_KEY, queryCost );
+            limits.check( queryCost );
+        }
+        return super.beginExecuteOperation( parameters, state );
+    }
+
+    @Override
+    public CompletableFuture<ExecutionResult> instrumentExecutionResult( final ExecutionResult executionResult,
+                                                                         final InstrumentationExecutionParameters parameters,
+                                                                         final InstrumentationState state )
+    {
+        final QueryCost queryCost = parameters.getGraphQLContext().get( COST_CONTEXT_KEY );
+        if ( queryCost == null )
+        {
+            return CompletableFuture.completedFuture( executionResult );
+        }
+        return CompletableFuture.completedFuture(
+            executionResult.transform( builder -> builder.addExtension( EXTENSION_NAME, queryCost.toMap() ) ) );
+    }
+}
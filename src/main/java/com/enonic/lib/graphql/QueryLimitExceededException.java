@@ -0,0 +1,42 @@
+package com.enonic.lib.graphql;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import graphql.execution.AbortExecutionException;
+
+/**
+ * Raised before execution when an operation exceeds one of the {@link QueryLimits}.
+ */
+final class QueryLimitExceededException
+    extends AbortExecutionException
+{
+    private static final long serialVersionUID = 1L;
+
+    static final String CODE = "QUERY_LIMIT_EXCEEDED";
+
+    private final String limit;
+
+    private final long value;
+
+    private final long max;
+
+    QueryLimitExceededException( final String limit, final long value, final long max )
+    {
+        super( "Query exceeds " + limit + ": " + value + " > " + max );
+        this.limit = limit;
+        this.value = value;
+        this.max = max;
+    }
+
+    @Override
+    public Map<String, Object> getExtensions()
+    {
+        final Map<String, Object> extensions = new LinkedHashMap<>();
+        extensions.put( "code", CODE );
+        extensions.put( "limit", limit );
+        extensions.put( "value", value );
+        extensions.put( "max", max );
+        return extensions;
+    }
+}
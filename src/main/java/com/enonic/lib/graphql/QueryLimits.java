@@ -0,0 +1,53 @@
+package com.enonic.lib.graphql;
+
+import com.enonic.xp.script.ScriptValue;
+
+final class QueryLimits
+{
+    static final String CONTEXT_KEY = QueryLimits.class.getName();
+
+    private final Integer maxDepth;
+
+    private final Integer maxFields;
+
+    private final Long maxCost;
+
+    QueryLimits( final Integer maxDepth, final Integer maxFields, final Long maxCost )
+    {
+        this.maxDepth = maxDepth;
+        this.maxFields = maxFields;
+        this.maxCost = maxCost;
+    }
+
+    static QueryLimits from( final ScriptValue limits )
+    {
+        if ( limits == null || !limits.isObject() )
+        {
+            return null;
+        }
+        return new QueryLimits( getNumber( limits, "maxDepth", Integer.class ), getNumber( limits, "maxFields", Integer.class ),
+                                getNumber( limits, "maxCost", Long.class ) );
+    }
+
+    void check( final QueryCost queryCost )
+    {
+        if ( maxDepth != null && queryCost.getDepth() > maxDepth )
+        {
+            throw new QueryLimitExceededException( "maxDepth", queryCost.getDepth(), maxDepth );
+        }
+        if ( maxFields != null && queryCost.getFields() > maxFields )
+        {
+            throw new QueryLimitExceededException( "maxFields", queryCost.getFields(), maxFields );
+        }
+        if ( maxCost != null && queryCost.getCost() > maxCost )
+        {
+            throw new QueryLimitExceededException( "maxCost", queryCost.getCost(), maxCost );
+        }
+    }
+
+    private static <T> T getNumber( final ScriptValue limits, final String name, final Class<T> type )
+    {
+        final ScriptValue value = limits.getMember( name );
+        return value == null || !value.isValue() ? null : value.getValue( type );
+    }
+}
@@ -0,0 +1,63 @@
+package com.enonic.lib.graphql;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resolver call statistics of a schema, aggregated across executions by field coordinate.
+ */
+final class ResolverMetrics
+{
+    private final Map<String, FieldMetrics> fields = new ConcurrentHashMap<>();
+
+    void record( final String coordinate, final long nanos, final boolean error )
+    {
+        fields.computeIfAbsent( coordinate, key -> new FieldMetrics() ).record( nanos, error );
+    }
+
+    ResolverMetricsSnapshot snapshot()
+    {
+        final List<ResolverStats> resolvers = new ArrayList<>( fields.size() );
+        fields.forEach( ( coordinate, metrics ) -> resolvers.add( metrics.toStats( coordinate ) ) );
+        resolvers.sort( Comparator.comparingLong( ResolverStats::getTotalMicros ).reversed() );
+        return new ResolverMetricsSnapshot( resolvers );
+    }
+
+    private static final class FieldMetrics
+    {
+        private final LongAdder calls = new LongAdder();
+
+        private final LongAdder errors = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        private final LongAccumulator maxNanos = new LongAccumulator( Math::max, 0 );
+
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        void record( final long nanos, final boolean error )
+        {
+            calls.increment();
+            if ( error )
+            {
+                errors.increment();
+            }
+            totalNanos.add( nanos );
+            maxNanos.accumulate( nanos );
+            histogram.record( nanos );
+        }
+
+        ResolverStats toStats( final String coordinate )
+        {
+            final long max = maxNanos.get() / 1000;
+            return new ResolverStats( coordinate, calls.sum(), errors.sum(), totalNanos.sum() / 1000, max,
+                                      Math.min( max, histogram.percentile( 0.5 ) ), Math.min( max, histogram.percentile( 0.95 ) ),
+                                      Math.min( max, histogram.percentile( 0.99 ) ) );
+        }
+    }
+}
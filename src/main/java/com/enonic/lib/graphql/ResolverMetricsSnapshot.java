@@ -0,0 +1,38 @@
+package com.enonic.lib.graphql;
+
+import java.util.List;
+
+import com.enonic.xp.script.serializer.MapGenerator;
+import com.enonic.xp.script.serializer.MapSerializable;
+
+public final class ResolverMetricsSnapshot
+    implements MapSerializable
+{
+    private final List<ResolverStats> resolvers;
+
+    ResolverMetricsSnapshot( final List<ResolverStats> resolvers )
+    {
+        this.resolvers = resolvers;
+    }
+
+    /**
+     * @return statistics of every resolver called so far, by descending total time
+     */
+    public List<ResolverStats> getResolvers()
+    {
+        return resolvers;
+    }
+
+    @Override
+    public void serialize( final MapGenerator gen )
+    {
+        gen.array( "resolvers" );
+        for ( ResolverStats resolver : resolvers )
+        {
+            gen.map();
+            resolver.serialize( gen );
+            gen.end();
+        }
+        gen.end();
+    }
+}
@@ -0,0 +1,96 @@
+package com.enonic.lib.graphql;
+
+import com.enonic.xp.script.serializer.MapGenerator;
+import com.enonic.xp.script.serializer.MapSerializable;
+
+public final class ResolverStats
+    implements MapSerializable
+{
+    private final String field;
+
+    private final long calls;
+
+    private final long errors;
+
+    private final long totalMicros;
+
+    private final long maxMicros;
+
+    private final long p50Micros;
+
+    private final long p95Micros;
+
+    private final long p99Micros;
+
+    ResolverStats( final String field, final long calls, final long errors, final long totalMicros, final long maxMicros,
+                   final long p50Micros, final long p95Micros, final long p99Micros )
+    {
+        this.field = field;
+        this.calls = calls;
+        this.errors = errors;
+        this.totalMicros = totalMicros;
+        this.maxMicros = maxMicros;
+        this.p50Micros = p50Micros;
+        this.p95Micros = p95Micros;
+        this.p99Micros = p99Micros;
+    }
+
+    public String getField()
+    {
+        return field;
+    }
+
+    public long getCalls()
+    {
+        return calls;
+    }
+
+    public long getErrors()
+    {
+        return errors;
+    }
+
+    public long getTotalMicros()
+    {
+        return totalMicros;
+    }
+
+    public long getMaxMicros()
+    {
+        return maxMicros;
+    }
+
+    public long getMeanMicros()
+    {
+        return calls == 0 ? 0 : totalMicros / calls;
+    }
+
+    public long getP50Micros()
+    {
+        return p50Micros;
+    }
+
+    public long getP95Micros()
+    {
+        return p95Micros;
+    }
+
+    public long getP99Micros()
+    {
+        return p99Micros;
+    }
+
+    @Override
+    public void serialize( final MapGenerator gen )
+    {
+        gen.value( "field", field );
+        gen.value( "calls", calls );
+        gen.value( "errors", errors );
+        gen.value( "totalMicros", totalMicros );
+        gen.value( "meanMicros", getMeanMicros() );
+        gen.value( "maxMicros", maxMicros );
+        gen.value( "p50Micros", p50Micros );
+        gen.value( "p95Micros", p95Micros );
+        gen.value( "p99Micros", p99Micros );
+    }
+}
@@ -0,0 +1,156 @@
+package com.enonic.lib.graphql;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import graphql.ExecutionResult;
+import graphql.GraphQLContext;
+import graphql.execution.DataFetcherResult;
+import graphql.execution.ExecutionStepInfo;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.GraphQLTypeUtil;
+
+/**
+ * Times resolver calls of executions that opted in, either into the aggregated {@link ResolverMetrics} of the schema,
+ * into an Apollo tracing style {@code tracing} extension of the result, or both. Trivial property fetchers are not
+ * timed. Executions that did not opt in get no state and pay nothing per field.
+ */
+final class ResolverTimingInstrumentation
+    extends SimplePerformantInstrumentation
+{
+    static final String METRICS_CONTEXT_KEY = ResolverTimingInstrumentation.class.getName() + ".metrics";
+
+    static final String TRACING_CONTEXT_KEY = ResolverTimingInstrumentation.class.getName() + ".tracing";
+
+    static final String EXTENSION_NAME = "tracing";
+
+    private final ResolverMetrics metrics;
+
+    ResolverTimingInstrumentation( final ResolverMetrics metrics )
+    {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public InstrumentationState createState( final InstrumentationCreateStateParameters parameters )
+    {
+        final GraphQLContext graphQLContext = parameters.getExecutionInput().getGraphQLContext();
+        final boolean metricsEnabled = graphQLContext.getBoolean( METRICS_CONTEXT_KEY, false );
+        final boolean tracingEnabled = graphQLContext.getBoolean( TRACING_CONTEXT_KEY, false );
+        return metricsEnabled || tracingEnabled ? new TimingState( metricsEnabled, tracingEnabled ) : null;
+    }
+
+    @Override
+    public InstrumentationContext<Object> beginFieldFetch( final InstrumentationFieldFetchParameters parameters,
+                                                           final InstrumentationState state )
+    {
+        if ( state == null || parameters.isTrivialDataFetcher() )
+        {
+            return null;
+        }
+
+        final TimingState timingState = (TimingState) state;
+        final long startNanos = System.nanoTime();
+        return SimpleInstrumentationContext.whenCompleted( ( value, throwable ) -> {
+            final long durationNanos = System.nanoTime() - startNanos;
+            final ExecutionStepInfo stepInfo = parameters.getExecutionStepInfo();
+            if ( timingState.metricsEnabled )
+            {
+                final boolean error = throwable != null || ( value instanceof DataFetcherResult && ( (DataFetcherResult<?>) value ).hasErrors() );
+                metrics.record( stepInfo.getObjectType().getName() + "." + stepInfo.getFieldDefinition().getName(), durationNanos, error );
+            }
+            if ( timingState.traces != null )
+            {
+                timingState.traces.add( new ResolverTrace( stepInfo, startNanos - timingState.startNanos, durationNanos ) );
+            }
+        } );
+    }
+
+    @Override
+    public CompletableFuture<ExecutionResult> instrumentExecutionResult( final ExecutionResult executionResult,
+                                                                         final InstrumentationExecutionParameters parameters,
+                                                                         final InstrumentationState state )
+    {
+        if ( state == null || ( (TimingState) state ).traces == null )
+        {
+            return CompletableFuture.completedFuture( executionResult );
+        }
+        final Map<String, Object> tracing = ( (TimingState) state ).toTracing();
+        return CompletableFuture.completedFuture( executionResult.transform( builder -> builder.addExtension( EXTENSION_NAME, tracing ) ) );
+    }
+
+    private static final class TimingState
+        implements InstrumentationState
+    {
+        private final boolean metricsEnabled;
+
+        private final Queue<ResolverTrace> traces;
+
+        private final Instant startTime = Instant.now();
+
+        private final long startNanos = System.nanoTime();
+
+        TimingState( final boolean metricsEnabled, final boolean tracingEnabled )
+        {
+            this.metricsEnabled = metricsEnabled;
+            // Resolvers may complete on async resolver threads.
+            this.traces = tracingEnabled ? new ConcurrentLinkedQueue<>() : null;
+        }
+
+        Map<String, Object> toTracing()
+        {
+            final long durationNanos = System.nanoTime() - startNanos;
+
+            final List<Map<String, Object>> resolvers = new ArrayList<>( traces.size() );
+            traces.forEach( trace -> resolvers.add( trace.toMap() ) );
+
+            final Map<String, Object> tracing = new LinkedHashMap<>();
+            tracing.put( "version", 1 );
+            tracing.put( "startTime", startTime.toString() );
+            tracing.put( "endTime", startTime.plusNanos( durationNanos ).toString() );
+            tracing.put( "duration", durationNanos );
+            tracing.put( "execution", Map.of( "resolvers", resolvers ) );
+            return tracing;
+        }
+    }
+
+    private static final class ResolverTrace
+    {
+        private final ExecutionStepInfo stepInfo;
+
+        private final long startOffset;
+
+        private final long duration;
+
+        ResolverTrace( final ExecutionStepInfo stepInfo, final long startOffset, final long duration )
+        {
+            this.stepInfo = stepInfo;
+            this.startOffset = startOffset;
+            this.duration = duration;
+        }
+
+        Map<String, Object> toMap()
+        {
+            final Map<String, Object> map = new LinkedHashMap<>();
+            map.put( "path", stepInfo.getPath().toList() );
+            map.put( "parentType", stepInfo.getObjectType().getName() );
+            map.put( "fieldName", stepInfo.getFieldDefinition().getName() );
+            map.put( "returnType", GraphQLTypeUtil.simplePrint( stepInfo.getType() ) );
+            map.put( "startOffset", startOffset );
+            map.put( "duration", duration );
+            return map;
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.enonic.lib.graphql;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import graphql.ExecutionResult;
+import graphql.language.AstPrinter;
+import graphql.language.Document;
+import graphql.language.OperationDefinition;
+import graphql.parser.Parser;
+
+/**
+ * Results of queries kept for the max age of their {@link CachePolicy}, by scope, normalized document, operation and
+ * variables. Concurrent executions of a query that is not cached share the first one when a result of the key was
+ * kept before, and results are dropped by tag or when the least recently used of {@code maxSize}. Only results without
+ * errors are kept.
+ */
+final class ResultCache
+{
+    static final int DEFAULT_MAX_SIZE = 1000;
+
+    // Normalized documents by query text, so that a cached query is parsed once.
+    private static final int MAX_DOCUMENTS = 500;
+
+    // Hash of documents with mutations or subscriptions, which are executed every time.
+    private static final String UNCACHEABLE = "";
+
+    private final Map<ResultKey, Entry> entries;
+
+    private final Map<String, String> documentHashes = new LinkedHashMap<>( 16, 0.75f, true )
+    {
+        @Override
+        protected boolean removeEldestEntry( final Map.Entry<String, String> eldest )
+        {
+            return size() > MAX_DOCUMENTS;
+        }
+    };
+
+    private final Map<ResultKey, CompletableFuture<ExecutionResult>> executions = new ConcurrentHashMap<>();
+
+    // Guarded by this. Keys whose last result was kept, the only ones whose executions are shared: an uncacheable result
+    // may depend on what the key leaves out, such as the context argument or the user.
+    private final Map<ResultKey, Boolean> cacheableKeys;
+
+    private final LongSupplier clock;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder shared = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    // Guarded by this. Counts invalidations, so that an execution that overlapped one does not store a stale result.
+    private long generation;
+
+    ResultCache( final int maxSize )
+    {
+        this( maxSize, () -> TimeUnit.NANOSECONDS.toMillis( System.nanoTime() ) );
+    }
+
+    ResultCache( final int maxSize, final LongSupplier clock )
+    {
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>( 16, 0.75f, true )
+        {
+            @Override
+            protected boolean removeEldestEntry( final Map.Entry<ResultKey, Entry> eldest )
+            {
+                if ( size() > maxSize )
+                {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.cacheableKeys = new LinkedHashMap<>( 16, 0.75f, true )
+        {
+            @Override
+            protected boolean removeEldestEntry( final Map.Entry<ResultKey, Boolean> eldest )
+            {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * @return the key of a query, or {@code null} if the query cannot be parsed or is not only queries, and is not to be cached
+     */
+    ResultKey key( final String scope, final String query, final String operationName, final Map<String, Object> variables )
+    {
+        final String documentHash = documentHash( query );
+        return documentHash == null || documentHash.equals( UNCACHEABLE ) ? null : new ResultKey( scope, documentHash, operationName, canonical( variables ) );
+    }
+
+    ExecutionResult get( final ResultKey key, final List<String> tags, final CachePolicy policy, final Supplier<ExecutionResult> execution )
+    {
+        final ExecutionResult cached = lookup( key );
+        if ( cached != null )
+        {
+            hits.increment();
+            return cached;
+        }
+
+        final boolean shareable;
+        synchronized ( this )
+        {
+            shareable = cacheableKeys.containsKey( key );
+        }
+        if ( !shareable )
+        {
+            misses.increment();
+            return execute( key, tags, policy, execution );
+        }
+
+        final CompletableFuture<ExecutionResult> pending = new CompletableFuture<>();
+        final CompletableFuture<ExecutionResult> running = executions.putIfAbsent( key, pending );
+        if ( running != null )
+        {
+            shared.increment();
+            return join( running );
+        }
+
+        misses.increment();
+        try
+        {
+            final ExecutionResult result = execute( key, tags, policy, execution );
+            pending.complete( result );
+            return result;
+        }
+        catch ( RuntimeException | Error e )
+        {
+            pending.completeExceptionally( e );
+            throw e;
+        }
+        finally
+        {
+            executions.remove( key, pending );
+        }
+    }
+
+    /**
+     * @return the number of results dropped
+     */
+    synchronized int invalidate( final String tag )
+    {
+        generation++;
+        int removed = 0;
+        for ( Iterator<Entry> iterator = entries.values().iterator(); iterator.hasNext(); )
+        {
+            if ( iterator.next().tags.contains( tag ) )
+            {
+                iterator.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    synchronized int clear()
+    {
+        generation++;
+        final int removed = entries.size();
+        entries.clear();
+        return removed;
+    }
+
+    synchronized int size()
+    {
+        return entries.size();
+    }
+
+    ResultCacheStats stats()
+    {
+        return new ResultCacheStats( size(), hits.sum(), misses.sum(), shared.sum(), evictions.sum() );
+    }
+
+    private ExecutionResult execute( final ResultKey key, final List<String> tags, final CachePolicy policy,
+                                     final Supplier<ExecutionResult> execution )
+    {
+        final long startGeneration;
+        synchronized ( this )
+        {
+            startGeneration = generation;
+        }
+        final ExecutionResult result = execution.get();
+        store( key, tags, policy, result, startGeneration );
+        return result;
+    }
+
+    private synchronized ExecutionResult lookup( final ResultKey key )
+    {
+        final Entry entry = entries.get( key );
+        if ( entry == null )
+        {
+            return null;
+        }
+        if ( entry.expires - clock.getAsLong() <= 0 )
+        {
+            entries.remove( key );
+            return null;
+        }
+        return entry.result;
+    }
+
+    private void store( final ResultKey key, final List<String> tags, final CachePolicy policy, final ExecutionResult result,
+                        final long startGeneration )
+    {
+        final int maxAge = policy.getMaxAge();
+        if ( maxAge <= 0 || result.getData() == null || ( result.getErrors() != null && !result.getErrors().isEmpty() ) )
+        {
+            synchronized ( this )
+            {
+                cacheableKeys.remove( key );
+            }
+            return;
+        }
+        synchronized ( this )
+        {
+            cacheableKeys.put( key, Boolean.TRUE );
+            if ( generation == startGeneration )
+            {
+                entries.put( key, new Entry( result, clock.getAsLong() + TimeUnit.SECONDS.toMillis( maxAge ), List.copyOf( tags ) ) );
+            }
+        }
+    }
+
+    private String documentHash( final String query )
+    {
+        synchronized ( documentHashes )
+        {
+            final String hash = documentHashes.get( query );
+            if ( hash != null )
+            {
+                return hash;
+            }
+        }
+
+        final String hash;
+        try
+        {
+            final Document document = Parser.parse( query );
+            // Identical mutations running at once must not share an execution.
+            final boolean queriesOnly = document.getDefinitionsOfType( OperationDefinition.class )
+                .stream()
+                .allMatch( operation -> operation.getOperation() == OperationDefinition.Operation.QUERY );
+            hash = queriesOnly ? PersistedQueryDocumentProvider.sha256Hex( AstPrinter.printAstCompact( document ) ) : UNCACHEABLE;
+        }
+        catch ( RuntimeException e )
+        {
+            // Invalid queries are left to the execution to report.
+            return null;
+        }
+        synchronized ( documentHashes )
+        {
+            documentHashes.put( query, hash );
+        }
+        return hash;
+    }
+
+    /**
+     * @return the variables as a string independent of the order of their members
+     */
+    private static String canonical( final Object value )
+    {
+        if ( value instanceof Map )
+        {
+            final Map<String, String> sorted = new TreeMap<>();
+            ( (Map<?, ?>) value ).forEach( ( key, member ) -> sorted.put( String.valueOf( key ), canonical( member ) ) );
+            return sorted.toString();
+        }
+        if ( value instanceof List )
+        {
+            return ( (List<?>) value ).stream().map( ResultCache::canonical ).toList().toString();
+        }
+        if ( value instanceof String )
+        {
+            // Quoted, so that the string "1" and the number 1 differ.
+            return '"' + ( (String) value ).replace( "\"", "\\\"" ) + '"';
+        }
+        return String.valueOf( value );
+    }
+
+    private static ExecutionResult join( final CompletableFuture<ExecutionResult> running )
+    {
+        try
+        {
+            return running.join();
+        }
+        catch ( CompletionException e )
+        {
+            if ( e.getCause() instanceof RuntimeException )
+            {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    record ResultKey(String scope, String documentHash, String operationName, String variables)
+    {
+    }
+
+    private record Entry(ExecutionResult result, long expires, List<String> tags)
+    {
+    }
+}
@@ -0,0 +1,65 @@
+package com.enonic.lib.graphql;
+
+import java.util.List;
+
+import com.enonic.xp.script.ScriptValue;
+
+final class ResultCacheOptions
+{
+    private final String scope;
+
+    private final List<String> tags;
+
+    private final int defaultMaxAge;
+
+    ResultCacheOptions( final String scope, final List<String> tags, final int defaultMaxAge )
+    {
+        this.scope = scope;
+        this.tags = tags;
+        this.defaultMaxAge = defaultMaxAge;
+    }
+
+    /**
+     * @return the options of {@code cache: true} or {@code cache: {scope, tags, maxAge}}, or {@code null} without caching
+     */
+    static ResultCacheOptions from( final ScriptValue cache )
+    {
+        if ( cache == null )
+        {
+            return null;
+        }
+        if ( cache.isValue() )
+        {
+            return Boolean.TRUE.equals( cache.getValue( Boolean.class ) ) ? new ResultCacheOptions( "", List.of(), 0 ) : null;
+        }
+        if ( !cache.isObject() )
+        {
+            return null;
+        }
+
+        final ScriptValue scope = cache.getMember( "scope" );
+        final ScriptValue tags = cache.getMember( "tags" );
+        final ScriptValue maxAge = cache.getMember( "maxAge" );
+        return new ResultCacheOptions( scope == null || !scope.isValue() ? "" : scope.getValue( String.class ),
+                                       tags == null || !tags.isArray() ? List.of() : tags.getArray( String.class ),
+                                       maxAge == null || !maxAge.isValue() ? 0 : maxAge.getValue( Integer.class ) );
+    }
+
+    String getScope()
+    {
+        return scope;
+    }
+
+    List<String> getTags()
+    {
+        return tags;
+    }
+
+    /**
+     * @return the max age in seconds of root fields without a {@code cacheControl} hint
+     */
+    int getDefaultMaxAge()
+    {
+        return defaultMaxAge;
+    }
+}
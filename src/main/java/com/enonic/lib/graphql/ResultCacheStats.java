@@ -0,0 +1,65 @@
+package com.enonic.lib.graphql;
+
+import com.enonic.xp.script.serializer.MapGenerator;
+import com.enonic.xp.script.serializer.MapSerializable;
+
+public final class ResultCacheStats
+    implements MapSerializable
+{
+    private final int size;
+
+    private final long hits;
+
+    private final long misses;
+
+    private final long shared;
+
+    private final long evictions;
+
+    ResultCacheStats( final int size, final long hits, final long misses, final long shared, final long evictions )
+    {
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+        this.shared = shared;
+        this.evictions = evictions;
+    }
+
+    public int getSize()
+    {
+        return size;
+    }
+
+    public long getHits()
+    {
+        return hits;
+    }
+
+    public long getMisses()
+    {
+        return misses;
+    }
+
+    /**
+     * @return the number of executions that waited for a concurrent execution of the same query instead of running
+     */
+    public long getShared()
+    {
+        return shared;
+    }
+
+    public long getEvictions()
+    {
+        return evictions;
+    }
+
+    @Override
+    public void serialize( final MapGenerator gen )
+    {
+        gen.value( "size", size );
+        gen.value( "hits", hits );
+        gen.value( "misses", misses );
+        gen.value( "shared", shared );
+        gen.value( "evictions", evictions );
+    }
+}
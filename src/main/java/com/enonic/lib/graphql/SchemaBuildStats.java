@@ -0,0 +1,71 @@
+package com.enonic.lib.graphql;
+
+import com.enonic.xp.script.serializer.MapGenerator;
+import com.enonic.xp.script.serializer.MapSerializable;
+
+public final class SchemaBuildStats
+    implements MapSerializable
+{
+    private final int types;
+
+    private final int fields;
+
+    private final long readMicros;
+
+    private final long typeBuildMicros;
+
+    private final long schemaBuildMicros;
+
+    SchemaBuildStats( final int types, final int fields, final long readMicros, final long typeBuildMicros, final long schemaBuildMicros )
+    {
+        this.types = types;
+        this.fields = fields;
+        this.readMicros = readMicros;
+        this.typeBuildMicros = typeBuildMicros;
+        this.schemaBuildMicros = schemaBuildMicros;
+    }
+
+    public int getTypes()
+    {
+        return types;
+    }
+
+    public int getFields()
+    {
+        return fields;
+    }
+
+    /**
+     * @return time spent reading type and field definitions from the script
+     */
+    public long getReadMicros()
+    {
+        return readMicros;
+    }
+
+    /**
+     * @return time spent building types, excluding reading their definitions
+     */
+    public long getTypeBuildMicros()
+    {
+        return typeBuildMicros;
+    }
+
+    /**
+     * @return time spent in createSchema, resolving type references and validating the schema
+     */
+    public long getSchemaBuildMicros()
+    {
+        return schemaBuildMicros;
+    }
+
+    @Override
+    public void serialize( final MapGenerator gen )
+    {
+        gen.value( "types", types );
+        gen.value( "fields", fields );
+        gen.value( "readMicros", readMicros );
+        gen.value( "typeBuildMicros", typeBuildMicros );
+        gen.value( "schemaBuildMicros", schemaBuildMicros );
+    }
+}
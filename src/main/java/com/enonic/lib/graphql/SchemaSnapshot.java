@@ -0,0 +1,241 @@
+package com.enonic.lib.graphql;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import graphql.introspection.Introspection;
+import graphql.schema.FieldCoordinates;
+import graphql.schema.GraphQLEnumType;
+import graphql.schema.GraphQLEnumValueDefinition;
+import graphql.schema.GraphQLNamedType;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLScalarType;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.ScalarInfo;
+import graphql.schema.idl.SchemaPrinter;
+
+/**
+ * A built schema written to a cache directory: the type system as SDL in {@code <name>.graphqls}, and in
+ * {@code <name>.properties} the fingerprint it was built for, how each field with a data fetcher is bound and the
+ * internal values of enums. The properties are written last, so that an interrupted write never matches a fingerprint.
+ */
+final class SchemaSnapshot
+{
+    private static final Logger LOG = LoggerFactory.getLogger( SchemaSnapshot.class );
+
+    static final String FORMAT = "1";
+
+    private static final Pattern NAME_PATTERN = Pattern.compile( "[A-Za-z0-9_.-]+" );
+
+    private static final String FIELD_PREFIX = "field.";
+
+    private static final String ENUM_PREFIX = "enum.";
+
+    private static final SchemaPrinter SCHEMA_PRINTER = new SchemaPrinter( SchemaPrinter.Options.defaultOptions()
+                                                                               .includeSchemaDefinition( true )
+                                                                               .includeDirectives( true )
+                                                                               .includeScalarTypes( true ) );
+
+    private final String sdl;
+
+    private final Map<FieldCoordinates, FieldBinding> fieldBindings;
+
+    private final Map<String, String> enumValues;
+
+    SchemaSnapshot( final String sdl, final Map<FieldCoordinates, FieldBinding> fieldBindings, final Map<String, String> enumValues )
+    {
+        this.sdl = sdl;
+        this.fieldBindings = fieldBindings;
+        this.enumValues = enumValues;
+    }
+
+    String getSdl()
+    {
+        return sdl;
+    }
+
+    Map<FieldCoordinates, FieldBinding> getFieldBindings()
+    {
+        return fieldBindings;
+    }
+
+    /**
+     * @return the internal values of enum values that differ from their name, by {@code Type.VALUE}
+     */
+    Map<String, String> getEnumValues()
+    {
+        return enumValues;
+    }
+
+    /**
+     * @return a snapshot of the schema, or {@code null} if it uses scalars or enum values that SDL cannot carry
+     */
+    static SchemaSnapshot of( final GraphQLSchema schema, final Map<FieldCoordinates, FieldBinding> fieldBindings )
+    {
+        final Map<String, String> enumValues = new TreeMap<>();
+        for ( GraphQLNamedType type : schema.getAllTypesAsList() )
+        {
+            if ( type instanceof GraphQLScalarType && !ScalarInfo.isGraphqlSpecifiedScalar( type.getName() ) &&
+                !CustomScalars.SDL_SCALARS.containsKey( type.getName() ) )
+            {
+                return null;
+            }
+            if ( type instanceof GraphQLEnumType && !Introspection.isIntrospectionTypes( type ) )
+            {
+                for ( GraphQLEnumValueDefinition value : ( (GraphQLEnumType) type ).getValues() )
+                {
+                    if ( value.getName().equals( value.getValue() ) )
+                    {
+                        continue;
+                    }
+                    if ( !( value.getValue() instanceof String ) )
+                    {
+                        return null;
+                    }
+                    enumValues.put( type.getName() + "." + value.getName(), (String) value.getValue() );
+                }
+            }
+        }
+
+        // A generator may have built types that did not make it into this schema.
+        final Map<FieldCoordinates, FieldBinding> schemaFieldBindings = new LinkedHashMap<>();
+        fieldBindings.forEach( ( coordinates, binding ) -> {
+            final GraphQLObjectType type = schema.getObjectType( coordinates.getTypeName() );
+            if ( type != null && type.getFieldDefinition( coordinates.getFieldName() ) != null )
+            {
+                schemaFieldBindings.put( coordinates, binding );
+            }
+        } );
+        return new SchemaSnapshot( SCHEMA_PRINTER.print( schema ), schemaFieldBindings, enumValues );
+    }
+
+    /**
+     * @return {@code false} if the files cannot be written, the error is logged
+     */
+    boolean write( final Path directory, final String name, final String fingerprint )
+    {
+        final Properties properties = new Properties();
+        properties.setProperty( "format", FORMAT );
+        properties.setProperty( "fingerprint", fingerprint );
+        fieldBindings.forEach( ( coordinates, binding ) -> properties.setProperty(
+            FIELD_PREFIX + coordinates.getTypeName() + "." + coordinates.getFieldName(), binding.format() ) );
+        enumValues.forEach( ( key, value ) -> properties.setProperty( ENUM_PREFIX + key, value ) );
+
+        final Path sdlFile = directory.resolve( checkName( name ) + ".graphqls" );
+        final Path propertiesFile = directory.resolve( name + ".properties" );
+        Path sdlTemp = null;
+        Path propertiesTemp = null;
+        try
+        {
+            Files.createDirectories( directory );
+            Files.deleteIfExists( propertiesFile );
+
+            sdlTemp = Files.createTempFile( directory, name, ".tmp" );
+            Files.writeString( sdlTemp, sdl, StandardCharsets.UTF_8 );
+            Files.move( sdlTemp, sdlFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+
+            propertiesTemp = Files.createTempFile( directory, name, ".tmp" );
+            try (Writer writer = Files.newBufferedWriter( propertiesTemp, StandardCharsets.UTF_8 ))
+            {
+                properties.store( writer, null );
+            }
+            Files.move( propertiesTemp, propertiesFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+            return true;
+        }
+        catch ( IOException e )
+        {
+            // The schema is built on every start until the snapshot can be written, which is no reason to fail the start.
+            LOG.warn( "Could not write schema snapshot " + propertiesFile, e );
+            deleteQuietly( sdlTemp );
+            deleteQuietly( propertiesTemp );
+            return false;
+        }
+    }
+
+    /**
+     * @return the snapshot written for this fingerprint, or {@code null} if there is none or it cannot be read
+     */
+    static SchemaSnapshot read( final Path directory, final String name, final String fingerprint )
+    {
+        final Path propertiesFile = directory.resolve( checkName( name ) + ".properties" );
+        final Path sdlFile = directory.resolve( name + ".graphqls" );
+        if ( !Files.isRegularFile( propertiesFile ) )
+        {
+            return null;
+        }
+
+        try
+        {
+            final Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader( propertiesFile, StandardCharsets.UTF_8 ))
+            {
+                properties.load( reader );
+            }
+            if ( !FORMAT.equals( properties.getProperty( "format" ) ) || !fingerprint.equals( properties.getProperty( "fingerprint" ) ) )
+            {
+                return null;
+            }
+
+            final Map<FieldCoordinates, FieldBinding> fieldBindings = new LinkedHashMap<>();
+            final Map<String, String> enumValues = new TreeMap<>();
+            for ( String key : properties.stringPropertyNames() )
+            {
+                if ( key.startsWith( FIELD_PREFIX ) )
+                {
+                    final String coordinate = key.substring( FIELD_PREFIX.length() );
+                    final int separator = coordinate.indexOf( '.' );
+                    fieldBindings.put( FieldCoordinates.coordinates( coordinate.substring( 0, separator ), coordinate.substring( separator + 1 ) ),
+                                       FieldBinding.parse( properties.getProperty( key ) ) );
+                }
+                else if ( key.startsWith( ENUM_PREFIX ) )
+                {
+                    enumValues.put( key.substring( ENUM_PREFIX.length() ), properties.getProperty( key ) );
+                }
+            }
+            return new SchemaSnapshot( Files.readString( sdlFile, StandardCharsets.UTF_8 ), fieldBindings, enumValues );
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            // A snapshot that cannot be read is rebuilt and written again.
+            return null;
+        }
+    }
+
+    private static void deleteQuietly( final Path file )
+    {
+        if ( file == null )
+        {
+            return;
+        }
+        try
+        {
+            Files.deleteIfExists( file );
+        }
+        catch ( IOException e )
+        {
+            // Left for the next write to replace.
+        }
+    }
+
+    private static String checkName( final String name )
+    {
+        if ( !NAME_PATTERN.matcher( name ).matches() )
+        {
+            throw new IllegalArgumentException( "Invalid schema snapshot name: " + name );
+        }
+        return name;
+    }
+}
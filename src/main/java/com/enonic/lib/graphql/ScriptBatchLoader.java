@@ -0,0 +1,49 @@
+package com.enonic.lib.graphql;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
+
+import org.dataloader.BatchLoader;
+
+import com.enonic.xp.script.ScriptValue;
+
+final class ScriptBatchLoader
+    implements BatchLoader<Object, Object>
+{
+    private final String name;
+
+    private final ScriptValue batchFunction;
+
+    ScriptBatchLoader( final String name, final ScriptValue batchFunction )
+    {
+        this.name = name;
+        this.batchFunction = batchFunction;
+    }
+
+    @Override
+    public CompletionStage<List<Object>> load( final List<Object> keys )
+    {
+        try
+        {
+            final ScriptValue result = batchFunction.call( keys );
+            if ( result == null || !result.isArray() )
+            {
+                throw new IllegalStateException( "Batch function of data loader '" + name + "' must return an array" );
+            }
+
+            final List<Object> values = result.getArray().stream().map( GraphQlBean::toGraphQlValue ).collect( Collectors.toList() );
+            if ( values.size() != keys.size() )
+            {
+                throw new IllegalStateException(
+                    "Batch function of data loader '" + name + "' returned " + values.size() + " values for " + keys.size() + " keys" );
+            }
+            return CompletableFuture.completedFuture( values );
+        }
+        catch ( RuntimeException e )
+        {
+            return CompletableFuture.failedFuture( e );
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.enonic.lib.graphql;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.dataloader.DataLoader;
+
+public final class ScriptDataLoader
+{
+    private final DataLoader<Object, Object> dataLoader;
+
+    ScriptDataLoader( final DataLoader<Object, Object> dataLoader )
+    {
+        this.dataLoader = dataLoader;
+    }
+
+    public CompletableFuture<Object> load( final Object key )
+    {
+        return dataLoader.load( key );
+    }
+
+    public CompletableFuture<List<Object>> loadMany( final List<Object> keys )
+    {
+        return dataLoader.loadMany( keys );
+    }
+}
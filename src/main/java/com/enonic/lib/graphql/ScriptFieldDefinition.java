@@ -0,0 +1,91 @@
+package com.enonic.lib.graphql;
+
+import java.util.List;
+import java.util.Map;
+
+import com.enonic.xp.script.ScriptValue;
+
+/**
+ * The members of a script field definition, read across the script boundary once: the keys of the definition, then
+ * only the members that are present.
+ */
+final class ScriptFieldDefinition
+{
+    final String name;
+
+    Object type;
+
+    Map<String, Object> args;
+
+    ScriptValue resolve;
+
+    boolean resolveFunction;
+
+    boolean async;
+
+    Integer cost;
+
+    List<String> multipliers;
+
+    Integer maxAge;
+
+    String property;
+
+    private ScriptFieldDefinition( final String name )
+    {
+        this.name = name;
+    }
+
+    static ScriptFieldDefinition ofResolver( final String name, final ScriptValue resolve )
+    {
+        final ScriptFieldDefinition definition = new ScriptFieldDefinition( name );
+        definition.resolve = resolve;
+        definition.resolveFunction = true;
+        return definition;
+    }
+
+    static ScriptFieldDefinition read( final String name, final ScriptValue field )
+    {
+        final ScriptFieldDefinition definition = new ScriptFieldDefinition( name );
+        for ( String key : field.getKeys() )
+        {
+            final ScriptValue value = field.getMember( key );
+            if ( value == null )
+            {
+                continue;
+            }
+            switch ( key )
+            {
+                case "type":
+                    definition.type = value.getValue();
+                    break;
+                case "args":
+                    definition.args = value.getMap();
+                    break;
+                case "resolve":
+                    definition.resolve = value;
+                    definition.resolveFunction = value.isFunction();
+                    break;
+                case "async":
+                    definition.async = Boolean.TRUE.equals( value.getValue( Boolean.class ) );
+                    break;
+                case "cost":
+                    definition.cost = value.getValue( Integer.class );
+                    break;
+                case "multipliers":
+                    definition.multipliers = value.getArray( String.class );
+                    break;
+                case "cacheControl":
+                    final ScriptValue maxAge = value.getMember( "maxAge" );
+                    definition.maxAge = maxAge == null ? null : maxAge.getValue( Integer.class );
+                    break;
+                case "property":
+                    definition.property = value.getValue( String.class );
+                    break;
+                default:
+                    break;
+            }
+        }
+        return definition;
+    }
+}
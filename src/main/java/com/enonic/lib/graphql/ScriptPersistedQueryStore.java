@@ -0,0 +1,34 @@
+package com.enonic.lib.graphql;
+
+import com.enonic.xp.script.ScriptValue;
+
+final class ScriptPersistedQueryStore
+    implements PersistedQueryStore
+{
+    private final ScriptValue getFunction;
+
+    private final ScriptValue putFunction;
+
+    ScriptPersistedQueryStore( final ScriptValue store )
+    {
+        this.getFunction = store.getMember( "get" );
+        this.putFunction = store.getMember( "put" );
+        if ( getFunction == null || !getFunction.isFunction() || putFunction == null || !putFunction.isFunction() )
+        {
+            throw new IllegalArgumentException( "Persisted query store must have 'get' and 'put' functions" );
+        }
+    }
+
+    @Override
+    public String get( final String hash )
+    {
+        final ScriptValue query = getFunction.call( hash );
+        return query == null ? null : query.getValue( String.class );
+    }
+
+    @Override
+    public void put( final String hash, final String query )
+    {
+        putFunction.call( hash, query );
+    }
+}
@@ -0,0 +1,24 @@
+package com.enonic.lib.graphql;
+
+import com.enonic.xp.script.serializer.MapGenerator;
+import com.enonic.xp.script.serializer.MapSerializable;
+
+/**
+ * Serializes any value, including lists and scalars, as the {@code value} member of a script object.
+ */
+public final class ValueMapper
+    implements MapSerializable
+{
+    private final Object value;
+
+    public ValueMapper( final Object value )
+    {
+        this.value = value;
+    }
+
+    @Override
+    public void serialize( final MapGenerator gen )
+    {
+        MapMapper.serializeKeyValue( gen, "value", value );
+    }
+}
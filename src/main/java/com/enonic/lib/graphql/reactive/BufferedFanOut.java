@@ -0,0 +1,295 @@
+package com.enonic.lib.graphql.reactive;
+
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Delivers published items to each subscriber through a bounded buffer of its own, drained on an executor. The
+ * publishing thread only appends to the buffers, so a slow subscriber never holds up the publisher or the other
+ * subscribers; what happens when its buffer is full is decided by the {@link OverflowPolicy}.
+ */
+final class BufferedFanOut<T>
+{
+    // Items delivered by one drain task before it makes way for the subscriptions queued behind it.
+    private static final int DRAIN_BATCH = 64;
+
+    private final int bufferSize;
+
+    private final OverflowPolicy overflowPolicy;
+
+    private final Executor executor;
+
+    private final Set<BufferedSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder delivered = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile boolean done;
+
+    private volatile Throwable error;
+
+    BufferedFanOut( final int bufferSize, final OverflowPolicy overflowPolicy, final Executor executor )
+    {
+        if ( bufferSize < 1 )
+        {
+            throw new IllegalArgumentException( "bufferSize must be positive" );
+        }
+        this.bufferSize = bufferSize;
+        this.overflowPolicy = overflowPolicy;
+        this.executor = executor;
+    }
+
+    void subscribe( final Subscriber<? super T> subscriber )
+    {
+        final BufferedSubscription subscription = new BufferedSubscription( subscriber );
+        subscriptions.add( subscription );
+        subscriber.onSubscribe( subscription );
+        if ( done )
+        {
+            subscription.terminate( error );
+        }
+    }
+
+    void onNext( final T item )
+    {
+        for ( BufferedSubscription subscription : subscriptions )
+        {
+            subscription.offer( item );
+        }
+    }
+
+    void onError( final Throwable throwable )
+    {
+        this.error = throwable;
+        this.done = true;
+        subscriptions.forEach( subscription -> subscription.terminate( throwable ) );
+    }
+
+    void onComplete()
+    {
+        this.done = true;
+        subscriptions.forEach( subscription -> subscription.terminate( null ) );
+    }
+
+    PublishProcessorStats stats()
+    {
+        long buffered = 0;
+        int maxBuffered = 0;
+        for ( BufferedSubscription subscription : subscriptions )
+        {
+            final int size = subscription.size();
+            buffered += size;
+            maxBuffered = Math.max( maxBuffered, size );
+        }
+        return new PublishProcessorStats( subscriptions.size(), bufferSize, buffered, maxBuffered, delivered.sum(), dropped.sum() );
+    }
+
+    private final class BufferedSubscription
+        implements Subscription, Runnable
+    {
+        private final Subscriber<? super T> subscriber;
+
+        private final ArrayDeque<T> buffer = new ArrayDeque<>();
+
+        private final AtomicLong requested = new AtomicLong();
+
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private volatile boolean cancelled;
+
+        // Guarded by this, together with the buffer.
+        private boolean terminated;
+
+        private Throwable terminalError;
+
+        BufferedSubscription( final Subscriber<? super T> subscriber )
+        {
+            this.subscriber = subscriber;
+        }
+
+        void offer( final T item )
+        {
+            synchronized ( this )
+            {
+                if ( cancelled || terminated )
+                {
+                    return;
+                }
+                if ( buffer.size() < bufferSize )
+                {
+                    buffer.addLast( item );
+                }
+                else
+                {
+                    dropped.increment();
+                    switch ( overflowPolicy )
+                    {
+                        case DROP_OLDEST:
+                            buffer.pollFirst();
+                            buffer.addLast( item );
+                            break;
+                        case DROP_LATEST:
+                            break;
+                        case CONFLATE_LATEST:
+                            buffer.pollLast();
+                            buffer.addLast( item );
+                            break;
+                        default:
+                            dropped.add( buffer.size() );
+                            buffer.clear();
+                            subscriptions.remove( this );
+                            terminated = true;
+                            terminalError = new IllegalStateException( "Subscriber buffer overflow, " + bufferSize + " items" );
+                            break;
+                    }
+                }
+            }
+            schedule();
+        }
+
+        synchronized void terminate( final Throwable throwable )
+        {
+            if ( !terminated )
+            {
+                terminated = true;
+                terminalError = throwable;
+            }
+            schedule();
+        }
+
+        synchronized int size()
+        {
+            return buffer.size();
+        }
+
+        @Override
+        public void request( final long n )
+        {
+            if ( n <= 0 )
+            {
+                terminate( new IllegalArgumentException( "Non-positive request: " + n ) );
+                return;
+            }
+            requested.accumulateAndGet( n, ( current, added ) -> {
+                final long sum = current + added;
+                return sum < 0 ? Long.MAX_VALUE : sum;
+            } );
+            schedule();
+        }
+
+        @Override
+        public void cancel()
+        {
+            cancelled = true;
+            subscriptions.remove( this );
+            synchronized ( this )
+            {
+                buffer.clear();
+            }
+        }
+
+        private void schedule()
+        {
+            if ( wip.getAndIncrement() == 0 )
+            {
+                executor.execute( this );
+            }
+        }
+
+        @Override
+        public void run()
+        {
+            int missed = 1;
+            int emitted = 0;
+            while ( true )
+            {
+                long demand = requested.get();
+                while ( demand > 0 && emitted < DRAIN_BATCH )
+                {
+                    if ( cancelled )
+                    {
+                        return;
+                    }
+                    final T item;
+                    synchronized ( this )
+                    {
+                        item = buffer.pollFirst();
+                    }
+                    if ( item == null )
+                    {
+                        break;
+                    }
+                    try
+                    {
+                        subscriber.onNext( item );
+                    }
+                    catch ( Throwable t )
+                    {
+                        // Rule 2.13 of the Reactive Streams specification: a failing subscriber is considered cancelled.
+                        cancel();
+                        return;
+                    }
+                    delivered.increment();
+                    emitted++;
+                    if ( demand != Long.MAX_VALUE )
+                    {
+                        demand = requested.decrementAndGet();
+                    }
+                }
+
+                if ( cancelled )
+                {
+                    return;
+                }
+                if ( emitted >= DRAIN_BATCH )
+                {
+                    // Leave wip raised and requeue, so that no other drain of this subscription starts meanwhile.
+                    executor.execute( this );
+                    return;
+                }
+
+                final boolean terminal;
+                final Throwable throwable;
+                synchronized ( this )
+                {
+                    // An error is signalled at once, completion only once the buffered items are delivered.
+                    terminal = terminated && ( terminalError != null || buffer.isEmpty() );
+                    throwable = terminalError;
+                    if ( terminal )
+                    {
+                        buffer.clear();
+                    }
+                }
+                if ( terminal )
+                {
+                    cancelled = true;
+                    subscriptions.remove( this );
+                    if ( throwable != null )
+                    {
+                        subscriber.onError( throwable );
+                    }
+                    else
+                    {
+                        subscriber.onComplete();
+                    }
+                    return;
+                }
+
+                missed = wip.addAndGet( -missed );
+                if ( missed == 0 )
+                {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.enonic.lib.graphql.reactive;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A {@link PublishProcessor} whose events reach the subscribers on every node of a cluster. An event published on
+ * this node is delivered to the local subscribers and forwarded through an {@link EventBridge}, in batches of up to
+ * {@code batchSize} events sent at the latest {@code linger} milliseconds after their first event. A full batch is sent
+ * on the publishing thread, the rest by a task of the scheduler, which must run it with the XP context of the
+ * publishing thread, as the scheduler of {@link RxBean} does.
+ * <p>
+ * Events are deduplicated by id across the cluster: an event whose id was published or received recently is dropped,
+ * so an application event that every node publishes reaches each subscriber once. Without an id function every
+ * event gets a unique id. Events received from other nodes are plain maps, lists and scalars, see
+ * {@link EventBatchCodec}. Completion and errors are not forwarded, each node ends its own processor.
+ */
+public final class ClusterPublishProcessor<T>
+    extends PublishProcessor<T>
+{
+    static final int DEFAULT_BATCH_SIZE = 64;
+
+    static final long DEFAULT_LINGER = 10;
+
+    // Ids remembered for deduplication, enough for the events in flight between nodes.
+    private static final int RECENT_IDS = 4096;
+
+    private final EventBridge bridge;
+
+    private final String channel;
+
+    private final Function<? super T, String> idFunction;
+
+    private final Scheduler scheduler;
+
+    private final int batchSize;
+
+    private final long linger;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Map<String, Boolean> recentIds = new LinkedHashMap<>( 16, 0.75f, false )
+    {
+        @Override
+        protected boolean removeEldestEntry( final Map.Entry<String, Boolean> eldest )
+        {
+            return size() > RECENT_IDS;
+        }
+    };
+
+    private final EventBridge.Registration registration;
+
+    private final LongAdder duplicates = new LongAdder();
+
+    private final LongAdder rejectedBatches = new LongAdder();
+
+    // Guarded by this.
+    private List<EventBatchCodec.Event> pending = new ArrayList<>();
+
+    private Scheduler.Task flushTask;
+
+    /**
+     * @param scheduler the scheduler of the linger delay, and of the time based operators given a duration in milliseconds
+     */
+    public ClusterPublishProcessor( final EventBridge bridge, final String channel, final Function<? super T, String> idFunction,
+                                    final Scheduler scheduler )
+    {
+        this( bridge, channel, idFunction, null, scheduler, DEFAULT_BATCH_SIZE, DEFAULT_LINGER );
+    }
+
+    /**
+     * Creates a processor that delivers to each subscriber through a buffer, as
+     * {@link PublishProcessor#PublishProcessor(int, OverflowPolicy, Executor, Scheduler)} does.
+     */
+    public ClusterPublishProcessor( final EventBridge bridge, final String channel, final Function<? super T, String> idFunction,
+                                    final int bufferSize, final OverflowPolicy overflowPolicy, final Executor executor,
+                                    final Scheduler scheduler )
+    {
+        this( bridge, channel, idFunction, new BufferedFanOut<>( bufferSize, overflowPolicy, executor ), scheduler, DEFAULT_BATCH_SIZE,
+              DEFAULT_LINGER );
+    }
+
+    ClusterPublishProcessor( final EventBridge bridge, final String channel, final Function<? super T, String> idFunction,
+                             final BufferedFanOut<T> bufferedFanOut, final Scheduler scheduler, final int batchSize, final long linger )
+    {
+        super( bufferedFanOut, scheduler );
+        if ( batchSize < 1 )
+        {
+            throw new IllegalArgumentException( "batchSize must be positive" );
+        }
+        this.bridge = bridge;
+        this.channel = channel;
+        this.idFunction = idFunction;
+        this.scheduler = scheduler;
+        this.batchSize = batchSize;
+        this.linger = linger;
+        this.registration = bridge.subscribe( channel, this::receive );
+    }
+
+    @Override
+    public void onNext( final T item )
+    {
+        final String itemId = idFunction == null ? null : idFunction.apply( item );
+        final String id = itemId == null ? nodeId + ":" + sequence.incrementAndGet() : itemId;
+        if ( !remember( id ) )
+        {
+            duplicates.increment();
+            return;
+        }
+        super.onNext( item );
+        enqueue( new EventBatchCodec.Event( id, item ) );
+    }
+
+    @Override
+    public void onError( final Throwable throwable )
+    {
+        close();
+        super.onError( throwable );
+    }
+
+    @Override
+    public void onComplete()
+    {
+        close();
+        super.onComplete();
+    }
+
+    /**
+     * @return the number of events dropped as already published or received
+     */
+    public long getDuplicateCount()
+    {
+        return duplicates.sum();
+    }
+
+    /**
+     * @return the number of received batches that could not be decoded
+     */
+    public long getRejectedBatchCount()
+    {
+        return rejectedBatches.sum();
+    }
+
+    /**
+     * Sends the pending events now.
+     */
+    public void flush()
+    {
+        final List<EventBatchCodec.Event> batch;
+        synchronized ( this )
+        {
+            if ( pending.isEmpty() )
+            {
+                return;
+            }
+            batch = takePending();
+        }
+        send( batch );
+    }
+
+    private void enqueue( final EventBatchCodec.Event event )
+    {
+        List<EventBatchCodec.Event> batch = null;
+        synchronized ( this )
+        {
+            pending.add( event );
+            if ( pending.size() >= batchSize || linger <= 0 )
+            {
+                batch = takePending();
+            }
+            else if ( flushTask == null )
+            {
+                // The bridge may call a script, so the timer hands the flush to the app with this context, see SystemScheduler.
+                flushTask = scheduler.schedule( this::flush, linger, TimeUnit.MILLISECONDS );
+            }
+        }
+        if ( batch != null )
+        {
+            send( batch );
+        }
+    }
+
+    private List<EventBatchCodec.Event> takePending()
+    {
+        final List<EventBatchCodec.Event> batch = pending;
+        pending = new ArrayList<>();
+        if ( flushTask != null )
+        {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        return batch;
+    }
+
+    private void send( final List<EventBatchCodec.Event> batch )
+    {
+        bridge.send( channel, EventBatchCodec.encode( batch ) );
+    }
+
+    @SuppressWarnings("unchecked")
+    private void receive( final byte[] batch )
+    {
+        final List<EventBatchCodec.Event> events;
+        try
+        {
+            events = EventBatchCodec.decode( batch );
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            rejectedBatches.increment();
+            return;
+        }
+        for ( EventBatchCodec.Event event : events )
+        {
+            if ( remember( event.id() ) )
+            {
+                super.onNext( (T) event.value() );
+            }
+            else
+            {
+                duplicates.increment();
+            }
+        }
+    }
+
+    private boolean remember( final String id )
+    {
+        synchronized ( recentIds )
+        {
+            return recentIds.put( id, Boolean.TRUE ) == null;
+        }
+    }
+
+    private void close()
+    {
+        flush();
+        registration.cancel();
+    }
+}
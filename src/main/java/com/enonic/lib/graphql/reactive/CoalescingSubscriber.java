@@ -0,0 +1,294 @@
+package com.enonic.lib.graphql.reactive;
+
+import java.util.ArrayDeque;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Base of the time based operators. Upstream items are folded into values by the operator, from the upstream thread
+ * and from timer tasks, and the values are queued until the downstream subscriber requests them. Upstream items are
+ * requested a batch at a time, and only while the queue holds fewer values than the downstream subscriber requested,
+ * so an operator that does not replace its queued values holds no more than it was asked for. State changes are
+ * serialized by the monitor of this subscriber, and the downstream subscriber is called without holding it.
+ */
+abstract class CoalescingSubscriber<T, R>
+    implements Subscriber<T>, Subscription
+{
+    private final Subscriber<? super R> downstream;
+
+    private final int upstreamBatch;
+
+    private final boolean conflating;
+
+    private final ArrayDeque<R> ready = new ArrayDeque<>();
+
+    private Subscription upstream;
+
+    private long requested;
+
+    private long upstreamPending;
+
+    private boolean done;
+
+    private Throwable terminalError;
+
+    private boolean terminated;
+
+    private boolean draining;
+
+    private volatile boolean cancelled;
+
+    /**
+     * @param upstreamBatch the number of upstream items requested at a time
+     * @param conflating whether each value replaces those queued, so that upstream is requested regardless of demand
+     */
+    CoalescingSubscriber( final Subscriber<? super R> downstream, final int upstreamBatch, final boolean conflating )
+    {
+        this.downstream = downstream;
+        this.upstreamBatch = upstreamBatch;
+        this.conflating = conflating;
+    }
+
+    @Override
+    public final void onSubscribe( final Subscription subscription )
+    {
+        synchronized ( this )
+        {
+            this.upstream = subscription;
+        }
+        downstream.onSubscribe( this );
+        drain();
+    }
+
+    @Override
+    public final void onNext( final T item )
+    {
+        synchronized ( this )
+        {
+            upstreamPending--;
+            if ( cancelled || done )
+            {
+                return;
+            }
+            onItem( item );
+        }
+        drain();
+    }
+
+    @Override
+    public final void onError( final Throwable throwable )
+    {
+        synchronized ( this )
+        {
+            if ( done )
+            {
+                return;
+            }
+            done = true;
+            terminalError = throwable;
+            onTerminate();
+        }
+        drain();
+    }
+
+    @Override
+    public final void onComplete()
+    {
+        synchronized ( this )
+        {
+            if ( done )
+            {
+                return;
+            }
+            onFlush();
+            done = true;
+            onTerminate();
+        }
+        drain();
+    }
+
+    @Override
+    public final void request( final long n )
+    {
+        if ( n <= 0 )
+        {
+            upstream.cancel();
+            onError( new IllegalArgumentException( "Non-positive request: " + n ) );
+            return;
+        }
+        synchronized ( this )
+        {
+            requested = requested + n < 0 ? Long.MAX_VALUE : requested + n;
+        }
+        drain();
+    }
+
+    @Override
+    public final void cancel()
+    {
+        cancelled = true;
+        upstream.cancel();
+        synchronized ( this )
+        {
+            ready.clear();
+            onTerminate();
+        }
+    }
+
+    /**
+     * Called with each upstream item, holding the monitor.
+     */
+    abstract void onItem( T item );
+
+    /**
+     * Called on completion, holding the monitor, to emit what the operator still holds.
+     */
+    abstract void onFlush();
+
+    /**
+     * Called once the operator stops, holding the monitor, to cancel its timer.
+     */
+    abstract void onTerminate();
+
+    /**
+     * Runs a timer task of the operator holding the monitor, then passes on what it emitted.
+     */
+    final void onTimer( final Runnable action )
+    {
+        synchronized ( this )
+        {
+            if ( isStopped() )
+            {
+                return;
+            }
+            action.run();
+        }
+        drain();
+    }
+
+    private boolean isStopped()
+    {
+        return cancelled || done;
+    }
+
+    /**
+     * Queues a value for the downstream subscriber. Must be called holding the monitor.
+     */
+    final void emit( final R value )
+    {
+        ready.addLast( value );
+    }
+
+    /**
+     * Queues a value replacing those the downstream subscriber has not requested yet. Must be called holding the monitor.
+     */
+    final void emitLatest( final R value )
+    {
+        ready.clear();
+        ready.addLast( value );
+    }
+
+    private void drain()
+    {
+        synchronized ( this )
+        {
+            // The thread already draining picks up what this call was made for.
+            if ( draining )
+            {
+                return;
+            }
+            draining = true;
+        }
+        try
+        {
+            drainLoop();
+        }
+        catch ( RuntimeException e )
+        {
+            // A subscriber that throws is cancelled.
+            synchronized ( this )
+            {
+                draining = false;
+            }
+            cancel();
+        }
+    }
+
+    private void drainLoop()
+    {
+        while ( true )
+        {
+            R value = null;
+            Throwable error = null;
+            boolean complete = false;
+            long demand = 0;
+            synchronized ( this )
+            {
+                if ( cancelled )
+                {
+                    draining = false;
+                    return;
+                }
+                if ( terminalError != null && !terminated )
+                {
+                    terminated = true;
+                    ready.clear();
+                    error = terminalError;
+                }
+                else if ( requested > 0 && !ready.isEmpty() )
+                {
+                    value = ready.pollFirst();
+                    if ( requested != Long.MAX_VALUE )
+                    {
+                        requested--;
+                    }
+                }
+                else if ( done && ready.isEmpty() && !terminated )
+                {
+                    terminated = true;
+                    complete = true;
+                }
+                else
+                {
+                    draining = false;
+                    demand = upstreamDemand();
+                }
+            }
+            if ( error != null )
+            {
+                downstream.onError( error );
+            }
+            else if ( value != null )
+            {
+                downstream.onNext( value );
+            }
+            else if ( complete )
+            {
+                downstream.onComplete();
+            }
+            else
+            {
+                if ( demand > 0 )
+                {
+                    upstream.request( demand );
+                }
+                return;
+            }
+        }
+    }
+
+    private long upstreamDemand()
+    {
+        if ( isStopped() || upstream == null || upstreamPending > 0 )
+        {
+            return 0;
+        }
+        if ( !conflating && ready.size() >= Math.max( requested, 1 ) )
+        {
+            return 0;
+        }
+        upstreamPending = upstreamBatch;
+        return upstreamBatch;
+    }
+}
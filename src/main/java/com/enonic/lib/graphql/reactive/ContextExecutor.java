@@ -0,0 +1,62 @@
+package com.enonic.lib.graphql.reactive;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.enonic.xp.context.Context;
+import com.enonic.xp.context.ContextAccessor;
+
+/**
+ * Runs tasks on a bounded pool of threads of its own, each with the XP context of the thread that submitted it.
+ * Tasks run in parallel; a subscription that calls a script submits one drain task at a time, see
+ * {@link BufferedFanOut}, so each subscriber is still called by one thread at a time.
+ */
+final class ContextExecutor
+    implements Executor
+{
+    // The threads are started again by the next tasks, so an idle app holds no thread.
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private final ThreadPoolExecutor pool;
+
+    /**
+     * Creates an executor with up to {@code threads} threads, stopped by {@link #shutdown()}.
+     */
+    ContextExecutor( final String threadName, final int threads )
+    {
+        final AtomicInteger threadCount = new AtomicInteger();
+        this.pool =
+            new ThreadPoolExecutor( threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                final Thread thread = new Thread( runnable, threadName + "-" + threadCount.incrementAndGet() );
+                thread.setDaemon( true );
+                return thread;
+            } );
+        pool.allowCoreThreadTimeOut( true );
+    }
+
+    @Override
+    public void execute( final Runnable command )
+    {
+        final Context context = ContextAccessor.current();
+        try
+        {
+            pool.execute( () -> context.runWith( command ) );
+        }
+        catch ( RejectedExecutionException e )
+        {
+            // Shut down with the app, the task is dropped.
+        }
+    }
+
+    /**
+     * Stops the threads once their running tasks complete. Tasks submitted afterwards are dropped.
+     */
+    void shutdown()
+    {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,34 @@
+package com.enonic.lib.graphql.reactive;
+
+/**
+ * How a subscriber in diff mode encodes a result against the previous one.
+ */
+public enum DiffMode
+{
+    /**
+     * A list of JSON Patch (RFC 6902) operations, in {@code patch}.
+     */
+    JSON_PATCH,
+
+    /**
+     * A JSON Merge Patch (RFC 7396), in {@code mergePatch}.
+     */
+    MERGE_PATCH;
+
+    public static DiffMode from( final String name )
+    {
+        if ( name == null )
+        {
+            return null;
+        }
+        switch ( name )
+        {
+            case "jsonPatch":
+                return JSON_PATCH;
+            case "mergePatch":
+                return MERGE_PATCH;
+            default:
+                throw new IllegalArgumentException( "Unknown diff mode: " + name );
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.enonic.lib.graphql.reactive;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encodes a batch of events for an {@link EventBridge}. Event values are written as maps, lists, strings, numbers,
+ * booleans and nulls, and read back as {@link LinkedHashMap}, {@link ArrayList} and the boxed scalar types; other
+ * values are written as their string. Batches larger than {@link #COMPRESSION_THRESHOLD} bytes are gzipped.
+ */
+final class EventBatchCodec
+{
+    static final int COMPRESSION_THRESHOLD = 512;
+
+    private static final int FORMAT = 1;
+
+    private static final int COMPRESSED = 0x80;
+
+    private static final int NULL = 0, FALSE = 1, TRUE = 2, LONG = 3, DOUBLE = 4, STRING = 5, LIST = 6, MAP = 7;
+
+    // Script arrays reach Java as maps from index to element, marked by an isArray() method.
+    private static final ClassValue<Method> IS_ARRAY = new ClassValue<>()
+    {
+        @Override
+        protected Method computeValue( final Class<?> type )
+        {
+            try
+            {
+                final Method method = type.getMethod( "isArray" );
+                return method.getReturnType() == boolean.class ? method : null;
+            }
+            catch ( NoSuchMethodException | RuntimeException e )
+            {
+                return null;
+            }
+        }
+    };
+
+    record Event(String id, Object value)
+    {
+    }
+
+    private EventBatchCodec()
+    {
+    }
+
+    static byte[] encode( final List<Event> events )
+    {
+        try
+        {
+            final ByteArrayOutputStream body = new ByteArrayOutputStream( 256 );
+            final DataOutputStream out = new DataOutputStream( body );
+            out.writeInt( events.size() );
+            for ( Event event : events )
+            {
+                writeString( out, event.id() );
+                writeValue( out, event.value() );
+            }
+            out.flush();
+
+            final ByteArrayOutputStream batch = new ByteArrayOutputStream( body.size() + 1 );
+            if ( body.size() > COMPRESSION_THRESHOLD )
+            {
+                batch.write( FORMAT | COMPRESSED );
+                try (GZIPOutputStream gzip = new GZIPOutputStream( batch ))
+                {
+                    body.writeTo( gzip );
+                }
+            }
+            else
+            {
+                batch.write( FORMAT );
+                body.writeTo( batch );
+            }
+            return batch.toByteArray();
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    static List<Event> decode( final byte[] batch )
+        throws IOException
+    {
+        final int header = batch.length == 0 ? 0 : batch[0] & 0xFF;
+        if ( ( header & ~COMPRESSED ) != FORMAT )
+        {
+            throw new IOException( "Unknown event batch format" );
+        }
+        final InputStream body = new ByteArrayInputStream( batch, 1, batch.length - 1 );
+        try (DataInputStream in = new DataInputStream( ( header & COMPRESSED ) != 0 ? new GZIPInputStream( body ) : body ))
+        {
+            final int count = in.readInt();
+            final List<Event> events = new ArrayList<>( Math.min( count, 1024 ) );
+            for ( int i = 0; i < count; i++ )
+            {
+                events.add( new Event( readString( in ), readValue( in ) ) );
+            }
+            return events;
+        }
+    }
+
+    private static void writeValue( final DataOutputStream out, final Object value )
+        throws IOException
+    {
+        if ( value == null )
+        {
+            out.writeByte( NULL );
+        }
+        else if ( value instanceof Boolean )
+        {
+            out.writeByte( (Boolean) value ? TRUE : FALSE );
+        }
+        else if ( value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte )
+        {
+            out.writeByte( LONG );
+            out.writeLong( ( (Number) value ).longValue() );
+        }
+        else if ( value instanceof Number )
+        {
+            out.writeByte( DOUBLE );
+            out.writeDouble( ( (Number) value ).doubleValue() );
+        }
+        else if ( value instanceof Map && isScriptArray( value ) )
+        {
+            writeList( out, ( (Map<?, ?>) value ).values() );
+        }
+        else if ( value instanceof Map )
+        {
+            final Map<?, ?> map = (Map<?, ?>) value;
+            out.writeByte( MAP );
+            out.writeInt( map.size() );
+            for ( Map.Entry<?, ?> entry : map.entrySet() )
+            {
+                writeString( out, String.valueOf( entry.getKey() ) );
+                writeValue( out, entry.getValue() );
+            }
+        }
+        else if ( value instanceof Iterable )
+        {
+            final List<Object> list = new ArrayList<>();
+            ( (Iterable<?>) value ).forEach( list::add );
+            writeList( out, list );
+        }
+        else if ( value instanceof Object[] )
+        {
+            writeList( out, Arrays.asList( (Object[]) value ) );
+        }
+        else
+        {
+            out.writeByte( STRING );
+            writeString( out, value.toString() );
+        }
+    }
+
+    private static void writeList( final DataOutputStream out, final Collection<?> values )
+        throws IOException
+    {
+        out.writeByte( LIST );
+        out.writeInt( values.size() );
+        for ( Object element : values )
+        {
+            writeValue( out, element );
+        }
+    }
+
+    private static Object readValue( final DataInputStream in )
+        throws IOException
+    {
+        final int type = in.readByte();
+        switch ( type )
+        {
+            case NULL:
+                return null;
+            case FALSE:
+                return false;
+            case TRUE:
+                return true;
+            case LONG:
+                return readLong( in );
+            case DOUBLE:
+                return in.readDouble();
+            case STRING:
+                return readString( in );
+            case LIST:
+                final int size = in.readInt();
+                final List<Object> list = new ArrayList<>( Math.min( size, 1024 ) );
+                for ( int i = 0; i < size; i++ )
+                {
+                    list.add( readValue( in ) );
+                }
+                return list;
+            case MAP:
+                final int entries = in.readInt();
+                final Map<String, Object> map = new LinkedHashMap<>();
+                for ( int i = 0; i < entries; i++ )
+                {
+                    map.put( readString( in ), readValue( in ) );
+                }
+                return map;
+            default:
+                throw new IOException( "Unknown value type " + type );
+        }
+    }
+
+    private static Object readLong( final DataInputStream in )
+        throws IOException
+    {
+        // Integers come back as Integer, as most script engines pass them.
+        final long value = in.readLong();
+        if ( value == (int) value )
+        {
+            return (int) value;
+        }
+        return value;
+    }
+
+    private static void writeString( final DataOutputStream out, final String value )
+        throws IOException
+    {
+        final byte[] bytes = value.getBytes( StandardCharsets.UTF_8 );
+        out.writeInt( bytes.length );
+        out.write( bytes );
+    }
+
+    private static String readString( final DataInputStream in )
+        throws IOException
+    {
+        final int length = in.readInt();
+        if ( length < 0 )
+        {
+            throw new IOException( "Negative string length" );
+        }
+        final byte[] bytes = in.readNBytes( length );
+        if ( bytes.length < length )
+        {
+            throw new EOFException();
+        }
+        return new String( bytes, StandardCharsets.UTF_8 );
+    }
+
+    private static boolean isScriptArray( final Object value )
+    {
+        final Method isArray = IS_ARRAY.get( value.getClass() );
+        try
+        {
+            return isArray != null && (Boolean) isArray.invoke( value );
+        }
+        catch ( ReflectiveOperationException | RuntimeException e )
+        {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.enonic.lib.graphql.reactive;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries batches of published events between the nodes of a cluster, for a {@link ClusterPublishProcessor}. A batch
+ * sent on a channel is delivered to the receivers of that channel on the other nodes, on any thread, in any order and
+ * possibly more than once; receivers deduplicate by event id. Delivery back to the sending node is allowed.
+ */
+public interface EventBridge
+{
+    void send( String channel, byte[] batch );
+
+    Registration subscribe( String channel, Consumer<byte[]> receiver );
+
+    interface Registration
+    {
+        void cancel();
+    }
+}
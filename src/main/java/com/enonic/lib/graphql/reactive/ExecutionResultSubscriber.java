@@ -1,59 +1,206 @@
 package com.enonic.lib.graphql.reactive;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import org.reactivestreams.Subscription;
 
 import graphql.ExecutionResult;
 
 import com.enonic.lib.graphql.ExecutionResultMapper;
 import com.enonic.xp.script.ScriptValue;
+import com.enonic.xp.script.serializer.MapSerializable;
 
+/**
+ * Passes subscription results, or the subsequent payloads of an incremental execution, to script callbacks. Results
+ * are requested {@code prefetch} at a time, and half of them again once half are consumed, so that the next results
+ * are prepared while the script handles the current one. A subscriber cancelled by the script gets no further
+ * callbacks, one ended by its {@link SubscriberRegistry} gets {@code onComplete} or {@code onError}.
+ */
 public class ExecutionResultSubscriber
-    implements org.reactivestreams.Subscriber<ExecutionResult>
+    implements org.reactivestreams.Subscriber<Object>
 {
     private final ScriptValue onNext;
 
+    private final ScriptValue onError;
+
+    private final ScriptValue onComplete;
+
+    private final ResultDiffer resultDiffer;
+
+    private final int prefetch;
+
+    private final int limit;
+
+    private final String key;
+
+    private final SubscriberRegistry registry;
+
+    private final AtomicBoolean terminated = new AtomicBoolean();
+
     private volatile Subscription subscription;
 
+    // Set on subscription and by touch(), not by results: a dead session may still receive them.
+    private volatile long lastActive;
+
+    // Only changed in onNext, which is never called concurrently.
+    private int consumed;
+
     public ExecutionResultSubscriber( ScriptValue onNext )
     {
-        this.onNext = onNext;
+        this( SubscriberOptions.of( onNext ), null );
+    }
+
+    ExecutionResultSubscriber( final SubscriberOptions options, final SubscriberRegistry registry )
+    {
+        this.onNext = options.getOnNext();
+        this.onError = options.getOnError();
+        this.onComplete = options.getOnComplete();
+        this.resultDiffer = options.getDiffMode() == null ? null : new ResultDiffer( options.getDiffMode(), options.getSnapshotInterval() );
+        this.prefetch = options.getPrefetch();
+        this.limit = Math.max( 1, prefetch / 2 );
+        this.key = options.getKey();
+        this.registry = registry;
     }
 
     @Override
     public void onSubscribe( final Subscription subscription )
     {
+        // Rule 2.5 of the Reactive Streams specification: a second subscription is cancelled, and so is any
+        // subscription of a subscriber cancelled before subscribing.
+        if ( this.subscription != null || terminated.get() )
+        {
+            subscription.cancel();
+            return;
+        }
         this.subscription = subscription;
-        subscription.request( 1 );
+        if ( registry != null )
+        {
+            this.lastActive = registry.now();
+            registry.add( this );
+        }
+        subscription.request( prefetch );
     }
 
     @Override
-    public void onNext( final ExecutionResult executionResult )
+    public void onNext( final Object item )
     {
         final Subscription subscription = this.subscription;
-        if ( subscription != null )
+        if ( subscription != null && !terminated.get() )
         {
             if ( onNext != null )
             {
-                final ExecutionResultMapper executionResultMapper = new ExecutionResultMapper( executionResult );
-                onNext.call( executionResultMapper );
+                final MapSerializable payload = item instanceof MapSerializable ? (MapSerializable) item : encode( (ExecutionResult) item );
+                if ( payload != null )
+                {
+                    onNext.call( payload );
+                }
+            }
+            if ( ++consumed == limit )
+            {
+                consumed = 0;
+                subscription.request( limit );
             }
-            subscription.request( 1 );
         }
     }
 
     @Override
     public void onError( final Throwable t )
     {
-
+        if ( terminate() && onError != null )
+        {
+            onError.call( t.getMessage() == null ? t.toString() : t.getMessage() );
+        }
     }
 
     @Override
     public void onComplete()
     {
+        if ( terminate() && onComplete != null )
+        {
+            onComplete.call();
+        }
+    }
 
+    /**
+     * Sends the next result in full, for instance to a client that lost track of the patches.
+     */
+    public void requestSnapshot()
+    {
+        if ( resultDiffer != null )
+        {
+            resultDiffer.requestSnapshot();
+        }
     }
 
     public void cancelSubscription()
+    {
+        cancel();
+    }
+
+    /**
+     * Marks the subscriber active, when its client shows it is still there, so that its registry does not evict it.
+     */
+    public void touch()
+    {
+        if ( registry != null )
+        {
+            this.lastActive = registry.now();
+        }
+    }
+
+    private MapSerializable encode( final ExecutionResult executionResult )
+    {
+        return resultDiffer == null ? new ExecutionResultMapper( executionResult ) : resultDiffer.encode( executionResult );
+    }
+
+    String getKey()
+    {
+        return key;
+    }
+
+    long getLastActive()
+    {
+        return lastActive;
+    }
+
+    /**
+     * @return {@code false} if the subscription had already ended
+     */
+    boolean cancel()
+    {
+        if ( !terminate() )
+        {
+            return false;
+        }
+        cancelUpstream();
+        return true;
+    }
+
+    /**
+     * Cancels the subscription and tells the script, with {@code onError} if there is an error message, else with
+     * {@code onComplete}.
+     *
+     * @return {@code false} if the subscription had already ended
+     */
+    boolean end( final String error )
+    {
+        if ( !terminate() )
+        {
+            return false;
+        }
+        cancelUpstream();
+        if ( error != null && onError != null )
+        {
+            onError.call( error );
+        }
+        else if ( error == null && onComplete != null )
+        {
+            onComplete.call();
+        }
+        return true;
+    }
+
+    private void cancelUpstream()
     {
         final Subscription subscription = this.subscription;
         if ( subscription != null )
@@ -61,4 +208,17 @@ public class ExecutionResultSubscriber
             subscription.cancel();
         }
     }
+
+    private boolean terminate()
+    {
+        if ( !terminated.compareAndSet( false, true ) )
+        {
+            return false;
+        }
+        if ( registry != null )
+        {
+            registry.remove( this );
+        }
+        return true;
+    }
 }
@@ -1,5 +1,9 @@
 package com.enonic.lib.graphql.reactive;
 
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 import org.reactivestreams.Publisher;
@@ -11,9 +15,21 @@ public class Flowable<T>
 {
     private final Publisher<T> source;
 
+    private final Scheduler scheduler;
+
     public Flowable( final Publisher<T> source )
+    {
+        this( source, null );
+    }
+
+    /**
+     * @param scheduler the scheduler of the time based operators given a duration in milliseconds, passed on to the
+     * publishers returned by the operators, or {@code null} if those are not used
+     */
+    public Flowable( final Publisher<T> source, final Scheduler scheduler )
     {
         this.source = source;
+        this.scheduler = scheduler;
     }
 
     @Override
@@ -24,7 +40,99 @@ public class Flowable<T>
 
     public final Flowable<T> filter( final Predicate<? super T> predicate )
     {
-        return new Flowable<>( subscriber -> source.subscribe( new FilteringSubscriber<>( subscriber, predicate ) ) );
+        return new Flowable<>( subscriber -> source.subscribe( new FilteringSubscriber<>( subscriber, predicate ) ), scheduler );
+    }
+
+    public final <R> Flowable<R> map( final Function<? super T, ? extends R> mapper )
+    {
+        return new Flowable<>( subscriber -> source.subscribe( new MappingSubscriber<>( subscriber, mapper ) ), scheduler );
+    }
+
+    public final Flowable<T> distinctUntilChanged()
+    {
+        return distinctUntilChanged( Function.identity() );
+    }
+
+    /**
+     * Drops the items whose key equals the key of the previous item.
+     */
+    public final Flowable<T> distinctUntilChanged( final Function<? super T, ?> keySelector )
+    {
+        return new Flowable<>( subscriber -> source.subscribe( new FilteringSubscriber<>( subscriber, new Predicate<T>()
+        {
+            private boolean first = true;
+
+            private Object previousKey;
+
+            @Override
+            public boolean test( final T item )
+            {
+                final Object key = keySelector.apply( item );
+                final boolean changed = first || !Objects.equals( key, previousKey );
+                first = false;
+                previousKey = key;
+                return changed;
+            }
+        } ) ), scheduler );
+    }
+
+    /**
+     * Collects items into lists of at most {@code count} items, emitting a list when it is full or
+     * {@code timespanMillis} after its first item.
+     */
+    public final Flowable<List<T>> buffer( final int count, final long timespanMillis )
+    {
+        return buffer( count, timespanMillis, TimeUnit.MILLISECONDS, requireScheduler() );
+    }
+
+    public final Flowable<List<T>> buffer( final int count, final long timespan, final TimeUnit unit, final Scheduler scheduler )
+    {
+        if ( count < 1 )
+        {
+            throw new IllegalArgumentException( "count must be positive" );
+        }
+        return new Flowable<>(
+            subscriber -> source.subscribe( new TimedOperators.BufferSubscriber<>( subscriber, count, timespan, unit, scheduler ) ),
+            this.scheduler );
+    }
+
+    /**
+     * Emits the latest item at the end of each period of {@code periodMillis} in which items arrived.
+     */
+    public final Flowable<T> sample( final long periodMillis )
+    {
+        return sample( periodMillis, TimeUnit.MILLISECONDS, requireScheduler() );
+    }
+
+    public final Flowable<T> sample( final long period, final TimeUnit unit, final Scheduler scheduler )
+    {
+        return new Flowable<>(
+            subscriber -> source.subscribe( new TimedOperators.LatestSubscriber<>( subscriber, period, unit, scheduler, false ) ),
+            this.scheduler );
+    }
+
+    /**
+     * Emits an item at once, then at most one item, the latest, every {@code timeoutMillis}.
+     */
+    public final Flowable<T> throttleLatest( final long timeoutMillis )
+    {
+        return throttleLatest( timeoutMillis, TimeUnit.MILLISECONDS, requireScheduler() );
+    }
+
+    public final Flowable<T> throttleLatest( final long timeout, final TimeUnit unit, final Scheduler scheduler )
+    {
+        return new Flowable<>(
+            subscriber -> source.subscribe( new TimedOperators.LatestSubscriber<>( subscriber, timeout, unit, scheduler, true ) ),
+            this.scheduler );
+    }
+
+    private Scheduler requireScheduler()
+    {
+        if ( scheduler == null )
+        {
+            throw new IllegalStateException( "No scheduler for time based operators, pass one with the duration" );
+        }
+        return scheduler;
     }
 
     private static final class FilteringSubscriber<T>
@@ -99,4 +207,83 @@ public class Flowable<T>
             upstream.cancel();
         }
     }
+
+    private static final class MappingSubscriber<T, R>
+        implements Subscriber<T>, Subscription
+    {
+        private final Subscriber<? super R> downstream;
+
+        private final Function<? super T, ? extends R> mapper;
+
+        private Subscription upstream;
+
+        private boolean done;
+
+        MappingSubscriber( final Subscriber<? super R> downstream, final Function<? super T, ? extends R> mapper )
+        {
+            this.downstream = downstream;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public void onSubscribe( final Subscription subscription )
+        {
+            this.upstream = subscription;
+            downstream.onSubscribe( this );
+        }
+
+        @Override
+        public void onNext( final T item )
+        {
+            if ( done )
+            {
+                return;
+            }
+            final R mapped;
+            try
+            {
+                mapped = mapper.apply( item );
+            }
+            catch ( final Throwable t )
+            {
+                done = true;
+                upstream.cancel();
+                downstream.onError( t );
+                return;
+            }
+            downstream.onNext( mapped );
+        }
+
+        @Override
+        public void onError( final Throwable throwable )
+        {
+            if ( !done )
+            {
+                done = true;
+                downstream.onError( throwable );
+            }
+        }
+
+        @Override
+        public void onComplete()
+        {
+            if ( !done )
+            {
+                done = true;
+                downstream.onComplete();
+            }
+        }
+
+        @Override
+        public void request( final long n )
+        {
+            upstream.request( n );
+        }
+
+        @Override
+        public void cancel()
+        {
+            upstream.cancel();
+        }
+    }
 }
@@ -0,0 +1,126 @@
+package com.enonic.lib.graphql.reactive;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Differences between two JSON like values made of maps, lists and scalars, such as the data of two results of the
+ * same subscription.
+ */
+final class JsonDiff
+{
+    private JsonDiff()
+    {
+    }
+
+    /**
+     * @return the operations of a JSON Patch (RFC 6902) turning {@code source} into {@code target}. Lists of different
+     * sizes are replaced as a whole.
+     */
+    static List<Map<String, Object>> jsonPatch( final Object source, final Object target )
+    {
+        final List<Map<String, Object>> operations = new ArrayList<>();
+        diff( "", source, target, operations );
+        return operations;
+    }
+
+    /**
+     * @return a JSON Merge Patch (RFC 7396) turning {@code source} into {@code target}, or {@code null} if they are
+     * equal. Merge patches cannot tell a value set to null from a removed member, both are null.
+     */
+    static Object mergePatch( final Object source, final Object target )
+    {
+        if ( source instanceof Map && target instanceof Map )
+        {
+            final Map<?, ?> sourceMap = (Map<?, ?>) source;
+            final Map<?, ?> targetMap = (Map<?, ?>) target;
+            final Map<String, Object> patch = new LinkedHashMap<>();
+            for ( Map.Entry<?, ?> entry : targetMap.entrySet() )
+            {
+                final Object key = entry.getKey();
+                if ( !sourceMap.containsKey( key ) )
+                {
+                    patch.put( key.toString(), entry.getValue() );
+                }
+                else
+                {
+                    final Object memberPatch = mergePatch( sourceMap.get( key ), entry.getValue() );
+                    if ( memberPatch != null || ( entry.getValue() == null && sourceMap.get( key ) != null ) )
+                    {
+                        patch.put( key.toString(), memberPatch );
+                    }
+                }
+            }
+            for ( Object key : sourceMap.keySet() )
+            {
+                if ( !targetMap.containsKey( key ) )
+                {
+                    patch.put( key.toString(), null );
+                }
+            }
+            return patch.isEmpty() ? null : patch;
+        }
+        return Objects.equals( source, target ) ? null : target;
+    }
+
+    private static void diff( final String path, final Object source, final Object target, final List<Map<String, Object>> operations )
+    {
+        if ( source instanceof Map && target instanceof Map )
+        {
+            final Map<?, ?> sourceMap = (Map<?, ?>) source;
+            final Map<?, ?> targetMap = (Map<?, ?>) target;
+            for ( Map.Entry<?, ?> entry : sourceMap.entrySet() )
+            {
+                final String memberPath = path + "/" + escape( entry.getKey().toString() );
+                if ( !targetMap.containsKey( entry.getKey() ) )
+                {
+                    operations.add( operation( "remove", memberPath, null, false ) );
+                }
+                else
+                {
+                    diff( memberPath, entry.getValue(), targetMap.get( entry.getKey() ), operations );
+                }
+            }
+            for ( Map.Entry<?, ?> entry : targetMap.entrySet() )
+            {
+                if ( !sourceMap.containsKey( entry.getKey() ) )
+                {
+                    operations.add( operation( "add", path + "/" + escape( entry.getKey().toString() ), entry.getValue(), true ) );
+                }
+            }
+        }
+        else if ( source instanceof List && target instanceof List && ( (List<?>) source ).size() == ( (List<?>) target ).size() )
+        {
+            final List<?> sourceList = (List<?>) source;
+            final List<?> targetList = (List<?>) target;
+            for ( int i = 0; i < sourceList.size(); i++ )
+            {
+                diff( path + "/" + i, sourceList.get( i ), targetList.get( i ), operations );
+            }
+        }
+        else if ( !Objects.equals( source, target ) )
+        {
+            operations.add( operation( "replace", path, target, true ) );
+        }
+    }
+
+    private static Map<String, Object> operation( final String op, final String path, final Object value, final boolean withValue )
+    {
+        final Map<String, Object> operation = new LinkedHashMap<>();
+        operation.put( "op", op );
+        operation.put( "path", path );
+        if ( withValue )
+        {
+            operation.put( "value", value );
+        }
+        return operation;
+    }
+
+    private static String escape( final String key )
+    {
+        return key.indexOf( '~' ) < 0 && key.indexOf( '/' ) < 0 ? key : key.replace( "~", "~0" ).replace( "/", "~1" );
+    }
+}
@@ -0,0 +1,58 @@
+package com.enonic.lib.graphql.reactive;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * An {@link EventBridge} between simulated nodes in one JVM, for tests and single node installations. The bridges of
+ * a network are created with {@link #connect()}; a batch is delivered synchronously to the receivers of the other
+ * bridges of the network.
+ */
+public final class LoopbackEventBridge
+    implements EventBridge
+{
+    private final List<LoopbackEventBridge> network;
+
+    private final Map<String, List<Consumer<byte[]>>> receivers = new ConcurrentHashMap<>();
+
+    public LoopbackEventBridge()
+    {
+        this( new CopyOnWriteArrayList<>() );
+    }
+
+    private LoopbackEventBridge( final List<LoopbackEventBridge> network )
+    {
+        this.network = network;
+        network.add( this );
+    }
+
+    /**
+     * @return the bridge of another node on the same network
+     */
+    public LoopbackEventBridge connect()
+    {
+        return new LoopbackEventBridge( network );
+    }
+
+    @Override
+    public void send( final String channel, final byte[] batch )
+    {
+        for ( LoopbackEventBridge node : network )
+        {
+            if ( node != this )
+            {
+                node.receivers.getOrDefault( channel, List.of() ).forEach( receiver -> receiver.accept( batch ) );
+            }
+        }
+    }
+
+    @Override
+    public Registration subscribe( final String channel, final Consumer<byte[]> receiver )
+    {
+        receivers.computeIfAbsent( channel, key -> new CopyOnWriteArrayList<>() ).add( receiver );
+        return () -> receivers.getOrDefault( channel, List.of() ).remove( receiver );
+    }
+}
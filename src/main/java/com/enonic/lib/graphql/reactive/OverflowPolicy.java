@@ -0,0 +1,48 @@
+package com.enonic.lib.graphql.reactive;
+
+/**
+ * What a buffered {@link PublishProcessor} does with an item published to a subscriber whose buffer is full.
+ */
+public enum OverflowPolicy
+{
+    /**
+     * Drop the oldest buffered item to make room for the new one.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Drop the new item.
+     */
+    DROP_LATEST,
+
+    /**
+     * Replace the newest buffered item with the new one, so that the subscriber always ends with the latest item.
+     */
+    CONFLATE_LATEST,
+
+    /**
+     * Cancel the subscription and signal an error to the subscriber.
+     */
+    ERROR;
+
+    public static OverflowPolicy from( final String name )
+    {
+        if ( name == null )
+        {
+            return DROP_OLDEST;
+        }
+        switch ( name )
+        {
+            case "dropOldest":
+                return DROP_OLDEST;
+            case "dropLatest":
+                return DROP_LATEST;
+            case "conflateLatest":
+                return CONFLATE_LATEST;
+            case "error":
+                return ERROR;
+            default:
+                throw new IllegalArgumentException( "Unknown overflow policy: " + name );
+        }
+    }
+}
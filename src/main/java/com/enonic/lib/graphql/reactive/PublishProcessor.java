@@ -1,7 +1,11 @@
 package com.enonic.lib.graphql.reactive;
 
+import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Flow;
 import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 import org.reactivestreams.FlowAdapters;
@@ -12,37 +16,156 @@ public class PublishProcessor<T>
 {
     private final SubmissionPublisher<T> submissionPublisher;
 
+    private final BufferedFanOut<T> bufferedFanOut;
+
+    private final Scheduler scheduler;
+
     public PublishProcessor()
     {
-        // Deliver synchronously on the thread that calls onNext, so the downstream subscriber
+        this( (Scheduler) null );
+    }
+
+    /**
+     * @param scheduler the scheduler of the time based operators given a duration in milliseconds
+     */
+    public PublishProcessor( final Scheduler scheduler )
+    {
+        this( null, scheduler );
+    }
+
+    /**
+     * Creates a processor that delivers to each subscriber on {@code executor}, through a buffer of {@code bufferSize}
+     * items per subscriber. Each subscriber is called by one task at a time, different subscribers in parallel.
+     */
+    public PublishProcessor( final int bufferSize, final OverflowPolicy overflowPolicy, final Executor executor )
+    {
+        this( bufferSize, overflowPolicy, executor, null );
+    }
+
+    public PublishProcessor( final int bufferSize, final OverflowPolicy overflowPolicy, final Executor executor, final Scheduler scheduler )
+    {
+        this( new BufferedFanOut<>( bufferSize, overflowPolicy, executor ), scheduler );
+    }
+
+    /**
+     * @param bufferedFanOut the buffered delivery, or {@code null} to deliver synchronously
+     */
+    PublishProcessor( final BufferedFanOut<T> bufferedFanOut, final Scheduler scheduler )
+    {
+        // Without buffers, deliver synchronously on the thread that calls onNext, so the downstream subscriber
         // (which invokes JavaScript) runs in the caller's XP execution context rather than on a
         // pooled thread.
-        this.submissionPublisher = new SubmissionPublisher<>( Runnable::run, Flow.defaultBufferSize() );
+        this.submissionPublisher = bufferedFanOut == null ? new SubmissionPublisher<>( Runnable::run, Flow.defaultBufferSize() ) : null;
+        this.bufferedFanOut = bufferedFanOut;
+        this.scheduler = scheduler;
     }
 
     @Override
     public void subscribe( final Subscriber<? super T> subscriber )
     {
-        submissionPublisher.subscribe( FlowAdapters.toFlowSubscriber( subscriber ) );
+        if ( bufferedFanOut != null )
+        {
+            bufferedFanOut.subscribe( subscriber );
+        }
+        else
+        {
+            submissionPublisher.subscribe( FlowAdapters.toFlowSubscriber( subscriber ) );
+        }
     }
 
     public void onNext( final T item )
     {
-        submissionPublisher.submit( item );
+        if ( bufferedFanOut != null )
+        {
+            bufferedFanOut.onNext( item );
+        }
+        else
+        {
+            submissionPublisher.submit( item );
+        }
     }
 
     public void onError( final Throwable throwable )
     {
-        submissionPublisher.closeExceptionally( throwable );
+        if ( bufferedFanOut != null )
+        {
+            bufferedFanOut.onError( throwable );
+        }
+        else
+        {
+            submissionPublisher.closeExceptionally( throwable );
+        }
     }
 
     public void onComplete()
     {
-        submissionPublisher.close();
+        if ( bufferedFanOut != null )
+        {
+            bufferedFanOut.onComplete();
+        }
+        else
+        {
+            submissionPublisher.close();
+        }
+    }
+
+    public PublishProcessorStats getStats()
+    {
+        if ( bufferedFanOut != null )
+        {
+            return bufferedFanOut.stats();
+        }
+        // Synchronous delivery buffers nothing beyond the item being delivered.
+        return new PublishProcessorStats( submissionPublisher.getNumberOfSubscribers(), 0, 0, 0, 0, 0 );
     }
 
     public final Flowable<T> filter( final Predicate<? super T> predicate )
     {
-        return new Flowable<>( this ).filter( predicate );
+        return new Flowable<>( this, scheduler ).filter( predicate );
+    }
+
+    public final <R> Flowable<R> map( final Function<? super T, ? extends R> mapper )
+    {
+        return new Flowable<>( this, scheduler ).map( mapper );
+    }
+
+    public final Flowable<T> distinctUntilChanged()
+    {
+        return new Flowable<>( this, scheduler ).distinctUntilChanged();
+    }
+
+    public final Flowable<T> distinctUntilChanged( final Function<? super T, ?> keySelector )
+    {
+        return new Flowable<>( this, scheduler ).distinctUntilChanged( keySelector );
+    }
+
+    public final Flowable<List<T>> buffer( final int count, final long timespanMillis )
+    {
+        return new Flowable<>( this, scheduler ).buffer( count, timespanMillis );
+    }
+
+    public final Flowable<List<T>> buffer( final int count, final long timespan, final TimeUnit unit, final Scheduler scheduler )
+    {
+        return new Flowable<>( this, scheduler ).buffer( count, timespan, unit, scheduler );
+    }
+
+    public final Flowable<T> sample( final long periodMillis )
+    {
+        return new Flowable<>( this, scheduler ).sample( periodMillis );
+    }
+
+    public final Flowable<T> sample( final long period, final TimeUnit unit, final Scheduler scheduler )
+    {
+        return new Flowable<>( this, scheduler ).sample( period, unit, scheduler );
+    }
+
+    public final Flowable<T> throttleLatest( final long timeoutMillis )
+    {
+        return new Flowable<>( this, scheduler ).throttleLatest( timeoutMillis );
+    }
+
+    public final Flowable<T> throttleLatest( final long timeout, final TimeUnit unit, final Scheduler scheduler )
+    {
+        return new Flowable<>( this, scheduler ).throttleLatest( timeout, unit, scheduler );
     }
 }
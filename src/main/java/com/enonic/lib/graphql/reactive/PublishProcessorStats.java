@@ -0,0 +1,78 @@
+package com.enonic.lib.graphql.reactive;
+
+import com.enonic.xp.script.serializer.MapGenerator;
+import com.enonic.xp.script.serializer.MapSerializable;
+
+public final class PublishProcessorStats
+    implements MapSerializable
+{
+    private final int subscribers;
+
+    private final int bufferSize;
+
+    private final long buffered;
+
+    private final int maxBuffered;
+
+    private final long delivered;
+
+    private final long dropped;
+
+    PublishProcessorStats( final int subscribers, final int bufferSize, final long buffered, final int maxBuffered, final long delivered,
+                           final long dropped )
+    {
+        this.subscribers = subscribers;
+        this.bufferSize = bufferSize;
+        this.buffered = buffered;
+        this.maxBuffered = maxBuffered;
+        this.delivered = delivered;
+        this.dropped = dropped;
+    }
+
+    public int getSubscribers()
+    {
+        return subscribers;
+    }
+
+    public int getBufferSize()
+    {
+        return bufferSize;
+    }
+
+    /**
+     * @return items waiting in the buffers of all subscribers
+     */
+    public long getBuffered()
+    {
+        return buffered;
+    }
+
+    /**
+     * @return items waiting in the fullest buffer
+     */
+    public int getMaxBuffered()
+    {
+        return maxBuffered;
+    }
+
+    public long getDelivered()
+    {
+        return delivered;
+    }
+
+    public long getDropped()
+    {
+        return dropped;
+    }
+
+    @Override
+    public void serialize( final MapGenerator gen )
+    {
+        gen.value( "subscribers", subscribers );
+        gen.value( "bufferSize", bufferSize );
+        gen.value( "buffered", buffered );
+        gen.value( "maxBuffered", maxBuffered );
+        gen.value( "delivered", delivered );
+        gen.value( "dropped", dropped );
+    }
+}
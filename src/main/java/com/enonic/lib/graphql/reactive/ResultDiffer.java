@@ -0,0 +1,67 @@
+package com.enonic.lib.graphql.reactive;
+
+import java.util.List;
+import java.util.Map;
+
+import graphql.ExecutionResult;
+
+import com.enonic.lib.graphql.ExecutionResultMapper;
+import com.enonic.lib.graphql.MapMapper;
+import com.enonic.xp.script.serializer.MapSerializable;
+
+/**
+ * Keeps the data of the last result of a subscription and encodes the next result as a patch against it. A full
+ * result is sent first, after a result with errors, every {@code snapshotInterval} results and when requested.
+ */
+final class ResultDiffer
+{
+    private final DiffMode diffMode;
+
+    private final int snapshotInterval;
+
+    private Object lastData;
+
+    private int sinceSnapshot;
+
+    private volatile boolean snapshotRequested = true;
+
+    ResultDiffer( final DiffMode diffMode, final int snapshotInterval )
+    {
+        this.diffMode = diffMode;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    void requestSnapshot()
+    {
+        snapshotRequested = true;
+    }
+
+    /**
+     * @return the payload for this result, or {@code null} if its data did not change
+     */
+    MapSerializable encode( final ExecutionResult executionResult )
+    {
+        final Object data = executionResult.getData();
+        final boolean hasErrors = executionResult.getErrors() != null && !executionResult.getErrors().isEmpty();
+        if ( hasErrors || !( data instanceof Map ) || snapshotRequested ||
+            ( snapshotInterval > 0 && sinceSnapshot >= snapshotInterval ) )
+        {
+            sinceSnapshot = 0;
+            lastData = hasErrors ? null : data;
+            // After a result with errors the next one is a snapshot again, its data may be partial.
+            snapshotRequested = hasErrors;
+            return new ExecutionResultMapper( executionResult );
+        }
+
+        final Object previous = lastData;
+        lastData = data;
+        sinceSnapshot++;
+        if ( diffMode == DiffMode.JSON_PATCH )
+        {
+            final List<Map<String, Object>> patch = JsonDiff.jsonPatch( previous, data );
+            return patch.isEmpty() ? null : new MapMapper( Map.of( "patch", patch ) );
+        }
+        final Object mergePatch = JsonDiff.mergePatch( previous, data );
+        return mergePatch == null ? null : new MapMapper( Map.of( "mergePatch", mergePatch ) );
+    }
+}
@@ -1,20 +1,96 @@
 package com.enonic.lib.graphql.reactive;
 
-import org.reactivestreams.Subscriber;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 
-import graphql.ExecutionResult;
+import org.reactivestreams.Subscriber;
 
 import com.enonic.xp.script.ScriptValue;
 
 public class RxBean
 {
+    private static final int DEFAULT_BUFFER_SIZE = 256;
+
+    // Buffered subscribers and timer tasks of the app run on these threads, each subscriber on one thread at a time.
+    private final ContextExecutor callbackExecutor =
+        new ContextExecutor( "lib-graphql-subscribers", Runtime.getRuntime().availableProcessors() );
+
+    private final SystemScheduler scheduler = new SystemScheduler( "lib-graphql-timer", callbackExecutor );
+
+    /**
+     * Stops the threads of buffered subscribers and timers, when the app stops.
+     */
+    public void dispose()
+    {
+        scheduler.shutdown();
+        callbackExecutor.shutdown();
+    }
+
     public PublishProcessor<Object> createPublishProcessor()
     {
-        return new PublishProcessor<>();
+        return new PublishProcessor<>( scheduler );
+    }
+
+    public PublishProcessor<Object> createBufferedPublishProcessor( final Integer bufferSize, final String overflow )
+    {
+        return new PublishProcessor<>( bufferSize == null ? DEFAULT_BUFFER_SIZE : bufferSize, OverflowPolicy.from( overflow ),
+                                       callbackExecutor, scheduler );
+    }
+
+    public PublishProcessor<Object> createClusterPublishProcessor( final EventBridge bridge, final String channel, final String idKey,
+                                                                  final boolean buffered, final Integer bufferSize, final String overflow )
+    {
+        final Function<Object, String> idFunction = idKey == null ? null : item -> item instanceof Map
+            ? Objects.toString( ( (Map<?, ?>) item ).get( idKey ), null )
+            : null;
+        if ( buffered )
+        {
+            return new ClusterPublishProcessor<>( bridge, channel, idFunction, bufferSize == null ? DEFAULT_BUFFER_SIZE : bufferSize,
+                                                  OverflowPolicy.from( overflow ), callbackExecutor, scheduler );
+        }
+        return new ClusterPublishProcessor<>( bridge, channel, idFunction, scheduler );
     }
 
-    public Subscriber<ExecutionResult> createSubscriber( final ScriptValue onNext )
+    public EventBridge createEventBridge( final ScriptValue send )
+    {
+        return new ScriptEventBridge( send );
+    }
+
+    public EventBridge createLoopbackEventBridge()
+    {
+        return new LoopbackEventBridge();
+    }
+
+    public TopicHub<Object> createTopicHub()
+    {
+        return new TopicHub<>( PublishProcessor::new, scheduler );
+    }
+
+    public TopicHub<Object> createBufferedTopicHub( final Integer bufferSize, final String overflow )
+    {
+        final int size = bufferSize == null ? DEFAULT_BUFFER_SIZE : bufferSize;
+        final OverflowPolicy overflowPolicy = OverflowPolicy.from( overflow );
+        return new TopicHub<>( () -> new PublishProcessor<>( size, overflowPolicy, callbackExecutor ), scheduler );
+    }
+
+    public PublishProcessorStats getStats( final PublishProcessor<?> publishProcessor )
+    {
+        return publishProcessor.getStats();
+    }
+
+    public Subscriber<Object> createSubscriber( final ScriptValue onNext )
     {
         return new ExecutionResultSubscriber( onNext );
     }
+
+    public Subscriber<Object> newSubscriber( final ScriptValue options, final SubscriberRegistry registry )
+    {
+        return new ExecutionResultSubscriber( SubscriberOptions.from( options ), registry );
+    }
+
+    public SubscriberRegistry createSubscriberRegistry( final Long idleTimeout )
+    {
+        return new SubscriberRegistry( idleTimeout == null ? 0 : idleTimeout, scheduler );
+    }
 }
@@ -0,0 +1,17 @@
+package com.enonic.lib.graphql.reactive;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the delayed tasks of the time based {@link Flowable} operators. Each app has one, see {@link RxBean}, and
+ * tests inject a scheduler with a virtual clock.
+ */
+public interface Scheduler
+{
+    Task schedule( Runnable task, long delay, TimeUnit unit );
+
+    interface Task
+    {
+        void cancel();
+    }
+}
@@ -0,0 +1,50 @@
+package com.enonic.lib.graphql.reactive;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import com.enonic.xp.script.ScriptValue;
+
+/**
+ * An {@link EventBridge} implemented in script, typically on distributed XP events: batches are passed to the
+ * {@code send} function Base64 encoded, and the listener of the other nodes hands them back to {@link #receive}.
+ */
+public final class ScriptEventBridge
+    implements EventBridge
+{
+    private final ScriptValue send;
+
+    private final Map<String, List<Consumer<byte[]>>> receivers = new ConcurrentHashMap<>();
+
+    public ScriptEventBridge( final ScriptValue send )
+    {
+        this.send = send;
+    }
+
+    @Override
+    public void send( final String channel, final byte[] batch )
+    {
+        send.call( channel, Base64.getEncoder().encodeToString( batch ) );
+    }
+
+    @Override
+    public Registration subscribe( final String channel, final Consumer<byte[]> receiver )
+    {
+        receivers.computeIfAbsent( channel, key -> new CopyOnWriteArrayList<>() ).add( receiver );
+        return () -> receivers.getOrDefault( channel, List.of() ).remove( receiver );
+    }
+
+    public void receive( final String channel, final String batch )
+    {
+        final List<Consumer<byte[]>> channelReceivers = receivers.get( channel );
+        if ( channelReceivers != null && batch != null )
+        {
+            final byte[] bytes = Base64.getDecoder().decode( batch );
+            channelReceivers.forEach( receiver -> receiver.accept( bytes ) );
+        }
+    }
+}
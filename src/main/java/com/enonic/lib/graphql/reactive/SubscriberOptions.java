@@ -0,0 +1,115 @@
+package com.enonic.lib.graphql.reactive;
+
+import com.enonic.xp.script.ScriptValue;
+
+final class SubscriberOptions
+{
+    private final ScriptValue onNext;
+
+    private final ScriptValue onError;
+
+    private final ScriptValue onComplete;
+
+    private final DiffMode diffMode;
+
+    private final int snapshotInterval;
+
+    private final int prefetch;
+
+    private final String key;
+
+    SubscriberOptions( final ScriptValue onNext, final ScriptValue onError, final ScriptValue onComplete, final DiffMode diffMode,
+                       final int snapshotInterval, final int prefetch, final String key )
+    {
+        if ( prefetch < 1 )
+        {
+            throw new IllegalArgumentException( "prefetch must be positive" );
+        }
+        this.onNext = onNext;
+        this.onError = onError;
+        this.onComplete = onComplete;
+        this.diffMode = diffMode;
+        this.snapshotInterval = snapshotInterval;
+        this.prefetch = prefetch;
+        this.key = key;
+    }
+
+    static SubscriberOptions from( final ScriptValue options )
+    {
+        return new SubscriberOptions( getFunction( options, "onNext" ), getFunction( options, "onError" ),
+                                      getFunction( options, "onComplete" ), DiffMode.from( getString( options, "diff" ) ),
+                                      getInteger( options, "snapshotInterval", 0 ), getInteger( options, "prefetch", 1 ),
+                                      getString( options, "key" ) );
+    }
+
+    static SubscriberOptions of( final ScriptValue onNext )
+    {
+        return new SubscriberOptions( onNext, null, null, null, 0, 1, null );
+    }
+
+    ScriptValue getOnNext()
+    {
+        return onNext;
+    }
+
+    ScriptValue getOnError()
+    {
+        return onError;
+    }
+
+    ScriptValue getOnComplete()
+    {
+        return onComplete;
+    }
+
+    DiffMode getDiffMode()
+    {
+        return diffMode;
+    }
+
+    int getSnapshotInterval()
+    {
+        return snapshotInterval;
+    }
+
+    int getPrefetch()
+    {
+        return prefetch;
+    }
+
+    String getKey()
+    {
+        return key;
+    }
+
+    private static ScriptValue getFunction( final ScriptValue options, final String name )
+    {
+        final ScriptValue value = options == null ? null : options.getMember( name );
+        if ( value == null || !value.isFunction() )
+        {
+            return null;
+        }
+        return value;
+    }
+
+    private static String getString( final ScriptValue options, final String name )
+    {
+        final ScriptValue value = options == null ? null : options.getMember( name );
+        if ( value == null || !value.isValue() )
+        {
+            return null;
+        }
+        return value.getValue( String.class );
+    }
+
+    private static int getInteger( final ScriptValue options, final String name, final int defaultValue )
+    {
+        final ScriptValue value = options == null ? null : options.getMember( name );
+        if ( value == null || !value.isValue() )
+        {
+            return defaultValue;
+        }
+        final Integer integer = value.getValue( Integer.class );
+        return integer == null ? defaultValue : integer;
+    }
+}
@@ -0,0 +1,182 @@
+package com.enonic.lib.graphql.reactive;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * The live subscribers of subscription results, so that they can be counted and ended in bulk, by key (a websocket
+ * session for instance) or all at once. Subscribers leave the registry when their subscription ends, so it only holds
+ * live ones. With an idle timeout, subscribers that were not touched for that long are evicted, by a sweep that runs
+ * while the registry has subscribers. Subscribers ended by the registry get their {@code onComplete} callback, or
+ * {@code onError} with {@link #EVICTED} when evicted, so that the app can tell the client or close its socket.
+ */
+public final class SubscriberRegistry
+{
+    public static final String EVICTED = "evicted";
+
+    private final Set<ExecutionResultSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final long idleTimeout;
+
+    private final Scheduler scheduler;
+
+    private final LongSupplier clock;
+
+    private final AtomicBoolean sweepScheduled = new AtomicBoolean();
+
+    public SubscriberRegistry()
+    {
+        this( 0, null );
+    }
+
+    /**
+     * @param idleTimeout milliseconds without a touch after which a subscriber is evicted, or 0 for none
+     * @param scheduler the scheduler of the idle sweep, required with an idle timeout
+     */
+    public SubscriberRegistry( final long idleTimeout, final Scheduler scheduler )
+    {
+        this( idleTimeout, scheduler, () -> TimeUnit.NANOSECONDS.toMillis( System.nanoTime() ) );
+    }
+
+    SubscriberRegistry( final long idleTimeout, final Scheduler scheduler, final LongSupplier clock )
+    {
+        if ( idleTimeout < 0 )
+        {
+            throw new IllegalArgumentException( "idleTimeout must not be negative" );
+        }
+        if ( idleTimeout > 0 && scheduler == null )
+        {
+            throw new IllegalArgumentException( "An idle timeout needs a scheduler" );
+        }
+        this.idleTimeout = idleTimeout;
+        this.scheduler = scheduler;
+        this.clock = clock;
+    }
+
+    public int getCount()
+    {
+        return subscribers.size();
+    }
+
+    public int getCount( final String key )
+    {
+        return (int) subscribers.stream().filter( subscriber -> Objects.equals( key, subscriber.getKey() ) ).count();
+    }
+
+    /**
+     * Marks the subscribers with this key active, when their client shows it is still there.
+     */
+    public void touch( final String key )
+    {
+        for ( ExecutionResultSubscriber subscriber : subscribers )
+        {
+            if ( Objects.equals( key, subscriber.getKey() ) )
+            {
+                subscriber.touch();
+            }
+        }
+    }
+
+    /**
+     * @return the number of subscribers with this key that were ended
+     */
+    public int cancel( final String key )
+    {
+        int cancelled = 0;
+        for ( ExecutionResultSubscriber subscriber : subscribers )
+        {
+            if ( Objects.equals( key, subscriber.getKey() ) && end( subscriber, null ) )
+            {
+                cancelled++;
+            }
+        }
+        return cancelled;
+    }
+
+    public int cancelAll()
+    {
+        int cancelled = 0;
+        for ( ExecutionResultSubscriber subscriber : subscribers )
+        {
+            if ( end( subscriber, null ) )
+            {
+                cancelled++;
+            }
+        }
+        return cancelled;
+    }
+
+    /**
+     * @return the number of subscribers that were not touched for longer than the idle timeout and were evicted
+     */
+    public int evictIdle()
+    {
+        if ( idleTimeout == 0 )
+        {
+            return 0;
+        }
+        final long idleSince = clock.getAsLong() - idleTimeout;
+        int evicted = 0;
+        for ( ExecutionResultSubscriber subscriber : subscribers )
+        {
+            if ( subscriber.getLastActive() <= idleSince && end( subscriber, EVICTED ) )
+            {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    long now()
+    {
+        return clock.getAsLong();
+    }
+
+    void add( final ExecutionResultSubscriber subscriber )
+    {
+        subscribers.add( subscriber );
+        scheduleSweep();
+    }
+
+    void remove( final ExecutionResultSubscriber subscriber )
+    {
+        subscribers.remove( subscriber );
+    }
+
+    private static boolean end( final ExecutionResultSubscriber subscriber, final String error )
+    {
+        try
+        {
+            return subscriber.end( error );
+        }
+        catch ( RuntimeException e )
+        {
+            // A failing callback must not keep the other subscribers from ending, this one has ended already.
+            return true;
+        }
+    }
+
+    private void scheduleSweep()
+    {
+        // Subscribers are evicted at most half a timeout late.
+        if ( idleTimeout > 0 && sweepScheduled.compareAndSet( false, true ) )
+        {
+            scheduler.schedule( this::sweep, Math.max( 1, idleTimeout / 2 ), TimeUnit.MILLISECONDS );
+        }
+    }
+
+    private void sweep()
+    {
+        evictIdle();
+        // Cleared before the check, so that a subscriber added meanwhile either sees it cleared or is seen here.
+        sweepScheduled.set( false );
+        if ( !subscribers.isEmpty() )
+        {
+            scheduleSweep();
+        }
+    }
+}
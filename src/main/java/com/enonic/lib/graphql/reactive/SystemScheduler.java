@@ -0,0 +1,63 @@
+package com.enonic.lib.graphql.reactive;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.enonic.xp.context.Context;
+import com.enonic.xp.context.ContextAccessor;
+
+/**
+ * Runs delayed tasks on an executor, with the XP context of the thread that scheduled them. The timer thread only hands
+ * the due tasks over to the executor the script callbacks of the app run on, so a slow task does not delay the others.
+ */
+final class SystemScheduler
+    implements Scheduler
+{
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private final ScheduledThreadPoolExecutor timer;
+
+    private final Executor executor;
+
+    SystemScheduler( final String threadName, final Executor executor )
+    {
+        this.timer = new ScheduledThreadPoolExecutor( 1, runnable -> {
+            final Thread thread = new Thread( runnable, threadName );
+            thread.setDaemon( true );
+            return thread;
+        } );
+        // The thread waits for pending tasks, and stops once there are none for a while.
+        timer.setKeepAliveTime( KEEP_ALIVE_SECONDS, TimeUnit.SECONDS );
+        timer.allowCoreThreadTimeOut( true );
+        timer.setRemoveOnCancelPolicy( true );
+        this.executor = executor;
+    }
+
+    @Override
+    public Task schedule( final Runnable task, final long delay, final TimeUnit unit )
+    {
+        final Context context = ContextAccessor.current();
+        try
+        {
+            final ScheduledFuture<?> future = timer.schedule( () -> executor.execute( () -> context.runWith( task ) ), delay, unit );
+            return () -> future.cancel( false );
+        }
+        catch ( RejectedExecutionException e )
+        {
+            // Shut down with the app.
+            return () -> {
+            };
+        }
+    }
+
+    /**
+     * Stops the timer thread and drops the pending tasks.
+     */
+    void shutdown()
+    {
+        timer.shutdownNow();
+    }
+}
@@ -0,0 +1,182 @@
+package com.enonic.lib.graphql.reactive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.reactivestreams.Subscriber;
+
+/**
+ * The time based operators of {@link Flowable}. Timer tasks check the window they were scheduled for, so that a task
+ * firing after its window was closed early does nothing.
+ */
+final class TimedOperators
+{
+    private TimedOperators()
+    {
+    }
+
+    static final class BufferSubscriber<T>
+        extends CoalescingSubscriber<T, List<T>>
+    {
+        private final int count;
+
+        private final long timespan;
+
+        private final TimeUnit unit;
+
+        private final Scheduler scheduler;
+
+        private List<T> current = new ArrayList<>();
+
+        private Scheduler.Task timer;
+
+        private long window;
+
+        BufferSubscriber( final Subscriber<? super List<T>> downstream, final int count, final long timespan, final TimeUnit unit,
+                          final Scheduler scheduler )
+        {
+            super( downstream, count, false );
+            this.count = count;
+            this.timespan = timespan;
+            this.unit = unit;
+            this.scheduler = scheduler;
+        }
+
+        @Override
+        void onItem( final T item )
+        {
+            if ( current.isEmpty() )
+            {
+                final long scheduledWindow = window;
+                timer = scheduler.schedule( () -> onTimer( () -> {
+                    if ( scheduledWindow == window )
+                    {
+                        onFlush();
+                    }
+                } ), timespan, unit );
+            }
+            current.add( item );
+            if ( current.size() >= count )
+            {
+                onFlush();
+            }
+        }
+
+        @Override
+        void onFlush()
+        {
+            onTerminate();
+            window++;
+            if ( !current.isEmpty() )
+            {
+                final List<T> batch = current;
+                current = new ArrayList<>();
+                emit( batch );
+            }
+        }
+
+        @Override
+        void onTerminate()
+        {
+            if ( timer != null )
+            {
+                timer.cancel();
+                timer = null;
+            }
+        }
+    }
+
+    /**
+     * Emits the latest item at the end of each period in which items arrived. With {@code leading}, the first item
+     * after a quiet period is emitted at once and opens the period, as {@code throttleLatest} does.
+     */
+    static final class LatestSubscriber<T>
+        extends CoalescingSubscriber<T, T>
+    {
+        private final long period;
+
+        private final TimeUnit unit;
+
+        private final Scheduler scheduler;
+
+        private final boolean leading;
+
+        private T latest;
+
+        private boolean hasLatest;
+
+        private Scheduler.Task timer;
+
+        private long window;
+
+        LatestSubscriber( final Subscriber<? super T> downstream, final long period, final TimeUnit unit, final Scheduler scheduler,
+                          final boolean leading )
+        {
+            super( downstream, 1, true );
+            this.period = period;
+            this.unit = unit;
+            this.scheduler = scheduler;
+            this.leading = leading;
+        }
+
+        @Override
+        void onItem( final T item )
+        {
+            if ( timer == null && leading )
+            {
+                emitLatest( item );
+            }
+            else
+            {
+                latest = item;
+                hasLatest = true;
+            }
+            if ( timer == null )
+            {
+                openWindow();
+            }
+        }
+
+        private void openWindow()
+        {
+            final long scheduledWindow = ++window;
+            timer = scheduler.schedule( () -> onTimer( () -> {
+                if ( scheduledWindow != window )
+                {
+                    return;
+                }
+                timer = null;
+                if ( hasLatest )
+                {
+                    onFlush();
+                    // A window that emitted opens the next one, so that items keep at least a period apart.
+                    openWindow();
+                }
+            } ), period, unit );
+        }
+
+        @Override
+        void onFlush()
+        {
+            if ( hasLatest )
+            {
+                final T item = latest;
+                latest = null;
+                hasLatest = false;
+                emitLatest( item );
+            }
+        }
+
+        @Override
+        void onTerminate()
+        {
+            if ( timer != null )
+            {
+                timer.cancel();
+                timer = null;
+            }
+            window++;
+        }
+    }
+}
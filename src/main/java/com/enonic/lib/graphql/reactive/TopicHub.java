@@ -0,0 +1,190 @@
+package com.enonic.lib.graphql.reactive;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Routes published items by topic. Each topic with subscribers has a {@link PublishProcessor} of its own, found by
+ * key, so publishing costs the delivery to the subscribers of that topic only, instead of a predicate call per
+ * subscriber of a shared processor. The processor of a topic is dropped when its last subscriber leaves.
+ */
+public final class TopicHub<T>
+{
+    private final Map<String, Topic<T>> topics = new ConcurrentHashMap<>();
+
+    private final Supplier<PublishProcessor<T>> processorFactory;
+
+    private final Scheduler scheduler;
+
+    public TopicHub()
+    {
+        this( PublishProcessor::new, null );
+    }
+
+    /**
+     * @param scheduler the scheduler of the time based operators of the topics given a duration in milliseconds
+     */
+    public TopicHub( final Supplier<PublishProcessor<T>> processorFactory, final Scheduler scheduler )
+    {
+        this.processorFactory = processorFactory;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * @return the items published to the topic from the time of subscription
+     */
+    public Flowable<T> topic( final String key )
+    {
+        return new Flowable<>( subscriber -> subscribe( key, subscriber ), scheduler );
+    }
+
+    public void onNext( final String key, final T item )
+    {
+        final Topic<T> topic = topics.get( key );
+        if ( topic != null )
+        {
+            topic.processor.onNext( item );
+        }
+    }
+
+    /**
+     * Completes the subscriptions of a topic, for instance when the content it stands for is deleted.
+     */
+    public void onComplete( final String key )
+    {
+        final Topic<T> topic = topics.remove( key );
+        if ( topic != null )
+        {
+            topic.processor.onComplete();
+        }
+    }
+
+    public void onComplete()
+    {
+        topics.keySet().forEach( this::onComplete );
+    }
+
+    public int getTopicCount()
+    {
+        return topics.size();
+    }
+
+    public int getSubscriberCount()
+    {
+        return topics.values().stream().mapToInt( topic -> topic.subscribers ).sum();
+    }
+
+    public int getSubscriberCount( final String key )
+    {
+        final Topic<T> topic = topics.get( key );
+        return topic == null ? 0 : topic.subscribers;
+    }
+
+    private void subscribe( final String key, final Subscriber<? super T> subscriber )
+    {
+        // The subscriber count is only changed inside compute, so that a topic is never dropped between a
+        // subscriber finding it and subscribing to its processor.
+        final Topic<T> topic = topics.compute( key, ( k, current ) -> {
+            final Topic<T> joined = current == null ? new Topic<>( processorFactory.get() ) : current;
+            joined.subscribers++;
+            return joined;
+        } );
+        topic.processor.subscribe( new TopicSubscriber<>( subscriber, () -> leave( key, topic ) ) );
+    }
+
+    private void leave( final String key, final Topic<T> topic )
+    {
+        topics.computeIfPresent( key, ( k, current ) -> {
+            if ( current != topic )
+            {
+                return current;
+            }
+            current.subscribers--;
+            return current.subscribers == 0 ? null : current;
+        } );
+    }
+
+    private static final class Topic<T>
+    {
+        final PublishProcessor<T> processor;
+
+        // Guarded by the compute calls on the topic map.
+        volatile int subscribers;
+
+        Topic( final PublishProcessor<T> processor )
+        {
+            this.processor = processor;
+        }
+    }
+
+    private static final class TopicSubscriber<T>
+        implements Subscriber<T>, Subscription
+    {
+        private final Subscriber<? super T> downstream;
+
+        private final Runnable leave;
+
+        private final AtomicBoolean left = new AtomicBoolean();
+
+        private Subscription upstream;
+
+        TopicSubscriber( final Subscriber<? super T> downstream, final Runnable leave )
+        {
+            this.downstream = downstream;
+            this.leave = leave;
+        }
+
+        @Override
+        public void onSubscribe( final Subscription subscription )
+        {
+            this.upstream = subscription;
+            downstream.onSubscribe( this );
+        }
+
+        @Override
+        public void onNext( final T item )
+        {
+            downstream.onNext( item );
+        }
+
+        @Override
+        public void onError( final Throwable throwable )
+        {
+            leave();
+            downstream.onError( throwable );
+        }
+
+        @Override
+        public void onComplete()
+        {
+            leave();
+            downstream.onComplete();
+        }
+
+        @Override
+        public void request( final long n )
+        {
+            upstream.request( n );
+        }
+
+        @Override
+        public void cancel()
+        {
+            leave();
+            upstream.cancel();
+        }
+
+        private void leave()
+        {
+            if ( left.compareAndSet( false, true ) )
+            {
+                leave.run();
+            }
+        }
+    }
+}
@@ -1,88 +1,7 @@
-var graphQlLib = require('./graphql');
-
-function createPageInfoType(schemaGenerator) {
-    return schemaGenerator.createPageInfoObjectType({
-        name: 'PageInfo',
-        fields: {
-            startCursor: {
-                type: graphQlLib.nonNull(graphQlLib.GraphQLString),
-                resolve: function (env) {
-                    return exports.encodeCursor(env.source.startCursor);
-                }
-            },
-            endCursor: {
-                type: graphQlLib.nonNull(graphQlLib.GraphQLString),
-                resolve: function (env) {
-                    return exports.encodeCursor(env.source.endCursor);
-                }
-            },
-            hasNext: {
-                type: graphQlLib.nonNull(graphQlLib.GraphQLBoolean),
-                resolve: function (env) {
-                    return env.source.hasNext;
-                }
-            }
-        }
-    });
-}
-
-function createEdgeType(schemaGenerator, type) {
-    return schemaGenerator.createObjectType({
-        name: type.getName() + 'Edge',
-        fields: {
-            node: {
-                type: graphQlLib.nonNull(type),
-                resolve: function (env) {
-                    return env.source.node;
-                }
-            },
-            cursor: {
-                type: graphQlLib.nonNull(graphQlLib.GraphQLString),
-                resolve: function (env) {
-                    return exports.encodeCursor(env.source.cursor);
-                }
-            }
-        }
-    });
-}
-
-exports.createConnectionType = function (schemaGenerator, type) {
-    return schemaGenerator.createObjectType({
-        name: type.getName() + 'Connection',
-        fields: {
-            totalCount: {
-                type: graphQlLib.nonNull(graphQlLib.GraphQLInt),
-                resolve: function (env) {
-                    return env.source.total;
-                }
-            },
-            edges: {
-                type: graphQlLib.list(createEdgeType(schemaGenerator, type)),
-                resolve: function (env) {
-                    var hits = env.source.hits;
-                    var edges = [];
-                    for (var i = 0; i < hits.length; i++) {
-                        edges.push({
-                            node: hits[i],
-                            cursor: env.source.start + i
-                        });
-                    }
-                    return edges;
-                }
-            },
-            pageInfo: {
-                type: createPageInfoType(schemaGenerator),
-                resolve: function (env) {
-                    var count = env.source.hits.length;
-                    return {
-                        startCursor: env.source.start,
-                        endCursor: env.source.start + (count === 0 ? 0 : (count - 1)),
-                        hasNext: (env.source.start + count) < env.source.total
-                    }
-                }
-            }
-        }
-    });
+// Connection, edge and page info types are resolved in Java. Hits are paged by offset by default,
+// or by the value of cursorProperty on each hit for keyset paging.
+exports.createConnectionType = function (schemaGenerator, type, cursorProperty) {
+    return schemaGenerator.createConnectionType({type: type, cursorProperty: cursorProperty});
 };
 
 exports.encodeCursor = function(value) {
@@ -92,3 +11,12 @@ exports.encodeCursor = function(value) {
 exports.decodeCursor = function(value) {
     return Java.type('com.enonic.lib.graphql.CursorHelper').decode(String(value));
 };
+
+exports.decodeOffsetCursor = function(value) {
+    return Java.type('com.enonic.lib.graphql.CursorHelper').decodeOffset(String(value));
+};
+
+exports.decodeKeyCursor = function(value) {
+    var key = Java.type('com.enonic.lib.graphql.CursorHelper').decodeKey(String(value));
+    return __.toNativeObject(new (Java.type('com.enonic.lib.graphql.ValueMapper'))(key)).value;
+};
@@ -1,12 +1,57 @@
 const rxBean = __.newBean('com.enonic.lib.graphql.reactive.RxBean');
 
-exports.createPublishProcessor = function () {
+__.disposer(function () {
+    rxBean.dispose();
+});
+
+exports.createPublishProcessor = function (params) {
+    if (params && params.bridge) {
+        if (!params.channel) {
+            throw "Value 'channel' is required with 'bridge'";
+        }
+        return rxBean.createClusterPublishProcessor(params.bridge, params.channel, optional(params, 'idKey'), !!params.buffered,
+            optional(params, 'bufferSize'), optional(params, 'overflow'));
+    }
+    if (params && params.buffered) {
+        return rxBean.createBufferedPublishProcessor(optional(params, 'bufferSize'), optional(params, 'overflow'));
+    }
     return rxBean.createPublishProcessor();
 };
 
+exports.createTopicHub = function (params) {
+    if (params && params.buffered) {
+        return rxBean.createBufferedTopicHub(optional(params, 'bufferSize'), optional(params, 'overflow'));
+    }
+    return rxBean.createTopicHub();
+};
+
+exports.createEventBridge = function (params) {
+    return rxBean.createEventBridge(__.toScriptValue(params.send));
+};
+
+exports.createLoopbackEventBridge = function () {
+    return rxBean.createLoopbackEventBridge();
+};
+
+exports.getStats = function (publishProcessor) {
+    return __.toNativeObject(rxBean.getStats(publishProcessor));
+};
+
 exports.createSubscriber = function (params) {
-    const onNext = optional(params, 'onNext');
-    return rxBean.createSubscriber(__.toScriptValue(onNext));
+    const options = {
+        onNext: optional(params, 'onNext'),
+        onError: optional(params, 'onError'),
+        onComplete: optional(params, 'onComplete'),
+        diff: optional(params, 'diff'),
+        snapshotInterval: optional(params, 'snapshotInterval'),
+        prefetch: optional(params, 'prefetch'),
+        key: optional(params, 'key')
+    };
+    return rxBean.newSubscriber(__.toScriptValue(options), optional(params, 'registry'));
+};
+
+exports.createSubscriberRegistry = function (params) {
+    return rxBean.createSubscriberRegistry(params ? optional(params, 'idleTimeout') : null);
 };
 
 function optional(params, name) {
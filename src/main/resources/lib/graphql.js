@@ -18,8 +18,16 @@ var CustomScalars = Java.type('com.enonic.lib.graphql.CustomScalars');
 exports.LocalDateTime = CustomScalars.LocalDateTime;
 exports.LocalTime = CustomScalars.LocalTime;
 
-exports.newSchemaGenerator = function () {
+exports.newSchemaGenerator = function (params) {
     var graphQlBean = __.newBean('com.enonic.lib.graphql.GraphQlBean');
+    var asyncResolvers = params && optional(params, 'asyncResolvers');
+    if (asyncResolvers) {
+        graphQlBean.setAsyncExecutorOptions(optional(asyncResolvers, 'maxConcurrency'), optional(asyncResolvers, 'virtualThreads'),
+            optional(asyncResolvers, 'concurrentScripts'));
+        __.disposer(function () {
+            graphQlBean.dispose();
+        });
+    }
 
     return {
         createSchema: function (params) {
@@ -30,6 +38,32 @@ exports.newSchemaGenerator = function () {
             return graphQlBean.createSchema(query, mutation, subscription, additonalTypes);
         },
 
+        fromSDL: function (sdl, resolvers) {
+            if (sdl == null) {
+                throw "Value 'sdl' is required";
+            }
+            return graphQlBean.createSchemaFromSdl(sdl, __.toScriptValue(resolvers && wrapResolverMap(resolvers)));
+        },
+
+        loadSchema: function (params) {
+            var name = required(params, 'name');
+            var fingerprint = String(required(params, 'fingerprint'));
+            var build = required(params, 'build');
+            var resolvers = optional(params, 'resolvers');
+            var cacheDir = optional(params, 'cacheDir');
+            var schema = graphQlBean.loadSchema(cacheDir, app.name, name, fingerprint,
+                __.toScriptValue(resolvers && wrapResolverMap(resolvers)));
+            if (schema == null) {
+                schema = build();
+                graphQlBean.saveSchema(cacheDir, app.name, name, fingerprint, schema);
+            }
+            return schema;
+        },
+
+        getBuildStats: function () {
+            return __.toNativeObject(graphQlBean.getBuildStats());
+        },
+
         createPageInfoObjectType: function (params) {
             var name = required(params, 'name');
             var fields = required(params, 'fields');
@@ -38,7 +72,7 @@ exports.newSchemaGenerator = function () {
             });
             var interfaces = optional(params, 'interfaces');
             var description = optional(params, 'description');
-            return graphQlBean.createPageInfoObjectType(name, __.toScriptValue(fields), __.toScriptValue(interfaces), description);
+            return graphQlBean.createPageInfoObjectType(name, __.toScriptValue(wrapResolvers(fields)), __.toScriptValue(interfaces), description);
         },
 
         createObjectType: function (params) {
@@ -49,7 +83,13 @@ exports.newSchemaGenerator = function () {
             });
             var interfaces = optional(params, 'interfaces');
             var description = optional(params, 'description');
-            return graphQlBean.createObjectType(name, __.toScriptValue(fields), __.toScriptValue(interfaces), description);
+            return graphQlBean.createObjectType(name, __.toScriptValue(wrapResolvers(fields)), __.toScriptValue(interfaces), description);
+        },
+
+        createConnectionType: function (params) {
+            var type = required(params, 'type');
+            var cursorProperty = optional(params, 'cursorProperty');
+            return graphQlBean.createConnectionType(type, cursorProperty);
         },
 
         createInputObjectType: function (params) {
@@ -107,8 +147,36 @@ exports.reference = function (typeKey) {
 };
 
 //Query execution
-exports.execute = function (schema, query, variables, context) {
-    return __.toNativeObject(graphQLHelper.execute(schema, query, __.toScriptValue(variables), context));
+exports.execute = function (schema, query, variables, context, options) {
+    return __.toNativeObject(graphQLHelper.execute(schema, query, __.toScriptValue(variables), context, __.toScriptValue(options)));
+};
+
+exports.executeIncremental = function (schema, query, variables, context, options) {
+    return __.toNativeObject(graphQLHelper.executeIncremental(schema, query, __.toScriptValue(variables), context, __.toScriptValue(options)));
+};
+
+exports.executeToJson = function (schema, query, variables, context, options) {
+    return graphQLHelper.executeToJson(schema, query, __.toScriptValue(variables), context, __.toScriptValue(options));
+};
+
+exports.getDocumentCacheStats = function (schema) {
+    return __.toNativeObject(graphQLHelper.getDocumentCacheStats(schema));
+};
+
+exports.getResolverMetrics = function (schema) {
+    return __.toNativeObject(graphQLHelper.getResolverMetrics(schema));
+};
+
+exports.getResultCacheStats = function (schema) {
+    return __.toNativeObject(graphQLHelper.getResultCacheStats(schema));
+};
+
+exports.invalidateResultCache = function (schema, tag) {
+    return graphQLHelper.invalidateResultCache(schema, tag === undefined ? null : tag);
+};
+
+exports.setPersistedQueryStore = function (schema, store) {
+    graphQLHelper.setPersistedQueryStore(schema, __.toScriptValue(store));
 };
 
 //Util functions
@@ -129,6 +197,93 @@ function optional(params, name) {
     return value;
 }
 
+// Resolvers receive a lazy view of the Java environment, members are converted when first read
+function wrapResolvers(fields) {
+    var wrappedFields = {};
+    for (var fieldName in fields) {
+        var field = fields[fieldName];
+        if (field && typeof field.resolve === 'function') {
+            var wrappedField = {};
+            for (var key in field) {
+                wrappedField[key] = field[key];
+            }
+            wrappedField.resolve = wrapResolver(field.resolve);
+            wrappedFields[fieldName] = wrappedField;
+        } else {
+            wrappedFields[fieldName] = field;
+        }
+    }
+    return wrappedFields;
+}
+
+function wrapResolverMap(resolvers) {
+    var wrappedResolvers = {};
+    for (var typeName in resolvers) {
+        var typeResolvers = wrapResolvers(resolvers[typeName]);
+        for (var fieldName in typeResolvers) {
+            if (fieldName !== '__resolveType' && typeof typeResolvers[fieldName] === 'function') {
+                typeResolvers[fieldName] = wrapResolver(typeResolvers[fieldName]);
+            }
+        }
+        wrappedResolvers[typeName] = typeResolvers;
+    }
+    return wrappedResolvers;
+}
+
+function wrapResolver(resolve) {
+    return function (env) {
+        return resolve(toLazyEnv(env));
+    };
+}
+
+function toLazyEnv(env) {
+    var lazyEnv = {};
+    defineLazyProperty(lazyEnv, 'source', function () {
+        return env.isSourceMap() ? toLazySource(env) : toNativeValue(env.getSource());
+    });
+    defineLazyProperty(lazyEnv, 'args', function () {
+        return toNativeValue(env.getArgs());
+    });
+    defineLazyProperty(lazyEnv, 'context', function () {
+        return toNativeValue(env.getContext());
+    });
+    defineLazyProperty(lazyEnv, 'loader', function () {
+        return env.getLoader();
+    });
+    return lazyEnv;
+}
+
+function toLazySource(env) {
+    var source = {};
+    toNativeValue(env.getSourceKeys()).forEach(function (key) {
+        defineLazyProperty(source, key, function () {
+            return toNativeValue(env.getSourceMember(key));
+        });
+    });
+    return source;
+}
+
+function toNativeValue(valueMapper) {
+    return __.toNativeObject(valueMapper).value;
+}
+
+function defineLazyProperty(object, name, getter) {
+    function setValue(value) {
+        Object.defineProperty(object, name, {value: value, writable: true, enumerable: true, configurable: true});
+    }
+
+    Object.defineProperty(object, name, {
+        get: function () {
+            var value = getter();
+            setValue(value);
+            return value;
+        },
+        set: setValue,
+        enumerable: true,
+        configurable: true
+    });
+}
+
 function forEachAttribute(object, callback) {
     if (object) {
         for (var fieldName in object) {
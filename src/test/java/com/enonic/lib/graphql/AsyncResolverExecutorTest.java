@@ -0,0 +1,98 @@
+package com.enonic.lib.graphql;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.Scalars;
+import graphql.schema.DataFetcher;
+import graphql.schema.FieldCoordinates;
+import graphql.schema.GraphQLCodeRegistry;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLSchema;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AsyncResolverExecutorTest
+{
+    @Test
+    public void runs_sibling_fields_in_parallel()
+    {
+        final AsyncResolverExecutor executor = new AsyncResolverExecutor( 4, true );
+        final CountDownLatch bothStarted = new CountDownLatch( 2 );
+        final DataFetcher<Object> dataFetcher = env -> {
+            bothStarted.countDown();
+            // Only completes if the sibling field is fetched concurrently.
+            return bothStarted.await( 5, TimeUnit.SECONDS ) ? env.getField().getName() : null;
+        };
+
+        final GraphQLObjectType queryType = GraphQLObjectType.newObject()
+            .name( "Query" )
+            .field( GraphQLFieldDefinition.newFieldDefinition().name( "first" ).type( Scalars.GraphQLString ) )
+            .field( GraphQLFieldDefinition.newFieldDefinition().name( "second" ).type( Scalars.GraphQLString ) )
+            .build();
+        final GraphQLCodeRegistry codeRegistry = GraphQLCodeRegistry.newCodeRegistry()
+            .dataFetcher( FieldCoordinates.coordinates( "Query", "first" ), GraphQlBean.asyncDataFetcher( dataFetcher, executor ) )
+            .dataFetcher( FieldCoordinates.coordinates( "Query", "second" ), GraphQlBean.asyncDataFetcher( dataFetcher, executor ) )
+            .build();
+        final GraphQL graphQL =
+            GraphQL.newGraphQL( GraphQLSchema.newSchema().query( queryType ).codeRegistry( codeRegistry ).build() ).build();
+
+        final ExecutionResult result = graphQL.execute( "{first, second}" );
+
+        assertTrue( result.getErrors().isEmpty() );
+        assertEquals( Map.of( "first", "first", "second", "second" ), result.getData() );
+    }
+
+    @Test
+    public void runs_on_caller_thread_when_saturated()
+        throws Exception
+    {
+        final AsyncResolverExecutor executor = new AsyncResolverExecutor( 1, false );
+        final CountDownLatch release = new CountDownLatch( 1 );
+        final CountDownLatch started = new CountDownLatch( 1 );
+        executor.execute( () -> {
+            started.countDown();
+            awaitQuietly( release );
+        } );
+        started.await( 5, TimeUnit.SECONDS );
+
+        final AtomicReference<Thread> thread = new AtomicReference<>();
+        executor.execute( () -> thread.set( Thread.currentThread() ) );
+        release.countDown();
+
+        assertSame( Thread.currentThread(), thread.get() );
+    }
+
+    @Test
+    public void runs_on_caller_thread_after_shutdown()
+    {
+        final AsyncResolverExecutor executor = new AsyncResolverExecutor( 4, false );
+        executor.shutdown();
+
+        final AtomicReference<Thread> thread = new AtomicReference<>();
+        executor.execute( () -> thread.set( Thread.currentThread() ) );
+
+        assertSame( Thread.currentThread(), thread.get() );
+    }
+
+    private static void awaitQuietly( final CountDownLatch latch )
+    {
+        try
+        {
+            latch.await( 5, TimeUnit.SECONDS );
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.enonic.lib.graphql;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.Scalars;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLObjectType;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConnectionTypeTest
+{
+    private static final String QUERY = "{items{totalCount edges{node{id} cursor} pageInfo{startCursor endCursor hasNext}}}";
+
+    @Test
+    public void offset_cursors()
+    {
+        final ExecutionResult result = execute( null, Map.of( "total", 5, "start", 2, "hits", List.of( Map.of( "id", "a" ), Map.of( "id", "b" ) ) ) );
+
+        assertTrue( result.getErrors().isEmpty(), result.getErrors().toString() );
+        assertEquals( Map.of( "items", Map.of( "totalCount", 5, "edges",
+                                               List.of( Map.of( "node", Map.of( "id", "a" ), "cursor", CursorHelper.encodeOffset( 2 ) ),
+                                                        Map.of( "node", Map.of( "id", "b" ), "cursor", CursorHelper.encodeOffset( 3 ) ) ),
+                                               "pageInfo", Map.of( "startCursor", CursorHelper.encodeOffset( 2 ), "endCursor",
+                                                                   CursorHelper.encodeOffset( 3 ), "hasNext", true ) ) ), result.getData() );
+    }
+
+    @Test
+    public void keyset_cursors()
+    {
+        final ExecutionResult result = execute( "sort", Map.of( "total", 5, "hasNext", false, "hits",
+                                                                 List.of( Map.of( "id", "a", "sort", List.of( 10, "a" ) ),
+                                                                          Map.of( "id", "b", "sort", List.of( 12, "b" ) ) ) ) );
+
+        assertTrue( result.getErrors().isEmpty(), result.getErrors().toString() );
+        final Map<?, ?> items = (Map<?, ?>) ( (Map<?, ?>) result.getData() ).get( "items" );
+        assertEquals( CursorHelper.encodeKey( List.of( 12, "b" ) ), ( (Map<?, ?>) ( (List<?>) items.get( "edges" ) ).get( 1 ) ).get( "cursor" ) );
+        assertEquals( Map.of( "startCursor", CursorHelper.encodeKey( List.of( 10, "a" ) ), "endCursor", CursorHelper.encodeKey( List.of( 12, "b" ) ), "hasNext", false ),
+                      items.get( "pageInfo" ) );
+    }
+
+    private static ExecutionResult execute( final String cursorProperty, final Map<String, Object> connection )
+    {
+        final GraphQlBean bean = new GraphQlBean();
+        final GraphQLObjectType nodeType = GraphQLObjectType.newObject()
+            .name( "Node" )
+            .field( GraphQLFieldDefinition.newFieldDefinition().name( "id" ).type( Scalars.GraphQLID ) )
+            .build();
+        final GraphQLObjectType queryType = GraphQLObjectType.newObject()
+            .name( "Query" )
+            .field( GraphQLFieldDefinition.newFieldDefinition().name( "items" ).type( bean.createConnectionType( nodeType, cursorProperty ) ) )
+            .build();
+        final GraphQL graphQL = GraphQL.newGraphQL( bean.createSchema( queryType, null, null, null ) ).build();
+        return graphQL.execute( ExecutionInput.newExecutionInput().query( QUERY ).root( Map.of( "items", connection ) ).build() );
+    }
+}
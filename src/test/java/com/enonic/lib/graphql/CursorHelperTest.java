@@ -0,0 +1,80 @@
+package com.enonic.lib.graphql;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CursorHelperTest
+{
+    @Test
+    public void offset_round_trip()
+    {
+        for ( long offset : new long[]{0, 1, 63, 64, 12345, -1, Integer.MAX_VALUE, Long.MAX_VALUE, Long.MIN_VALUE} )
+        {
+            final String cursor = CursorHelper.encodeOffset( offset );
+            assertTrue( cursor.matches( "A[A-Za-z0-9_-]+" ), cursor );
+            assertEquals( offset, CursorHelper.decodeOffset( cursor ) );
+            assertEquals( Long.toString( offset ), CursorHelper.decode( cursor ) );
+        }
+        assertEquals( "AW8A", CursorHelper.encodeOffset( 0 ) );
+    }
+
+    @Test
+    public void decodes_text_offset_cursors()
+    {
+        assertEquals( 1, CursorHelper.decodeOffset( "MQ==" ) );
+        assertEquals( 12345, CursorHelper.decodeOffset( CursorHelper.encode( "12345" ) ) );
+        assertThrows( IllegalArgumentException.class, () -> CursorHelper.decodeOffset( CursorHelper.encode( "test" ) ) );
+        assertThrows( IllegalArgumentException.class,
+                      () -> CursorHelper.decodeOffset( CursorHelper.encode( "99999999999999999999" ) ) );
+    }
+
+    @Test
+    public void key_round_trip()
+    {
+        final List<Object> key = Arrays.asList( 12L, 1.5, "bé😀", true, null, -3L );
+        final String cursor = CursorHelper.encodeKey( key );
+
+        assertEquals( key, CursorHelper.decodeKey( cursor ) );
+        assertEquals( "12,1.5,bé😀,true,null,-3", CursorHelper.decode( cursor ) );
+        // Script numbers are doubles, whole ones are decoded as longs
+        assertEquals( List.of( 10L ), CursorHelper.decodeKey( CursorHelper.encodeKey( List.of( 10.0 ) ) ) );
+    }
+
+    @Test
+    public void rejects_lengths_beyond_the_cursor()
+    {
+        // Version, key, then a count of 2^31 - 1 values.
+        assertThrows( IllegalArgumentException.class, () -> CursorHelper.decodeKey( typed( 1, 'k', 0xFF, 0xFF, 0xFF, 0xFF, 0x07 ) ) );
+        // One string value of 2^31 - 1 bytes, and one whose length is negative as an int.
+        assertThrows( IllegalArgumentException.class,
+                      () -> CursorHelper.decodeKey( typed( 1, 'k', 1, 's', 0xFF, 0xFF, 0xFF, 0xFF, 0x07 ) ) );
+        assertThrows( IllegalArgumentException.class,
+                      () -> CursorHelper.decodeKey( typed( 1, 'k', 1, 's', 0xFF, 0xFF, 0xFF, 0xFF, 0x0F ) ) );
+        assertThrows( IllegalArgumentException.class, () -> CursorHelper.decode( typed( 1, 'k', 1, 's', 4, 'a' ) ) );
+    }
+
+    @Test
+    public void text_cursors_are_unchanged()
+    {
+        assertEquals( "dGVzdA==", CursorHelper.encode( "test" ) );
+        assertEquals( "test", CursorHelper.decode( "dGVzdA==" ) );
+        assertEquals( "été", CursorHelper.decode( CursorHelper.encode( "été" ) ) );
+    }
+
+    private static String typed( final int... bytes )
+    {
+        final byte[] payload = new byte[bytes.length];
+        for ( int i = 0; i < bytes.length; i++ )
+        {
+            payload[i] = (byte) bytes[i];
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString( payload );
+    }
+}
@@ -0,0 +1,91 @@
+package com.enonic.lib.graphql;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class DocumentCacheTest
+{
+    @Test
+    public void caches_parsed_document_per_query_and_operation()
+    {
+        final DocumentCache documentCache = new DocumentCache( 10 );
+        final GraphQL graphQL = newGraphQL( documentCache );
+
+        execute( graphQL, "{hello}", null, true );
+        execute( graphQL, "{hello}", null, true );
+        execute( graphQL, "query A {hello}", "A", true );
+
+        final DocumentCacheStats stats = documentCache.stats();
+        assertEquals( 2, stats.getSize() );
+        assertEquals( 1, stats.getHits() );
+        assertEquals( 2, stats.getMisses() );
+    }
+
+    @Test
+    public void evicts_least_recently_used_document()
+    {
+        final DocumentCache documentCache = new DocumentCache( 2 );
+        final GraphQL graphQL = newGraphQL( documentCache );
+
+        execute( graphQL, "{a: hello}", null, true );
+        execute( graphQL, "{b: hello}", null, true );
+        execute( graphQL, "{a: hello}", null, true );
+        execute( graphQL, "{c: hello}", null, true );
+        execute( graphQL, "{a: hello}", null, true );
+
+        final DocumentCacheStats stats = documentCache.stats();
+        assertEquals( 2, stats.getSize() );
+        assertEquals( 2, stats.getHits() );
+        assertEquals( 1, stats.getEvictions() );
+    }
+
+    @Test
+    public void bypasses_cache_when_disabled()
+    {
+        final DocumentCache documentCache = new DocumentCache( 10 );
+        final GraphQL graphQL = newGraphQL( documentCache );
+
+        final ExecutionResult result = execute( graphQL, "{hello}", null, false );
+        execute( graphQL, "{hello}", null, false );
+
+        assertFalse( result.getErrors().iterator().hasNext() );
+        final DocumentCacheStats stats = documentCache.stats();
+        assertEquals( 0, stats.getSize() );
+        assertEquals( 0, stats.getHits() );
+        assertEquals( 0, stats.getMisses() );
+    }
+
+    @Test
+    public void does_not_cache_invalid_documents()
+    {
+        final DocumentCache documentCache = new DocumentCache( 10 );
+        final GraphQL graphQL = newGraphQL( documentCache );
+
+        execute( graphQL, "{missing}", null, true );
+
+        assertEquals( 0, documentCache.stats().getSize() );
+    }
+
+    private static GraphQL newGraphQL( final DocumentCache documentCache )
+    {
+        return GraphQL.newGraphQL( GraphQLEngineCacheTest.newSchema() ).preparsedDocumentProvider( documentCache ).build();
+    }
+
+    private static ExecutionResult execute( final GraphQL graphQL, final String query, final String operationName,
+                                            final boolean cacheEnabled )
+    {
+        return graphQL.execute( ExecutionInput.newExecutionInput()
+                                    .query( query )
+                                    .operationName( operationName )
+                                    .graphQLContext( Map.<Object, Object>of( DocumentCache.ENABLED_CONTEXT_KEY, cacheEnabled ) )
+                                    .build() );
+    }
+}
@@ -0,0 +1,49 @@
+package com.enonic.lib.graphql;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import graphql.GraphQL;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ExecutionResultJsonWriterTest
+{
+    @Test
+    public void writes_data_with_nulls_and_escaped_strings()
+    {
+        final Map<String, Object> object = new LinkedHashMap<>();
+        object.put( "id", "a\"b\\c\nd" + (char) 0x2028 );
+        object.put( "count", 1 );
+        object.put( "ratio", 1.5 );
+        object.put( "enabled", false );
+        object.put( "missing", null );
+        object.put( "list", Arrays.asList( "x", null, Map.of( "y", 2 ) ) );
+
+        final ExecutionResult result = ExecutionResultImpl.newExecutionResult().data( Map.of( "getObject", object ) ).build();
+
+        assertEquals( "{\"data\":{\"getObject\":{\"id\":\"a\\\"b\\\\c\\nd\\u2028\",\"count\":1,\"ratio\":1.5,\"enabled\":false," +
+                          "\"missing\":null,\"list\":[\"x\",null,{\"y\":2}]}}}", toJson( result ) );
+    }
+
+    @Test
+    public void writes_validation_errors_without_data()
+    {
+        final ExecutionResult result = GraphQL.newGraphQL( GraphQLEngineCacheTest.newSchema() ).build().execute( "{missing}" );
+
+        assertEquals( "{\"errors\":[{\"errorType\":\"ValidationError\"," +
+                          "\"message\":\"Validation error (FieldUndefined@[missing]) : Field 'missing' in type 'Query' is undefined\"," +
+                          "\"locations\":[{\"line\":1,\"column\":2}],\"validationErrorType\":\"FieldUndefined\"}]}", toJson( result ) );
+    }
+
+    private static String toJson( final ExecutionResult result )
+    {
+        return new String( ExecutionResultJsonWriter.toJson( result ), StandardCharsets.UTF_8 );
+    }
+}
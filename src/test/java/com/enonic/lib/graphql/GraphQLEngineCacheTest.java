@@ -0,0 +1,70 @@
+package com.enonic.lib.graphql;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import graphql.Scalars;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLSchema;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class GraphQLEngineCacheTest
+{
+    @Test
+    public void reuses_engine_for_same_schema()
+    {
+        final AtomicInteger builds = new AtomicInteger();
+        final GraphQLEngineCache cache = new GraphQLEngineCache( schema -> {
+            builds.incrementAndGet();
+            return new GraphQLEngine( schema );
+        } );
+
+        final GraphQLSchema schema = newSchema();
+        final GraphQLEngine first = cache.get( schema );
+        final GraphQLEngine second = cache.get( schema );
+
+        assertSame( first, second );
+        assertEquals( 1, builds.get() );
+    }
+
+    @Test
+    public void builds_new_engine_for_rebuilt_schema()
+    {
+        final GraphQLEngineCache cache = new GraphQLEngineCache( GraphQLEngine::new );
+
+        final GraphQLEngine first = cache.get( newSchema() );
+        final GraphQLEngine second = cache.get( newSchema() );
+
+        assertNotSame( first, second );
+    }
+
+    @Test
+    public void evicts_oldest_engine()
+    {
+        final GraphQLEngineCache cache = new GraphQLEngineCache( 2, GraphQLEngine::new );
+
+        final GraphQLSchema schema1 = newSchema();
+        final GraphQLSchema schema2 = newSchema();
+        final GraphQLEngine engine1 = cache.get( schema1 );
+        final GraphQLEngine engine2 = cache.get( schema2 );
+        cache.get( newSchema() );
+
+        assertEquals( 2, cache.size() );
+        assertSame( engine2, cache.get( schema2 ) );
+        assertNotSame( engine1, cache.get( schema1 ) );
+    }
+
+    static GraphQLSchema newSchema()
+    {
+        final GraphQLObjectType queryType = GraphQLObjectType.newObject()
+            .name( "Query" )
+            .field( GraphQLFieldDefinition.newFieldDefinition().name( "hello" ).type( Scalars.GraphQLString ) )
+            .build();
+        return GraphQLSchema.newSchema().query( queryType ).build();
+    }
+}
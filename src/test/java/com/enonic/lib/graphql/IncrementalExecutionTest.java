@@ -0,0 +1,110 @@
+package com.enonic.lib.graphql;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.ExperimentalApi;
+import graphql.Scalars;
+import graphql.incremental.DeferPayload;
+import graphql.incremental.DelayedIncrementalPartialResult;
+import graphql.incremental.IncrementalExecutionResult;
+import graphql.schema.DataFetcher;
+import graphql.schema.FieldCoordinates;
+import graphql.schema.GraphQLCodeRegistry;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLSchema;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IncrementalExecutionTest
+{
+    private static final String QUERY = "{header ... @defer(label: \"slow\") {body}}";
+
+    private final GraphQLEngine engine = new GraphQLEngine( createSchema() );
+
+    @Test
+    public void deferred_fragments_come_in_subsequent_payloads()
+    {
+        final ExecutionResult result = execute( true );
+
+        assertTrue( result.getErrors().isEmpty(), result.getErrors().toString() );
+        assertEquals( Map.of( "header", "header" ), result.getData() );
+        final IncrementalExecutionResult incrementalResult = assertInstanceOf( IncrementalExecutionResult.class, result );
+        assertTrue( incrementalResult.hasNext() );
+
+        final List<DelayedIncrementalPartialResult> payloads = new ArrayList<>();
+        incrementalResult.getIncrementalItemPublisher().subscribe( new Subscriber<>()
+        {
+            @Override
+            public void onSubscribe( final Subscription subscription )
+            {
+                subscription.request( Long.MAX_VALUE );
+            }
+
+            @Override
+            public void onNext( final DelayedIncrementalPartialResult payload )
+            {
+                payloads.add( payload );
+            }
+
+            @Override
+            public void onError( final Throwable throwable )
+            {
+            }
+
+            @Override
+            public void onComplete()
+            {
+            }
+        } );
+
+        assertEquals( 1, payloads.size() );
+        assertFalse( payloads.get( 0 ).hasNext() );
+        final DeferPayload deferPayload = assertInstanceOf( DeferPayload.class, payloads.get( 0 ).getIncremental().get( 0 ) );
+        assertEquals( "slow", deferPayload.getLabel() );
+        assertEquals( Map.of( "body", "body" ), deferPayload.getData() );
+    }
+
+    @Test
+    public void defer_is_ignored_without_incremental_support()
+    {
+        final ExecutionResult result = execute( false );
+
+        assertFalse( result instanceof IncrementalExecutionResult );
+        assertEquals( Map.of( "header", "header", "body", "body" ), result.getData() );
+    }
+
+    private ExecutionResult execute( final boolean incremental )
+    {
+        return engine.getGraphQL()
+            .execute( ExecutionInput.newExecutionInput()
+                          .query( QUERY )
+                          .graphQLContext( Map.of( ExperimentalApi.ENABLE_INCREMENTAL_SUPPORT, incremental ) )
+                          .build() );
+    }
+
+    private static GraphQLSchema createSchema()
+    {
+        final GraphQLObjectType queryType = GraphQLObjectType.newObject()
+            .name( "Query" )
+            .field( GraphQLFieldDefinition.newFieldDefinition().name( "header" ).type( Scalars.GraphQLString ) )
+            .field( GraphQLFieldDefinition.newFieldDefinition().name( "body" ).type( Scalars.GraphQLString ) )
+            .build();
+        final GraphQLCodeRegistry codeRegistry = GraphQLCodeRegistry.newCodeRegistry()
+            .dataFetcher( FieldCoordinates.coordinates( "Query", "header" ), (DataFetcher<?>) env -> "header" )
+            .dataFetcher( FieldCoordinates.coordinates( "Query", "body" ), (DataFetcher<?>) env -> "body" )
+            .build();
+        return GraphQLSchema.newSchema().query( queryType ).codeRegistry( codeRegistry ).build();
+    }
+}
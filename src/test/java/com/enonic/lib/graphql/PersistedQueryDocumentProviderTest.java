@@ -0,0 +1,93 @@
+package com.enonic.lib.graphql;
+
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.execution.preparsed.persisted.PersistedQueryIdInvalid;
+import graphql.execution.preparsed.persisted.PersistedQueryNotFound;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PersistedQueryDocumentProviderTest
+{
+    private static final String QUERY = "{hello}";
+
+    @Test
+    public void unknown_hash_returns_not_found_then_registers()
+    {
+        final DocumentCache documentCache = new DocumentCache( 10 );
+        final InMemoryPersistedQueryStore store = new InMemoryPersistedQueryStore();
+        final GraphQL graphQL = newGraphQL( documentCache, store );
+        final String hash = PersistedQueryDocumentProvider.sha256Hex( QUERY );
+
+        final ExecutionResult notFound = execute( graphQL, ExecutionInput.PERSISTED_QUERY_MARKER, hash );
+        assertEquals( 1, notFound.getErrors().size() );
+        assertInstanceOf( PersistedQueryNotFound.class, notFound.getErrors().get( 0 ).getErrorType() );
+        assertEquals( "PersistedQueryNotFound", notFound.getErrors().get( 0 ).getMessage() );
+
+        final ExecutionResult registered = execute( graphQL, QUERY, hash );
+        assertTrue( registered.getErrors().isEmpty() );
+        assertEquals( QUERY, store.get( hash ) );
+
+        final ExecutionResult byHash = execute( graphQL, ExecutionInput.PERSISTED_QUERY_MARKER, hash );
+        assertTrue( byHash.getErrors().isEmpty() );
+        assertEquals( 1, documentCache.stats().getHits() );
+    }
+
+    @Test
+    public void hash_case_is_ignored()
+    {
+        final InMemoryPersistedQueryStore store = new InMemoryPersistedQueryStore();
+        final GraphQL graphQL = newGraphQL( new DocumentCache( 10 ), store );
+        final String hash = PersistedQueryDocumentProvider.sha256Hex( QUERY );
+
+        assertTrue( execute( graphQL, QUERY, hash.toUpperCase( Locale.ROOT ) ).getErrors().isEmpty() );
+        assertEquals( QUERY, store.get( hash ) );
+
+        final String mixedCase = hash.substring( 0, 32 ).toUpperCase( Locale.ROOT ) + hash.substring( 32 );
+        assertTrue( execute( graphQL, ExecutionInput.PERSISTED_QUERY_MARKER, mixedCase ).getErrors().isEmpty() );
+    }
+
+    @Test
+    public void rejects_hash_not_matching_query()
+    {
+        final InMemoryPersistedQueryStore store = new InMemoryPersistedQueryStore();
+        final GraphQL graphQL = newGraphQL( new DocumentCache( 10 ), store );
+
+        final ExecutionResult result = execute( graphQL, QUERY, PersistedQueryDocumentProvider.sha256Hex( "{other}" ) );
+
+        assertInstanceOf( PersistedQueryIdInvalid.class, result.getErrors().get( 0 ).getErrorType() );
+    }
+
+    @Test
+    public void executes_plain_queries_without_hash()
+    {
+        final GraphQL graphQL = newGraphQL( new DocumentCache( 10 ), new InMemoryPersistedQueryStore() );
+
+        final ExecutionResult result = graphQL.execute( QUERY );
+
+        assertTrue( result.getErrors().isEmpty() );
+    }
+
+    private static GraphQL newGraphQL( final DocumentCache documentCache, final PersistedQueryStore store )
+    {
+        return GraphQL.newGraphQL( GraphQLEngineCacheTest.newSchema() )
+            .preparsedDocumentProvider( new PersistedQueryDocumentProvider( documentCache, store ) )
+            .build();
+    }
+
+    private static ExecutionResult execute( final GraphQL graphQL, final String query, final String hash )
+    {
+        return graphQL.execute( ExecutionInput.newExecutionInput()
+                                    .query( query )
+                                    .extensions( Map.of( "persistedQuery", Map.of( "version", 1, "sha256Hash", hash ) ) )
+                                    .build() );
+    }
+}
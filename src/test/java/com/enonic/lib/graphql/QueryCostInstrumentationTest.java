@@ -0,0 +1,115 @@
+package com.enonic.lib.graphql;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.Scalars;
+import graphql.schema.DataFetcher;
+import graphql.schema.FieldCoordinates;
+import graphql.schema.GraphQLArgument;
+import graphql.schema.GraphQLCodeRegistry;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLTypeReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class QueryCostInstrumentationTest
+{
+    private static final String QUERY = "query($n:Int){items(first:10){name children(first:$n){name __typename}}}";
+
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    @Test
+    public void reports_cost_of_operation()
+    {
+        final ExecutionResult result = execute( new QueryLimits( null, null, null ) );
+
+        assertTrue( result.getErrors().isEmpty() );
+        // children: 5 * (1 + 1), items: 10 * (2 + 1 + 10)
+        assertEquals( Map.of( "depth", 3, "fields", 4, "cost", 130L ), result.getExtensions().get( QueryCostInstrumentation.EXTENSION_NAME ) );
+    }
+
+    @Test
+    public void rejects_operation_over_budget_before_resolving()
+    {
+        final ExecutionResult result = execute( new QueryLimits( null, null, 100L ) );
+
+        assertNull( result.getData() );
+        assertEquals( 0, fetches.get() );
+        assertEquals( 1, result.getErrors().size() );
+        final QueryLimitExceededException error = assertInstanceOf( QueryLimitExceededException.class, result.getErrors().get( 0 ) );
+        assertEquals( Map.of( "code", QueryLimitExceededException.CODE, "limit", "maxCost", "value", 130L, "max", 100L ),
+                      error.getExtensions() );
+    }
+
+    @Test
+    public void rejects_operation_too_deep()
+    {
+        final ExecutionResult result = execute( new QueryLimits( 2, null, null ) );
+
+        assertEquals( "maxDepth", result.getErrors().get( 0 ).getExtensions().get( "limit" ) );
+        assertEquals( 0, fetches.get() );
+    }
+
+    @Test
+    public void skips_analysis_without_limits()
+    {
+        final ExecutionResult result = execute( null );
+
+        assertTrue( result.getErrors().isEmpty() );
+        assertNull( result.getExtensions() );
+    }
+
+    private ExecutionResult execute( final QueryLimits limits )
+    {
+        final ExecutionInput.Builder executionInput = ExecutionInput.newExecutionInput().query( QUERY ).variables( Map.of( "n", 5 ) );
+        if ( limits != null )
+        {
+            executionInput.graphQLContext( Map.of( QueryLimits.CONTEXT_KEY, limits ) );
+        }
+        return new GraphQLEngine( newSchema() ).getGraphQL().execute( executionInput.build() );
+    }
+
+    private GraphQLSchema newSchema()
+    {
+        final GraphQLObjectType itemType = GraphQLObjectType.newObject()
+            .name( "Item" )
+            .field( GraphQLFieldDefinition.newFieldDefinition().name( "name" ).type( Scalars.GraphQLString ) )
+            .field( GraphQLFieldDefinition.newFieldDefinition()
+                        .name( "children" )
+                        .argument( GraphQLArgument.newArgument().name( "first" ).type( Scalars.GraphQLInt ) )
+                        .type( GraphQLList.list( GraphQLTypeReference.typeRef( "Item" ) ) )
+                        .withAppliedDirective( CostDirective.apply( null, List.of( "first" ) ) ) )
+            .build();
+        final GraphQLObjectType queryType = GraphQLObjectType.newObject()
+            .name( "Query" )
+            .field( GraphQLFieldDefinition.newFieldDefinition()
+                        .name( "items" )
+                        .argument( GraphQLArgument.newArgument().name( "first" ).type( Scalars.GraphQLInt ) )
+                        .type( GraphQLList.list( itemType ) )
+                        .withAppliedDirective( CostDirective.apply( 2, List.of( "first" ) ) ) )
+            .build();
+        final GraphQLCodeRegistry codeRegistry = GraphQLCodeRegistry.newCodeRegistry()
+            .dataFetcher( FieldCoordinates.coordinates( "Query", "items" ), (DataFetcher<?>) env -> {
+                fetches.incrementAndGet();
+                return List.of( Map.of( "name", "item" ) );
+            } )
+            .build();
+        return GraphQLSchema.newSchema()
+            .query( queryType )
+            .additionalDirective( CostDirective.DEFINITION )
+            .codeRegistry( codeRegistry )
+            .build();
+    }
+}
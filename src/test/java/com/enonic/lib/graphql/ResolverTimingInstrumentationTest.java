@@ -0,0 +1,109 @@
+package com.enonic.lib.graphql;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.Scalars;
+import graphql.schema.DataFetcher;
+import graphql.schema.FieldCoordinates;
+import graphql.schema.GraphQLCodeRegistry;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLSchema;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResolverTimingInstrumentationTest
+{
+    private final GraphQLEngine engine = new GraphQLEngine( newSchema() );
+
+    @Test
+    public void aggregates_resolver_metrics()
+    {
+        execute( Map.of( ResolverTimingInstrumentation.METRICS_CONTEXT_KEY, true ) );
+        execute( Map.of( ResolverTimingInstrumentation.METRICS_CONTEXT_KEY, true ) );
+
+        final Map<String, ResolverStats> stats = statsByField();
+        assertEquals( 2, stats.size() );
+        assertEquals( 2, stats.get( "Query.hello" ).getCalls() );
+        assertEquals( 0, stats.get( "Query.hello" ).getErrors() );
+        assertEquals( 2, stats.get( "Query.failing" ).getErrors() );
+        assertTrue( stats.get( "Query.hello" ).getP99Micros() <= stats.get( "Query.hello" ).getMaxMicros() );
+    }
+
+    @Test
+    public void adds_tracing_extension()
+    {
+        final ExecutionResult result = execute( Map.of( ResolverTimingInstrumentation.TRACING_CONTEXT_KEY, true ) );
+
+        final Map<?, ?> tracing = (Map<?, ?>) result.getExtensions().get( ResolverTimingInstrumentation.EXTENSION_NAME );
+        assertEquals( 1, tracing.get( "version" ) );
+        final List<?> resolvers = (List<?>) ( (Map<?, ?>) tracing.get( "execution" ) ).get( "resolvers" );
+        assertEquals( 2, resolvers.size() );
+        final Map<?, ?> hello = resolvers.stream()
+            .map( Map.class::cast )
+            .filter( resolver -> "hello".equals( resolver.get( "fieldName" ) ) )
+            .findFirst()
+            .orElseThrow();
+        assertEquals( List.of( "hello" ), hello.get( "path" ) );
+        assertEquals( "Query", hello.get( "parentType" ) );
+        assertEquals( "String", hello.get( "returnType" ) );
+        assertTrue( engine.getResolverMetrics().snapshot().getResolvers().isEmpty() );
+    }
+
+    @Test
+    public void records_nothing_when_not_enabled()
+    {
+        final ExecutionResult result = execute( Map.of() );
+
+        assertNull( result.getExtensions() );
+        assertTrue( engine.getResolverMetrics().snapshot().getResolvers().isEmpty() );
+    }
+
+    @Test
+    public void histogram_buckets_are_contiguous()
+    {
+        for ( long micros = 0; micros < 100_000; micros++ )
+        {
+            final int bucket = LatencyHistogram.bucket( micros );
+            assertTrue( micros <= LatencyHistogram.upperBound( bucket ) );
+            assertTrue( bucket == 0 || micros > LatencyHistogram.upperBound( bucket - 1 ) );
+        }
+    }
+
+    private ExecutionResult execute( final Map<Object, Object> graphQLContext )
+    {
+        return engine.getGraphQL()
+            .execute( ExecutionInput.newExecutionInput().query( "{hello failing}" ).graphQLContext( graphQLContext ).build() );
+    }
+
+    private Map<String, ResolverStats> statsByField()
+    {
+        final Map<String, ResolverStats> stats = new HashMap<>();
+        engine.getResolverMetrics().snapshot().getResolvers().forEach( resolver -> stats.put( resolver.getField(), resolver ) );
+        return stats;
+    }
+
+    private static GraphQLSchema newSchema()
+    {
+        final GraphQLObjectType queryType = GraphQLObjectType.newObject()
+            .name( "Query" )
+            .field( GraphQLFieldDefinition.newFieldDefinition().name( "hello" ).type( Scalars.GraphQLString ) )
+            .field( GraphQLFieldDefinition.newFieldDefinition().name( "failing" ).type( Scalars.GraphQLString ) )
+            .build();
+        final GraphQLCodeRegistry codeRegistry = GraphQLCodeRegistry.newCodeRegistry()
+            .dataFetcher( FieldCoordinates.coordinates( "Query", "hello" ), (DataFetcher<?>) env -> "world" )
+            .dataFetcher( FieldCoordinates.coordinates( "Query", "failing" ), (DataFetcher<?>) env -> {
+                throw new IllegalStateException( "failing" );
+            } )
+            .build();
+        return GraphQLSchema.newSchema().query( queryType ).codeRegistry( codeRegistry ).build();
+    }
+}
@@ -0,0 +1,246 @@
+package com.enonic.lib.graphql;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import graphql.Scalars;
+import graphql.schema.DataFetcher;
+import graphql.schema.FieldCoordinates;
+import graphql.schema.GraphQLCodeRegistry;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLSchema;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ResultCacheTest
+{
+    private long now;
+
+    private final ResultCache cache = new ResultCache( 2, () -> now );
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    public void keys_are_normalized()
+    {
+        final ResultCache.ResultKey key = cache.key( "master", "{ a  b }", null, Map.of( "x", 1, "y", "1" ) );
+
+        assertEquals( key, cache.key( "master", "{a b}", null, Map.of( "y", "1", "x", 1 ) ) );
+        assertEquals( false, key.equals( cache.key( "draft", "{a b}", null, Map.of( "y", "1", "x", 1 ) ) ) );
+        assertEquals( false, key.equals( cache.key( "master", "{a b}", null, Map.of( "y", 1, "x", 1 ) ) ) );
+        assertNull( cache.key( "master", "{a", null, Map.of() ) );
+        assertNull( cache.key( "master", "mutation{a}", null, Map.of() ) );
+    }
+
+    @Test
+    public void results_expire_after_max_age()
+    {
+        final ResultCache.ResultKey key = cache.key( "", "{a}", null, Map.of() );
+        final ExecutionResult first = get( key, List.of(), 10 );
+
+        now = 9_999;
+        assertSame( first, get( key, List.of(), 10 ) );
+        now = 10_000;
+        get( key, List.of(), 10 );
+
+        assertEquals( 2, executions.get() );
+        assertEquals( 1, cache.stats().getHits() );
+    }
+
+    @Test
+    public void uncacheable_results_are_not_kept()
+    {
+        final ResultCache.ResultKey key = cache.key( "", "{a}", null, Map.of() );
+        get( key, List.of(), 0 );
+        get( key, List.of(), 0 );
+
+        assertEquals( 2, executions.get() );
+        assertEquals( 0, cache.size() );
+    }
+
+    @Test
+    public void invalidate_by_tag()
+    {
+        final ResultCache.ResultKey a = cache.key( "", "{a}", null, Map.of() );
+        final ResultCache.ResultKey b = cache.key( "", "{b}", null, Map.of() );
+        get( a, List.of( "content" ), 60 );
+        get( b, List.of( "menu" ), 60 );
+
+        assertEquals( 1, cache.invalidate( "content" ) );
+        get( a, List.of( "content" ), 60 );
+        get( b, List.of( "menu" ), 60 );
+
+        assertEquals( 3, executions.get() );
+    }
+
+    @Test
+    public void concurrent_misses_share_one_execution()
+        throws Exception
+    {
+        final ResultCache.ResultKey key = cache.key( "", "{a}", null, Map.of() );
+        // Only the executions of a key whose result was kept before are shared.
+        get( key, List.of(), 1 );
+        now = 1_000;
+        final CountDownLatch started = new CountDownLatch( 1 );
+        final CountDownLatch release = new CountDownLatch( 1 );
+        final ExecutorService executor = Executors.newFixedThreadPool( 4 );
+        try
+        {
+            final Future<ExecutionResult> first = executor.submit( () -> cache.get( key, List.of(), new CachePolicy( 60 ), () -> {
+                started.countDown();
+                await( release );
+                return result();
+            } ) );
+            started.await();
+            final List<Future<ExecutionResult>> others =
+                List.of( executor.submit( () -> get( key, List.of(), 60 ) ), executor.submit( () -> get( key, List.of(), 60 ) ) );
+            while ( cache.stats().getShared() < 2 )
+            {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            final ExecutionResult result = first.get( 5, TimeUnit.SECONDS );
+            for ( Future<ExecutionResult> other : others )
+            {
+                assertSame( result, other.get( 5, TimeUnit.SECONDS ) );
+            }
+            assertEquals( 1, executions.get() );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void concurrent_misses_of_unknown_keys_are_not_shared()
+        throws Exception
+    {
+        final ResultCache.ResultKey key = cache.key( "", "{a}", null, Map.of() );
+        final CountDownLatch started = new CountDownLatch( 1 );
+        final CountDownLatch release = new CountDownLatch( 1 );
+        final ExecutorService executor = Executors.newFixedThreadPool( 2 );
+        try
+        {
+            final Future<ExecutionResult> first = executor.submit( () -> cache.get( key, List.of(), new CachePolicy( 0 ), () -> {
+                started.countDown();
+                await( release );
+                return result();
+            } ) );
+            started.await();
+            // The result may depend on the context or user of the caller, so the second miss executes on its own.
+            get( key, List.of(), 0 );
+            release.countDown();
+            first.get( 5, TimeUnit.SECONDS );
+
+            assertEquals( 1, executions.get() );
+            assertEquals( 0, cache.stats().getShared() );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void max_age_from_cache_control_hints()
+    {
+        final GraphQLEngine engine = new GraphQLEngine( createSchema() );
+
+        assertEquals( 30, maxAge( engine, "{header}", 0 ) );
+        assertEquals( 30, maxAge( engine, "{header news{title}}", 0 ) );
+        assertEquals( 0, maxAge( engine, "{header latest}", 0 ) );
+        assertEquals( 60, maxAge( engine, "{latest}", 60 ) );
+        assertEquals( 0, maxAge( engine, "mutation{touch}", 60 ) );
+    }
+
+    private ExecutionResult get( final ResultCache.ResultKey key, final List<String> tags, final int maxAge )
+    {
+        final CachePolicy policy = new CachePolicy( 0 );
+        return cache.get( key, tags, policy, () -> {
+            executions.incrementAndGet();
+            policy.restrict( maxAge );
+            return result();
+        } );
+    }
+
+    private static ExecutionResult result()
+    {
+        return ExecutionResultImpl.newExecutionResult().data( Map.of( "a", "value" ) ).build();
+    }
+
+    private static void await( final CountDownLatch latch )
+    {
+        try
+        {
+            latch.await();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int maxAge( final GraphQLEngine engine, final String query, final int defaultMaxAge )
+    {
+        final CachePolicy policy = new CachePolicy( defaultMaxAge );
+        final ExecutionResult result = engine.getGraphQL()
+            .execute( ExecutionInput.newExecutionInput().query( query ).graphQLContext( Map.of( CachePolicy.CONTEXT_KEY, policy ) ).build() );
+        assertEquals( List.of(), result.getErrors() );
+        return policy.getMaxAge();
+    }
+
+    private static GraphQLSchema createSchema()
+    {
+        final GraphQLObjectType newsType = GraphQLObjectType.newObject()
+            .name( "News" )
+            .field( GraphQLFieldDefinition.newFieldDefinition().name( "title" ).type( Scalars.GraphQLString ) )
+            .build();
+        final GraphQLObjectType queryType = GraphQLObjectType.newObject()
+            .name( "Query" )
+            .field( GraphQLFieldDefinition.newFieldDefinition()
+                        .name( "header" )
+                        .type( Scalars.GraphQLString )
+                        .withAppliedDirective( CacheControlDirective.apply( 30 ) ) )
+            .field( GraphQLFieldDefinition.newFieldDefinition()
+                        .name( "news" )
+                        .type( newsType )
+                        .withAppliedDirective( CacheControlDirective.apply( 300 ) ) )
+            .field( GraphQLFieldDefinition.newFieldDefinition().name( "latest" ).type( Scalars.GraphQLString ) )
+            .build();
+        final GraphQLObjectType mutationType = GraphQLObjectType.newObject()
+            .name( "Mutation" )
+            .field( GraphQLFieldDefinition.newFieldDefinition()
+                        .name( "touch" )
+                        .type( Scalars.GraphQLString )
+                        .withAppliedDirective( CacheControlDirective.apply( 30 ) ) )
+            .build();
+        final GraphQLCodeRegistry codeRegistry = GraphQLCodeRegistry.newCodeRegistry()
+            .dataFetcher( FieldCoordinates.coordinates( "Query", "header" ), (DataFetcher<?>) env -> "header" )
+            .dataFetcher( FieldCoordinates.coordinates( "Query", "news" ), (DataFetcher<?>) env -> Map.of( "title", "news" ) )
+            .dataFetcher( FieldCoordinates.coordinates( "Query", "latest" ), (DataFetcher<?>) env -> "latest" )
+            .dataFetcher( FieldCoordinates.coordinates( "Mutation", "touch" ), (DataFetcher<?>) env -> "touched" )
+            .build();
+        return GraphQLSchema.newSchema()
+            .query( queryType )
+            .mutation( mutationType )
+            .codeRegistry( codeRegistry )
+            .additionalDirective( CacheControlDirective.DEFINITION )
+            .build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.enonic.lib.graphql;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLSchema;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SchemaFromSdlTest
+{
+    private static final String SDL = "type Query {\n" +
+        "  search(first: Int): [Item] @cost(weight: 2, multipliers: [\"first\"])\n" +
+        "  today: Date\n" +
+        "}\n" +
+        "type Item {\n" +
+        "  id: ID!\n" +
+        "}\n" +
+        "scalar Date\n";
+
+    @Test
+    public void cost_directive_without_definition()
+    {
+        final GraphQLSchema schema = new GraphQlBean().createSchemaFromSdl( SDL, null );
+
+        final GraphQLFieldDefinition search = schema.getQueryType().getFieldDefinition( "search" );
+        assertEquals( 2, CostDirective.getWeight( search ) );
+        assertEquals( List.of( "first" ), CostDirective.getMultipliers( search ) );
+    }
+
+    @Test
+    public void default_property_fields()
+    {
+        final GraphQLSchema schema = new GraphQlBean().createSchemaFromSdl( SDL, null );
+
+        final ExecutionResult result = GraphQL.newGraphQL( schema )
+            .build()
+            .execute( ExecutionInput.newExecutionInput()
+                          .query( "{search{id}}" )
+                          .root( Map.of( "search", List.of( Map.of( "id", "a" ) ) ) )
+                          .build() );
+
+        assertTrue( result.getErrors().isEmpty(), result.getErrors().toString() );
+        assertEquals( Map.of( "search", List.of( Map.of( "id", "a" ) ) ), result.getData() );
+    }
+}
@@ -0,0 +1,155 @@
+package com.enonic.lib.graphql;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.Scalars;
+import graphql.scalars.ExtendedScalars;
+import graphql.schema.FieldCoordinates;
+import graphql.schema.GraphQLArgument;
+import graphql.schema.GraphQLEnumType;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLSchema;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SchemaSnapshotTest
+{
+    private static final String QUERY = "{items{totalCount edges{node{id kind} cursor} pageInfo{endCursor hasNext}}}";
+
+    private static final Map<String, Object> ROOT =
+        Map.of( "items", Map.of( "total", 3, "hits", List.of( Map.of( "id", "a", "kind", "k1" ), Map.of( "id", "b", "kind", "k2" ) ) ) );
+
+    @TempDir
+    Path cacheDir;
+
+    @Test
+    public void save_and_load()
+    {
+        final GraphQlBean builder = new GraphQlBean();
+        final GraphQLSchema built = createSchema( builder );
+        assertTrue( builder.saveSchema( cacheDir.toString(), null, "test", "v1", built ) );
+
+        final GraphQlBean loader = new GraphQlBean();
+        final GraphQLSchema loaded = loader.loadSchema( cacheDir.toString(), null, "test", "v1", null );
+        assertNotNull( loaded );
+
+        final ExecutionResult expected = execute( built );
+        assertTrue( expected.getErrors().isEmpty(), expected.getErrors().toString() );
+        assertEquals( expected.toSpecification(), execute( loaded ).toSpecification() );
+    }
+
+    @Test
+    public void fingerprint_mismatch()
+    {
+        final GraphQlBean builder = new GraphQlBean();
+        builder.saveSchema( cacheDir.toString(), null, "test", "v1", createSchema( builder ) );
+
+        assertNull( new GraphQlBean().loadSchema( cacheDir.toString(), null, "test", "v2", null ) );
+        assertNull( new GraphQlBean().loadSchema( cacheDir.toString(), null, "other", "v1", null ) );
+    }
+
+    @Test
+    public void script_fields_need_resolvers()
+    {
+        final GraphQlBean builder = new GraphQlBean();
+        final GraphQLSchema schema = createSchema( builder );
+        final SchemaSnapshot snapshot = SchemaSnapshot.of( schema, Map.of( FieldCoordinates.coordinates( "Query", "items" ), FieldBinding.SCRIPT ) );
+        snapshot.write( cacheDir, "test", "v1" );
+
+        assertNull( new GraphQlBean().loadSchema( cacheDir.toString(), null, "test", "v1", null ) );
+    }
+
+    @Test
+    public void failed_write_is_reported_and_cleaned_up()
+        throws Exception
+    {
+        // A non-empty directory in place of the SDL file makes the write fail after its temporary file was created.
+        Files.createDirectories( cacheDir.resolve( "test.graphqls" ) );
+        Files.writeString( cacheDir.resolve( "test.graphqls" ).resolve( "blocker" ), "" );
+
+        final GraphQlBean builder = new GraphQlBean();
+        assertFalse( builder.saveSchema( cacheDir.toString(), null, "test", "v1", createSchema( builder ) ) );
+        try (Stream<Path> files = Files.list( cacheDir ))
+        {
+            assertEquals( List.of(), files.filter( file -> file.toString().endsWith( ".tmp" ) ).toList() );
+        }
+    }
+
+    @Test
+    public void unsupported_enum_values()
+    {
+        final GraphQLEnumType enumType = GraphQLEnumType.newEnum().name( "Level" ).value( "LOW", 1 ).build();
+        final GraphQLObjectType queryType = GraphQLObjectType.newObject()
+            .name( "Query" )
+            .field( GraphQLFieldDefinition.newFieldDefinition().name( "level" ).type( enumType ) )
+            .build();
+
+        assertFalse( new GraphQlBean().saveSchema( cacheDir.toString(), null, "test", "v1", GraphQLSchema.newSchema().query( queryType ).build() ) );
+    }
+
+    @Test
+    public void cost_directive()
+    {
+        final GraphQLObjectType queryType = GraphQLObjectType.newObject()
+            .name( "Query" )
+            .field( GraphQLFieldDefinition.newFieldDefinition()
+                        .name( "search" )
+                        .type( Scalars.GraphQLString )
+                        .argument( GraphQLArgument.newArgument().name( "first" ).type( Scalars.GraphQLInt ) )
+                        .withAppliedDirective( CostDirective.apply( 5, List.of( "first" ) ) ) )
+            .build();
+        final GraphQLSchema schema = GraphQLSchema.newSchema().query( queryType ).additionalDirective( CostDirective.DEFINITION ).build();
+        assertTrue( new GraphQlBean().saveSchema( cacheDir.toString(), null, "test", "v1", schema ) );
+
+        final GraphQLSchema loaded = new GraphQlBean().loadSchema( cacheDir.toString(), null, "test", "v1", null );
+        final GraphQLFieldDefinition search = loaded.getQueryType().getFieldDefinition( "search" );
+        assertEquals( 5, CostDirective.getWeight( search ) );
+        assertEquals( List.of( "first" ), CostDirective.getMultipliers( search ) );
+    }
+
+    @Test
+    public void field_binding_format()
+    {
+        for ( FieldBinding binding : List.of( FieldBinding.SCRIPT, FieldBinding.property( "total" ), FieldBinding.cursor( "cursor" ),
+                                              FieldBinding.edges( null ), FieldBinding.edges( "sort" ), FieldBinding.pageInfo( "a:b" ) ) )
+        {
+            assertEquals( binding.format(), FieldBinding.parse( binding.format() ).format() );
+        }
+    }
+
+    private static GraphQLSchema createSchema( final GraphQlBean bean )
+    {
+        final GraphQLEnumType kindType = GraphQLEnumType.newEnum().name( "Kind" ).value( "ONE", "k1" ).value( "TWO", "k2" ).build();
+        final GraphQLObjectType nodeType = GraphQLObjectType.newObject()
+            .name( "Node" )
+            .field( GraphQLFieldDefinition.newFieldDefinition().name( "id" ).type( Scalars.GraphQLID ) )
+            .field( GraphQLFieldDefinition.newFieldDefinition().name( "kind" ).type( kindType ) )
+            .field( GraphQLFieldDefinition.newFieldDefinition().name( "date" ).type( ExtendedScalars.Date ) )
+            .build();
+        final GraphQLObjectType queryType = GraphQLObjectType.newObject()
+            .name( "Query" )
+            .field( GraphQLFieldDefinition.newFieldDefinition().name( "items" ).type( bean.createConnectionType( nodeType, null ) ) )
+            .build();
+        return bean.createSchema( queryType, null, null, null );
+    }
+
+    private static ExecutionResult execute( final GraphQLSchema schema )
+    {
+        return GraphQL.newGraphQL( schema ).build().execute( ExecutionInput.newExecutionInput().query( QUERY ).root( ROOT ).build() );
+    }
+}
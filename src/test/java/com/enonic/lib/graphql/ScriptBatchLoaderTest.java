@@ -0,0 +1,112 @@
+package com.enonic.lib.graphql;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.dataloader.DataLoaderFactory;
+import org.dataloader.DataLoaderRegistry;
+import org.junit.jupiter.api.Test;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.Scalars;
+import graphql.schema.DataFetcher;
+import graphql.schema.FieldCoordinates;
+import graphql.schema.GraphQLCodeRegistry;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLSchema;
+
+import com.enonic.xp.script.ScriptValue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ScriptBatchLoaderTest
+{
+    @Test
+    public void loads_all_keys_of_a_level_in_one_batch()
+    {
+        final List<List<Object>> batches = new ArrayList<>();
+        final ScriptValue batchFunction = mock( ScriptValue.class );
+        when( batchFunction.call( any() ) ).thenAnswer( invocation -> {
+            final List<Object> keys = invocation.getArgument( 0 );
+            batches.add( keys );
+            return arrayOf( keys.stream().map( key -> "Author " + key ).toList() );
+        } );
+
+        final DataLoaderRegistry dataLoaderRegistry = new DataLoaderRegistry();
+        dataLoaderRegistry.register( "author", DataLoaderFactory.newDataLoader( "author", new ScriptBatchLoader( "author", batchFunction ) ) );
+
+        final ExecutionResult result = newGraphQL().execute( ExecutionInput.newExecutionInput()
+                                                                 .query( "{articles{author}}" )
+                                                                 .dataLoaderRegistry( dataLoaderRegistry )
+                                                                 .build() );
+
+        assertTrue( result.getErrors().isEmpty() );
+        assertEquals( Map.of( "articles", List.of( Map.of( "author", "Author a" ), Map.of( "author", "Author b" ),
+                                                   Map.of( "author", "Author a" ) ) ), result.getData() );
+        assertEquals( List.of( List.of( "a", "b" ) ), batches );
+    }
+
+    @Test
+    public void fails_when_batch_function_returns_wrong_number_of_values()
+    {
+        final ScriptValue batchFunction = mock( ScriptValue.class );
+        when( batchFunction.call( any() ) ).thenAnswer( invocation -> arrayOf( List.of( "Author" ) ) );
+
+        final DataLoaderRegistry dataLoaderRegistry = new DataLoaderRegistry();
+        dataLoaderRegistry.register( "author", DataLoaderFactory.newDataLoader( "author", new ScriptBatchLoader( "author", batchFunction ) ) );
+
+        final ExecutionResult result = newGraphQL().execute( ExecutionInput.newExecutionInput()
+                                                                 .query( "{articles{author}}" )
+                                                                 .dataLoaderRegistry( dataLoaderRegistry )
+                                                                 .build() );
+
+        assertEquals( 3, result.getErrors().size() );
+    }
+
+    private static ScriptValue arrayOf( final List<String> values )
+    {
+        final List<ScriptValue> elements = values.stream().map( value -> {
+            final ScriptValue element = mock( ScriptValue.class );
+            when( element.isValue() ).thenReturn( true );
+            when( element.getValue() ).thenReturn( value );
+            return element;
+        } ).toList();
+
+        final ScriptValue array = mock( ScriptValue.class );
+        when( array.isArray() ).thenReturn( true );
+        when( array.getArray() ).thenReturn( elements );
+        return array;
+    }
+
+    private static GraphQL newGraphQL()
+    {
+        final GraphQLObjectType articleType = GraphQLObjectType.newObject()
+            .name( "Article" )
+            .field( GraphQLFieldDefinition.newFieldDefinition().name( "author" ).type( Scalars.GraphQLString ) )
+            .build();
+        final GraphQLObjectType queryType = GraphQLObjectType.newObject()
+            .name( "Query" )
+            .field( GraphQLFieldDefinition.newFieldDefinition().name( "articles" ).type( GraphQLList.list( articleType ) ) )
+            .build();
+
+        final GraphQLCodeRegistry codeRegistry = GraphQLCodeRegistry.newCodeRegistry()
+            .dataFetcher( FieldCoordinates.coordinates( "Query", "articles" ), (DataFetcher<Object>) env -> List.of(
+                Map.of( "authorId", "a" ), Map.of( "authorId", "b" ), Map.of( "authorId", "a" ) ) )
+            .dataFetcher( FieldCoordinates.coordinates( "Article", "author" ), (DataFetcher<Object>) env -> {
+                final Map<String, Object> source = env.getSource();
+                return new DataLoaderLookup( env.getDataLoaderRegistry() ).apply( "author" ).load( source.get( "authorId" ) );
+            } )
+            .build();
+
+        return GraphQL.newGraphQL( GraphQLSchema.newSchema().query( queryType ).codeRegistry( codeRegistry ).build() ).build();
+    }
+}
@@ -0,0 +1,222 @@
+package com.enonic.lib.graphql.reactive;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ClusterPublishProcessorTest
+{
+    private final List<Runnable> flushes = new ArrayList<>();
+
+    private final LoopbackEventBridge nodeA = new LoopbackEventBridge();
+
+    private final CountingBridge nodeB = new CountingBridge( nodeA.connect() );
+
+    @Test
+    public void events_reach_other_nodes_in_batches()
+    {
+        final ClusterPublishProcessor<Object> processorA = processor( nodeA, null );
+        final ClusterPublishProcessor<Object> processorB = processor( nodeB, null );
+        final List<Object> receivedA = subscribe( processorA );
+        final List<Object> receivedB = subscribe( processorB );
+
+        for ( int i = 0; i < 5; i++ )
+        {
+            processorB.onNext( Map.of( "n", i ) );
+        }
+        assertEquals( 5, receivedB.size() );
+        assertEquals( List.of( Map.of( "n", 0 ), Map.of( "n", 1 ), Map.of( "n", 2 ) ), receivedA );
+        assertEquals( 1, nodeB.batches );
+
+        // The remaining events are sent when the linger timer fires.
+        assertEquals( 1, flushes.size() );
+        flushes.remove( 0 ).run();
+        assertEquals( 5, receivedA.size() );
+        assertEquals( 2, nodeB.batches );
+    }
+
+    @Test
+    public void linger_flush_is_sent_on_the_callback_thread()
+        throws Exception
+    {
+        final ContextExecutor executor = new ContextExecutor( "subscribers", 2 );
+        final SystemScheduler scheduler = new SystemScheduler( "timer", executor );
+        final CountDownLatch sent = new CountDownLatch( 1 );
+        final List<String> threads = new CopyOnWriteArrayList<>();
+        final EventBridge bridge = new EventBridge()
+        {
+            @Override
+            public void send( final String channel, final byte[] batch )
+            {
+                threads.add( Thread.currentThread().getName() );
+                sent.countDown();
+            }
+
+            @Override
+            public Registration subscribe( final String channel, final Consumer<byte[]> receiver )
+            {
+                return nodeA.subscribe( channel, receiver );
+            }
+        };
+        final ClusterPublishProcessor<Object> processor = new ClusterPublishProcessor<>( bridge, "test", null, null, scheduler, 3, 10 );
+
+        processor.onNext( "pending" );
+
+        assertTrue( sent.await( 5, TimeUnit.SECONDS ) );
+        assertTrue( threads.get( 0 ).startsWith( "subscribers-" ) );
+        scheduler.shutdown();
+        executor.shutdown();
+    }
+
+    @Test
+    public void events_are_deduplicated_by_id()
+    {
+        final ClusterPublishProcessor<Object> processorA = processor( nodeA, event -> (String) ( (Map<?, ?>) event ).get( "id" ) );
+        final ClusterPublishProcessor<Object> processorB = processor( nodeB, event -> (String) ( (Map<?, ?>) event ).get( "id" ) );
+        final List<Object> receivedA = subscribe( processorA );
+        final List<Object> receivedB = subscribe( processorB );
+
+        // Every node handles the same application event.
+        for ( ClusterPublishProcessor<Object> processor : List.of( processorA, processorB ) )
+        {
+            processor.onNext( Map.of( "id", "e1" ) );
+            processor.onNext( Map.of( "id", "e2" ) );
+            processor.onNext( Map.of( "id", "e3" ) );
+        }
+
+        assertEquals( 3, receivedA.size() );
+        assertEquals( 3, receivedB.size() );
+        assertEquals( 3, processorB.getDuplicateCount() );
+    }
+
+    @Test
+    public void completion_stops_forwarding()
+    {
+        final ClusterPublishProcessor<Object> processorA = processor( nodeA, null );
+        final ClusterPublishProcessor<Object> processorB = processor( nodeB, null );
+        final List<Object> receivedB = subscribe( processorB );
+
+        processorA.onNext( "pending" );
+        processorB.onComplete();
+        processorA.flush();
+
+        assertTrue( receivedB.isEmpty() );
+    }
+
+    @Test
+    public void codec()
+        throws IOException
+    {
+        final Map<String, Object> value = Map.of( "text", "x".repeat( 1000 ), "count", 3, "big", 1L << 40, "ratio", 0.5, "flag", true,
+                                                  "list", List.of( "a", Map.of( "b", false ) ) );
+        final byte[] batch = EventBatchCodec.encode( List.of( new EventBatchCodec.Event( "e1", value ) ) );
+        assertTrue( batch.length < 200 );
+
+        final List<EventBatchCodec.Event> events = EventBatchCodec.decode( batch );
+        assertEquals( List.of( new EventBatchCodec.Event( "e1", value ) ), events );
+    }
+
+    @Test
+    public void undecodable_batches_are_rejected()
+    {
+        final ClusterPublishProcessor<Object> processorB = processor( nodeB, null );
+        nodeA.send( "test", new byte[]{1, 2, 3} );
+
+        assertEquals( 1, processorB.getRejectedBatchCount() );
+    }
+
+    @Test
+    public void truncated_batches_are_rejected()
+    {
+        final ClusterPublishProcessor<Object> processorB = processor( nodeB, null );
+        final byte[] batch = EventBatchCodec.encode( List.of( new EventBatchCodec.Event( "e1", "abcdef" ) ) );
+        final byte[] truncated = Arrays.copyOf( batch, batch.length - 3 );
+        assertThrows( EOFException.class, () -> EventBatchCodec.decode( truncated ) );
+
+        nodeA.send( "test", truncated );
+        assertEquals( 1, processorB.getRejectedBatchCount() );
+    }
+
+    private ClusterPublishProcessor<Object> processor( final EventBridge bridge, final Function<Object, String> idFunction )
+    {
+        return new ClusterPublishProcessor<>( bridge, "test", idFunction, null, this::schedule, 3, 10 );
+    }
+
+    private Scheduler.Task schedule( final Runnable task, final long delay, final TimeUnit unit )
+    {
+        flushes.add( task );
+        return () -> flushes.remove( task );
+    }
+
+    private static List<Object> subscribe( final PublishProcessor<Object> processor )
+    {
+        final List<Object> received = new ArrayList<>();
+        processor.subscribe( new Subscriber<>()
+        {
+            @Override
+            public void onSubscribe( final Subscription subscription )
+            {
+                subscription.request( Long.MAX_VALUE );
+            }
+
+            @Override
+            public void onNext( final Object item )
+            {
+                received.add( item );
+            }
+
+            @Override
+            public void onError( final Throwable throwable )
+            {
+            }
+
+            @Override
+            public void onComplete()
+            {
+            }
+        } );
+        return received;
+    }
+
+    private static final class CountingBridge
+        implements EventBridge
+    {
+        private final EventBridge delegate;
+
+        private int batches;
+
+        CountingBridge( final EventBridge delegate )
+        {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void send( final String channel, final byte[] batch )
+        {
+            batches++;
+            delegate.send( channel, batch );
+        }
+
+        @Override
+        public Registration subscribe( final String channel, final Consumer<byte[]> receiver )
+        {
+            return delegate.subscribe( channel, receiver );
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.enonic.lib.graphql.reactive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+
+import com.enonic.xp.script.ScriptValue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class ExecutionResultSubscriberTest
+{
+    private static final ExecutionResult RESULT = ExecutionResultImpl.newExecutionResult().data( Map.of( "count", 1 ) ).build();
+
+    private final ScriptValue onNext = mock( ScriptValue.class );
+
+    private final ScriptValue onError = mock( ScriptValue.class );
+
+    private final ScriptValue onComplete = mock( ScriptValue.class );
+
+    private long now;
+
+    private final List<Runnable> sweeps = new ArrayList<>();
+
+    private final SubscriberRegistry registry = new SubscriberRegistry( 1000, this::schedule, () -> now );
+
+    @Test
+    public void prefetch()
+    {
+        final RecordingSubscription subscription = new RecordingSubscription();
+        final ExecutionResultSubscriber subscriber = subscriber( 8, null );
+        subscriber.onSubscribe( subscription );
+
+        for ( int i = 0; i < 9; i++ )
+        {
+            subscriber.onNext( RESULT );
+        }
+
+        assertEquals( List.of( 8L, 4L, 4L ), subscription.requests );
+        verify( onNext, times( 9 ) ).call( any() );
+    }
+
+    @Test
+    public void callbacks()
+    {
+        final ExecutionResultSubscriber completed = subscriber( 1, null );
+        completed.onSubscribe( new RecordingSubscription() );
+        completed.onComplete();
+        completed.onComplete();
+        verify( onComplete, times( 1 ) ).call();
+
+        final ExecutionResultSubscriber failed = subscriber( 1, null );
+        failed.onSubscribe( new RecordingSubscription() );
+        failed.onError( new IllegalStateException( "failed" ) );
+        verify( onError ).call( "failed" );
+    }
+
+    @Test
+    public void cancel_by_key()
+    {
+        final RecordingSubscription first = new RecordingSubscription();
+        final RecordingSubscription second = new RecordingSubscription();
+        subscriber( 1, "session-1" ).onSubscribe( first );
+        subscriber( 1, "session-2" ).onSubscribe( second );
+        assertEquals( 2, registry.getCount() );
+
+        assertEquals( 1, registry.cancel( "session-1" ) );
+        assertTrue( first.cancelled );
+        assertFalse( second.cancelled );
+        assertEquals( 0, registry.getCount( "session-1" ) );
+        assertEquals( 1, registry.getCount( "session-2" ) );
+
+        assertEquals( 1, registry.cancelAll() );
+        assertTrue( second.cancelled );
+        assertEquals( 0, registry.getCount() );
+        // The app is told, to close the socket for instance.
+        verify( onComplete, times( 2 ) ).call();
+        verify( onError, never() ).call( any() );
+    }
+
+    @Test
+    public void cancel_by_script_has_no_callbacks()
+    {
+        final RecordingSubscription subscription = new RecordingSubscription();
+        final ExecutionResultSubscriber subscriber = subscriber( 1, "session-1" );
+        subscriber.onSubscribe( subscription );
+
+        subscriber.cancelSubscription();
+        assertTrue( subscription.cancelled );
+        assertEquals( 0, registry.cancel( "session-1" ) );
+        verify( onComplete, never() ).call();
+    }
+
+    @Test
+    public void subscribers_leave_when_done()
+    {
+        final ExecutionResultSubscriber subscriber = subscriber( 1, null );
+        subscriber.onSubscribe( new RecordingSubscription() );
+        assertEquals( 1, registry.getCount() );
+
+        subscriber.onComplete();
+        assertEquals( 0, registry.getCount() );
+    }
+
+    @Test
+    public void idle_eviction()
+    {
+        final RecordingSubscription idle = new RecordingSubscription();
+        final RecordingSubscription active = new RecordingSubscription();
+        final ExecutionResultSubscriber idleSubscriber = subscriber( 1, null );
+        idleSubscriber.onSubscribe( idle );
+        subscriber( 1, "session-1" ).onSubscribe( active );
+        assertEquals( 1, sweeps.size() );
+
+        // Results say nothing of the client, a dead session may keep receiving them.
+        now = 600;
+        idleSubscriber.onNext( RESULT );
+        registry.touch( "session-1" );
+        now = 1000;
+        runSweep();
+        assertTrue( idle.cancelled );
+        assertFalse( active.cancelled );
+        verify( onError ).call( SubscriberRegistry.EVICTED );
+        assertEquals( 1, sweeps.size() );
+
+        now = 1600;
+        runSweep();
+        assertTrue( active.cancelled );
+        assertEquals( 0, registry.getCount() );
+        assertTrue( sweeps.isEmpty() );
+    }
+
+    private ExecutionResultSubscriber subscriber( final int prefetch, final String key )
+    {
+        return new ExecutionResultSubscriber( new SubscriberOptions( onNext, onError, onComplete, null, 0, prefetch, key ), registry );
+    }
+
+    private Scheduler.Task schedule( final Runnable task, final long delay, final TimeUnit unit )
+    {
+        sweeps.add( task );
+        return () -> sweeps.remove( task );
+    }
+
+    private void runSweep()
+    {
+        sweeps.remove( 0 ).run();
+    }
+
+    private static final class RecordingSubscription
+        implements Subscription
+    {
+        private final List<Long> requests = new ArrayList<>();
+
+        private boolean cancelled;
+
+        @Override
+        public void request( final long n )
+        {
+            requests.add( n );
+        }
+
+        @Override
+        public void cancel()
+        {
+            this.cancelled = true;
+        }
+    }
+}
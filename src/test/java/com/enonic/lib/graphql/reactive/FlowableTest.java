@@ -0,0 +1,276 @@
+package com.enonic.lib.graphql.reactive;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FlowableTest
+{
+    private final PublishProcessor<Integer> processor = new PublishProcessor<>();
+
+    private final VirtualScheduler scheduler = new VirtualScheduler();
+
+    @Test
+    public void map()
+    {
+        final CollectingSubscriber<String> subscriber = new CollectingSubscriber<>();
+        processor.map( value -> "#" + value ).subscribe( subscriber );
+
+        processor.onNext( 1 );
+        processor.onNext( 2 );
+        processor.onComplete();
+
+        assertEquals( List.of( "#1", "#2" ), subscriber.items );
+        assertTrue( subscriber.completed );
+    }
+
+    @Test
+    public void distinct_until_changed()
+    {
+        final PublishProcessor<Map<String, Object>> events = new PublishProcessor<>();
+        final CollectingSubscriber<Map<String, Object>> subscriber = new CollectingSubscriber<>();
+        events.distinctUntilChanged( event -> event.get( "id" ) ).subscribe( subscriber );
+
+        events.onNext( Map.of( "id", "a", "rev", 1 ) );
+        events.onNext( Map.of( "id", "a", "rev", 2 ) );
+        events.onNext( Map.of( "id", "b", "rev", 1 ) );
+        events.onNext( Map.of( "id", "a", "rev", 3 ) );
+
+        assertEquals( List.of( 1, 1, 3 ), subscriber.items.stream().map( event -> event.get( "rev" ) ).toList() );
+    }
+
+    @Test
+    public void buffer_by_count_and_time()
+    {
+        final CollectingSubscriber<List<Integer>> subscriber = new CollectingSubscriber<>();
+        processor.buffer( 3, 100, TimeUnit.MILLISECONDS, scheduler ).subscribe( subscriber );
+
+        for ( int i = 1; i <= 4; i++ )
+        {
+            processor.onNext( i );
+        }
+        assertEquals( List.of( List.of( 1, 2, 3 ) ), subscriber.items );
+
+        scheduler.advance( 99 );
+        assertEquals( 1, subscriber.items.size() );
+        scheduler.advance( 1 );
+        assertEquals( List.of( List.of( 1, 2, 3 ), List.of( 4 ) ), subscriber.items );
+
+        // No empty lists for windows without items.
+        scheduler.advance( 1000 );
+        processor.onNext( 5 );
+        processor.onComplete();
+        assertEquals( List.of( List.of( 1, 2, 3 ), List.of( 4 ), List.of( 5 ) ), subscriber.items );
+        assertTrue( subscriber.completed );
+    }
+
+    @Test
+    public void sample()
+    {
+        final CollectingSubscriber<Integer> subscriber = new CollectingSubscriber<>();
+        processor.sample( 100, TimeUnit.MILLISECONDS, scheduler ).subscribe( subscriber );
+
+        processor.onNext( 1 );
+        processor.onNext( 2 );
+        assertTrue( subscriber.items.isEmpty() );
+        scheduler.advance( 100 );
+        assertEquals( List.of( 2 ), subscriber.items );
+
+        scheduler.advance( 100 );
+        processor.onNext( 3 );
+        processor.onComplete();
+        assertEquals( List.of( 2, 3 ), subscriber.items );
+        assertTrue( subscriber.completed );
+    }
+
+    @Test
+    public void throttle_latest()
+    {
+        final CollectingSubscriber<Integer> subscriber = new CollectingSubscriber<>();
+        processor.throttleLatest( 100, TimeUnit.MILLISECONDS, scheduler ).subscribe( subscriber );
+
+        processor.onNext( 1 );
+        processor.onNext( 2 );
+        processor.onNext( 3 );
+        assertEquals( List.of( 1 ), subscriber.items );
+
+        scheduler.advance( 100 );
+        assertEquals( List.of( 1, 3 ), subscriber.items );
+
+        scheduler.advance( 100 );
+        scheduler.advance( 100 );
+        processor.onNext( 4 );
+        assertEquals( List.of( 1, 3, 4 ), subscriber.items );
+    }
+
+    @Test
+    public void throttle_latest_conflates_without_demand()
+    {
+        final CollectingSubscriber<Integer> subscriber = new CollectingSubscriber<>( 1 );
+        processor.throttleLatest( 100, TimeUnit.MILLISECONDS, scheduler ).subscribe( subscriber );
+
+        processor.onNext( 1 );
+        processor.onNext( 2 );
+        scheduler.advance( 100 );
+        processor.onNext( 3 );
+        scheduler.advance( 100 );
+        assertEquals( List.of( 1 ), subscriber.items );
+
+        subscriber.subscription.request( 5 );
+        assertEquals( List.of( 1, 3 ), subscriber.items );
+    }
+
+    @Test
+    public void buffer_requests_upstream_by_demand()
+    {
+        final List<Long> upstreamRequests = new ArrayList<>();
+        final List<Subscriber<? super Integer>> upstream = new ArrayList<>();
+        final Flowable<Integer> source = new Flowable<>( subscriber -> {
+            upstream.add( subscriber );
+            subscriber.onSubscribe( new Subscription()
+            {
+                @Override
+                public void request( final long n )
+                {
+                    upstreamRequests.add( n );
+                }
+
+                @Override
+                public void cancel()
+                {
+                }
+            } );
+        } );
+        final CollectingSubscriber<List<Integer>> subscriber = new CollectingSubscriber<>( 1 );
+        source.buffer( 2, 100, TimeUnit.MILLISECONDS, scheduler ).subscribe( subscriber );
+        assertEquals( List.of( 2L ), upstreamRequests );
+
+        upstream.get( 0 ).onNext( 1 );
+        upstream.get( 0 ).onNext( 2 );
+        assertEquals( List.of( List.of( 1, 2 ) ), subscriber.items );
+        assertEquals( List.of( 2L, 2L ), upstreamRequests );
+
+        // Without demand, one batch is held and no more is requested.
+        upstream.get( 0 ).onNext( 3 );
+        upstream.get( 0 ).onNext( 4 );
+        assertEquals( List.of( 2L, 2L ), upstreamRequests );
+
+        subscriber.subscription.request( 1 );
+        assertEquals( List.of( List.of( 1, 2 ), List.of( 3, 4 ) ), subscriber.items );
+        assertEquals( List.of( 2L, 2L, 2L ), upstreamRequests );
+    }
+
+    @Test
+    public void cancel_stops_timers()
+    {
+        final CollectingSubscriber<List<Integer>> subscriber = new CollectingSubscriber<>();
+        processor.buffer( 10, 100, TimeUnit.MILLISECONDS, scheduler ).subscribe( subscriber );
+
+        processor.onNext( 1 );
+        subscriber.subscription.cancel();
+        scheduler.advance( 100 );
+
+        assertTrue( subscriber.items.isEmpty() );
+        assertEquals( 0, scheduler.tasks.size() );
+    }
+
+    private static final class VirtualScheduler
+        implements Scheduler
+    {
+        private final List<ScheduledTask> tasks = new ArrayList<>();
+
+        private long now;
+
+        @Override
+        public Task schedule( final Runnable task, final long delay, final TimeUnit unit )
+        {
+            final ScheduledTask scheduledTask = new ScheduledTask( now + unit.toMillis( delay ), task );
+            tasks.add( scheduledTask );
+            return () -> tasks.remove( scheduledTask );
+        }
+
+        void advance( final long millis )
+        {
+            final long until = now + millis;
+            while ( true )
+            {
+                ScheduledTask next = null;
+                for ( Iterator<ScheduledTask> iterator = tasks.iterator(); iterator.hasNext(); )
+                {
+                    final ScheduledTask task = iterator.next();
+                    if ( task.time <= until && ( next == null || task.time < next.time ) )
+                    {
+                        next = task;
+                    }
+                }
+                if ( next == null )
+                {
+                    break;
+                }
+                tasks.remove( next );
+                now = next.time;
+                next.task.run();
+            }
+            now = until;
+        }
+
+        private record ScheduledTask(long time, Runnable task)
+        {
+        }
+    }
+
+    private static final class CollectingSubscriber<T>
+        implements Subscriber<T>
+    {
+        private final List<T> items = new ArrayList<>();
+
+        private final long initialRequest;
+
+        private Subscription subscription;
+
+        private boolean completed;
+
+        CollectingSubscriber()
+        {
+            this( Long.MAX_VALUE );
+        }
+
+        CollectingSubscriber( final long initialRequest )
+        {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe( final Subscription subscription )
+        {
+            this.subscription = subscription;
+            subscription.request( initialRequest );
+        }
+
+        @Override
+        public void onNext( final T item )
+        {
+            items.add( item );
+        }
+
+        @Override
+        public void onError( final Throwable throwable )
+        {
+        }
+
+        @Override
+        public void onComplete()
+        {
+            this.completed = true;
+        }
+    }
+}
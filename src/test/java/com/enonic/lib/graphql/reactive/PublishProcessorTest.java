@@ -1,13 +1,20 @@
 package com.enonic.lib.graphql.reactive;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Test;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class PublishProcessorTest
@@ -59,19 +66,194 @@ public class PublishProcessorTest
         assertTrue( subscriber.error instanceof IllegalStateException );
     }
 
-    private static final class CollectingSubscriber<T>
+    @Test
+    public void buffered_overflow_policies()
+    {
+        assertEquals( List.of( 3, 4 ), publishOverflowing( OverflowPolicy.DROP_OLDEST, 2 ).items );
+        assertEquals( List.of( 1, 2 ), publishOverflowing( OverflowPolicy.DROP_LATEST, 2 ).items );
+        assertEquals( List.of( 1, 4 ), publishOverflowing( OverflowPolicy.CONFLATE_LATEST, 2 ).items );
+
+        // The overflowing item and the two buffered ones, the last item is not offered to a failed subscriber.
+        final CollectingSubscriber<Integer> failed = publishOverflowing( OverflowPolicy.ERROR, 3 );
+        assertTrue( failed.items.isEmpty() );
+        assertTrue( failed.error instanceof IllegalStateException );
+    }
+
+    @Test
+    public void buffered_slow_subscriber_does_not_hold_up_others()
+    {
+        final ManualExecutor executor = new ManualExecutor();
+        final PublishProcessor<Integer> processor = new PublishProcessor<>( 8, OverflowPolicy.DROP_OLDEST, executor );
+        final CollectingSubscriber<Integer> fast = new CollectingSubscriber<>();
+        final CollectingSubscriber<Integer> slow = new CollectingSubscriber<>( 1 );
+        processor.subscribe( fast );
+        processor.subscribe( slow );
+
+        for ( int i = 1; i <= 4; i++ )
+        {
+            processor.onNext( i );
+        }
+        executor.runAll();
+
+        assertEquals( List.of( 1, 2, 3, 4 ), fast.items );
+        assertEquals( List.of( 1 ), slow.items );
+
+        final PublishProcessorStats stats = processor.getStats();
+        assertEquals( 2, stats.getSubscribers() );
+        assertEquals( 3, stats.getBuffered() );
+        assertEquals( 3, stats.getMaxBuffered() );
+        assertEquals( 5, stats.getDelivered() );
+
+        processor.onComplete();
+        executor.runAll();
+        assertTrue( fast.completed );
+        assertFalse( slow.completed );
+
+        slow.subscription.request( 3 );
+        executor.runAll();
+        assertEquals( List.of( 1, 2, 3, 4 ), slow.items );
+        assertTrue( slow.completed );
+        assertEquals( 0, processor.getStats().getSubscribers() );
+    }
+
+    @Test
+    public void buffered_delivers_on_executor_thread()
+        throws Exception
+    {
+        final ContextExecutor executor = new ContextExecutor( "subscribers", 2 );
+        final PublishProcessor<Integer> processor = new PublishProcessor<>( 16, OverflowPolicy.ERROR, executor );
+        final CountDownLatch completed = new CountDownLatch( 1 );
+        final List<String> threads = new CopyOnWriteArrayList<>();
+        processor.subscribe( new CollectingSubscriber<>()
+        {
+            @Override
+            public void onNext( final Integer item )
+            {
+                threads.add( Thread.currentThread().getName() );
+            }
+
+            @Override
+            public void onComplete()
+            {
+                completed.countDown();
+            }
+        } );
+
+        processor.onNext( 1 );
+        processor.onComplete();
+
+        assertTrue( completed.await( 5, TimeUnit.SECONDS ) );
+        assertEquals( 1, threads.size() );
+        assertTrue( threads.get( 0 ).startsWith( "subscribers-" ) );
+        executor.shutdown();
+    }
+
+    @Test
+    public void buffered_subscribers_run_in_parallel()
+        throws Exception
+    {
+        final ContextExecutor executor = new ContextExecutor( "subscribers", 2 );
+        final PublishProcessor<Integer> processor = new PublishProcessor<>( 16, OverflowPolicy.ERROR, executor );
+        final CountDownLatch release = new CountDownLatch( 1 );
+        final CountDownLatch delivered = new CountDownLatch( 1 );
+        processor.subscribe( new CollectingSubscriber<>()
+        {
+            @Override
+            public void onNext( final Integer item )
+            {
+                try
+                {
+                    release.await( 5, TimeUnit.SECONDS );
+                }
+                catch ( InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        } );
+        processor.subscribe( new CollectingSubscriber<>()
+        {
+            @Override
+            public void onNext( final Integer item )
+            {
+                delivered.countDown();
+            }
+        } );
+
+        processor.onNext( 1 );
+
+        // The second subscriber gets the item while the first one is still blocked.
+        assertTrue( delivered.await( 5, TimeUnit.SECONDS ) );
+        release.countDown();
+        executor.shutdown();
+    }
+
+    private static CollectingSubscriber<Integer> publishOverflowing( final OverflowPolicy overflowPolicy, final long dropped )
+    {
+        final ManualExecutor executor = new ManualExecutor();
+        final PublishProcessor<Integer> processor = new PublishProcessor<>( 2, overflowPolicy, executor );
+        final CollectingSubscriber<Integer> subscriber = new CollectingSubscriber<>();
+        processor.subscribe( subscriber );
+
+        for ( int i = 1; i <= 4; i++ )
+        {
+            processor.onNext( i );
+        }
+        executor.runAll();
+
+        assertEquals( dropped, processor.getStats().getDropped() );
+        return subscriber;
+    }
+
+    private static final class ManualExecutor
+        implements Executor
+    {
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute( final Runnable command )
+        {
+            tasks.add( command );
+        }
+
+        void runAll()
+        {
+            Runnable task;
+            while ( ( task = tasks.poll() ) != null )
+            {
+                task.run();
+            }
+        }
+    }
+
+    private static class CollectingSubscriber<T>
         implements Subscriber<T>
     {
         private final List<T> items = new ArrayList<>();
 
+        private final long initialRequest;
+
+        private Subscription subscription;
+
         private boolean completed;
 
         private Throwable error;
 
+        CollectingSubscriber()
+        {
+            this( Long.MAX_VALUE );
+        }
+
+        CollectingSubscriber( final long initialRequest )
+        {
+            this.initialRequest = initialRequest;
+        }
+
         @Override
         public void onSubscribe( final Subscription subscription )
         {
-            subscription.request( Long.MAX_VALUE );
+            this.subscription = subscription;
+            subscription.request( initialRequest );
         }
 
         @Override
@@ -0,0 +1,87 @@
+package com.enonic.lib.graphql.reactive;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import graphql.GraphqlErrorBuilder;
+
+import com.enonic.lib.graphql.ExecutionResultMapper;
+import com.enonic.lib.graphql.MapMapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class ResultDifferTest
+{
+    @Test
+    public void json_patch()
+    {
+        final Map<String, Object> source = Map.of( "item", Map.of( "a/b", 1, "gone", 2, "tags", List.of( "x", "y" ) ) );
+        final Map<String, Object> target = Map.of( "item", Map.of( "a/b", 3, "new", 4, "tags", List.of( "x", "z" ) ) );
+
+        final List<Map<String, Object>> patch = JsonDiff.jsonPatch( source, target );
+
+        assertEquals( 4, patch.size() );
+        assertEquals( Map.of( "op", "replace", "path", "/item/a~1b", "value", 3 ), find( patch, "/item/a~1b" ) );
+        assertEquals( Map.of( "op", "remove", "path", "/item/gone" ), find( patch, "/item/gone" ) );
+        assertEquals( Map.of( "op", "add", "path", "/item/new", "value", 4 ), find( patch, "/item/new" ) );
+        assertEquals( Map.of( "op", "replace", "path", "/item/tags/1", "value", "z" ), find( patch, "/item/tags/1" ) );
+
+        assertEquals( List.of( Map.of( "op", "replace", "path", "/tags", "value", List.of( "x" ) ) ),
+                      JsonDiff.jsonPatch( Map.of( "tags", List.of( "x", "y" ) ), Map.of( "tags", List.of( "x" ) ) ) );
+        assertEquals( List.of(), JsonDiff.jsonPatch( source, source ) );
+    }
+
+    @Test
+    public void merge_patch()
+    {
+        final Map<String, Object> source = Map.of( "item", Map.of( "title", "a", "gone", 2, "same", 1 ) );
+        final Map<String, Object> target = Map.of( "item", Map.of( "title", "b", "same", 1 ) );
+
+        final Map<String, Object> patch = (Map<String, Object>) JsonDiff.mergePatch( source, target );
+
+        final Map<String, Object> item = (Map<String, Object>) patch.get( "item" );
+        assertEquals( 2, item.size() );
+        assertEquals( "b", item.get( "title" ) );
+        assertNull( item.get( "gone" ) );
+        assertNull( JsonDiff.mergePatch( source, source ) );
+    }
+
+    @Test
+    public void snapshots()
+    {
+        final ResultDiffer differ = new ResultDiffer( DiffMode.JSON_PATCH, 2 );
+
+        assertInstanceOf( ExecutionResultMapper.class, differ.encode( result( 1 ) ) );
+        assertInstanceOf( MapMapper.class, differ.encode( result( 2 ) ) );
+        assertNull( differ.encode( result( 2 ) ) );
+        assertInstanceOf( ExecutionResultMapper.class, differ.encode( result( 3 ) ) );
+
+        differ.requestSnapshot();
+        assertInstanceOf( ExecutionResultMapper.class, differ.encode( result( 4 ) ) );
+        assertInstanceOf( MapMapper.class, differ.encode( result( 5 ) ) );
+
+        final ExecutionResult failed = ExecutionResultImpl.newExecutionResult()
+            .data( Map.of( "count", 6 ) )
+            .addError( GraphqlErrorBuilder.newError().message( "failed" ).build() )
+            .build();
+        assertInstanceOf( ExecutionResultMapper.class, differ.encode( failed ) );
+        assertInstanceOf( ExecutionResultMapper.class, differ.encode( result( 6 ) ) );
+        assertInstanceOf( MapMapper.class, differ.encode( result( 7 ) ) );
+    }
+
+    private static ExecutionResult result( final int count )
+    {
+        return ExecutionResultImpl.newExecutionResult().data( Map.of( "count", count ) ).build();
+    }
+
+    private static Map<String, Object> find( final List<Map<String, Object>> patch, final String path )
+    {
+        return patch.stream().filter( operation -> path.equals( operation.get( "path" ) ) ).findFirst().orElse( null );
+    }
+}
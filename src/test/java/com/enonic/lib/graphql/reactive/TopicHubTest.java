@@ -0,0 +1,120 @@
+package com.enonic.lib.graphql.reactive;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TopicHubTest
+{
+    private final TopicHub<String> hub = new TopicHub<>();
+
+    @Test
+    public void routes_items_by_topic()
+    {
+        final CollectingSubscriber a1 = subscribe( "a" );
+        final CollectingSubscriber a2 = subscribe( "a" );
+        final CollectingSubscriber b = subscribe( "b" );
+
+        hub.onNext( "a", "a-1" );
+        hub.onNext( "b", "b-1" );
+        hub.onNext( "c", "c-1" );
+
+        assertEquals( List.of( "a-1" ), a1.items );
+        assertEquals( List.of( "a-1" ), a2.items );
+        assertEquals( List.of( "b-1" ), b.items );
+        assertEquals( 2, hub.getTopicCount() );
+        assertEquals( 3, hub.getSubscriberCount() );
+    }
+
+    @Test
+    public void drops_topic_with_last_subscriber()
+    {
+        final CollectingSubscriber first = subscribe( "a" );
+        final CollectingSubscriber second = subscribe( "a" );
+
+        first.subscription.cancel();
+        assertEquals( 1, hub.getSubscriberCount( "a" ) );
+
+        second.subscription.cancel();
+        assertEquals( 0, hub.getTopicCount() );
+
+        final CollectingSubscriber third = subscribe( "a" );
+        hub.onNext( "a", "a-1" );
+        assertEquals( List.of( "a-1" ), third.items );
+        assertTrue( first.items.isEmpty() );
+    }
+
+    @Test
+    public void completes_topic()
+    {
+        final CollectingSubscriber a = subscribe( "a" );
+        final CollectingSubscriber b = subscribe( "b" );
+
+        hub.onComplete( "a" );
+
+        assertTrue( a.completed );
+        assertEquals( 1, hub.getTopicCount() );
+        hub.onNext( "b", "b-1" );
+        assertEquals( List.of( "b-1" ), b.items );
+    }
+
+    @Test
+    public void operators_apply_per_topic()
+    {
+        final CollectingSubscriber subscriber = new CollectingSubscriber();
+        hub.topic( "a" ).distinctUntilChanged().subscribe( subscriber );
+
+        hub.onNext( "a", "x" );
+        hub.onNext( "a", "x" );
+        hub.onNext( "a", "y" );
+
+        assertEquals( List.of( "x", "y" ), subscriber.items );
+    }
+
+    private CollectingSubscriber subscribe( final String key )
+    {
+        final CollectingSubscriber subscriber = new CollectingSubscriber();
+        hub.topic( key ).subscribe( subscriber );
+        return subscriber;
+    }
+
+    private static final class CollectingSubscriber
+        implements Subscriber<String>
+    {
+        private final List<String> items = new ArrayList<>();
+
+        private Subscription subscription;
+
+        private boolean completed;
+
+        @Override
+        public void onSubscribe( final Subscription subscription )
+        {
+            this.subscription = subscription;
+            subscription.request( Long.MAX_VALUE );
+        }
+
+        @Override
+        public void onNext( final String item )
+        {
+            items.add( item );
+        }
+
+        @Override
+        public void onError( final Throwable throwable )
+        {
+        }
+
+        @Override
+        public void onComplete()
+        {
+            this.completed = true;
+        }
+    }
+}
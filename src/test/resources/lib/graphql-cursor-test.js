@@ -6,4 +6,7 @@ exports.test = function () {
     assert.assertEquals('test', graphQlConnectionLib.decodeCursor('dGVzdA=='));
     assert.assertEquals('MQ==', graphQlConnectionLib.encodeCursor(1));
     assert.assertEquals('1', graphQlConnectionLib.decodeCursor('MQ=='));
+    assert.assertEquals('0', graphQlConnectionLib.decodeCursor('AW8A'));
+    assert.assertEquals(0, graphQlConnectionLib.decodeOffsetCursor('AW8A'));
+    assert.assertEquals(1, graphQlConnectionLib.decodeOffsetCursor('MQ=='));
 };
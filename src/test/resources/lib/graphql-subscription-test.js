@@ -67,6 +67,10 @@ function newSubscriber(received) {
 exports.test = function () {
     testDeliversEventsToSubscriber();
     testFilterDropsNonMatchingEvents();
+    testDistinctUntilChangedDropsRepeatedEvents();
+    testDiffPassesPatches();
+    testRegistryAndCallbacks();
+    testBridgeForwardsEventsBetweenNodes();
 };
 
 function testDeliversEventsToSubscriber() {
@@ -109,3 +113,122 @@ function testFilterDropsNonMatchingEvents() {
         {data: {onMessage: {text: 'last'}}}
     ], received);
 }
+
+function testDistinctUntilChangedDropsRepeatedEvents() {
+    var processor = graphQlRxLib.createPublishProcessor();
+    eventSource = processor.distinctUntilChanged(function (event) {
+        return event.text;
+    });
+
+    var result = graphQlLib.execute(schema, 'subscription { onMessage { text } }');
+
+    var received = [];
+    result.data.subscribe(newSubscriber(received));
+
+    processor.onNext({text: 'first'});
+    processor.onNext({text: 'first'});
+    processor.onNext({text: 'second'});
+    processor.onComplete();
+
+    assert.assertJsonEquals([
+        {data: {onMessage: {text: 'first'}}},
+        {data: {onMessage: {text: 'second'}}}
+    ], received);
+}
+
+function testDiffPassesPatches() {
+    var processor = graphQlRxLib.createPublishProcessor();
+    eventSource = processor;
+
+    var result = graphQlLib.execute(schema, 'subscription { onMessage { text } }');
+
+    var received = [];
+    var subscriber = graphQlRxLib.createSubscriber({
+        diff: 'jsonPatch',
+        onNext: function (payload) {
+            received.push(payload);
+        }
+    });
+    result.data.subscribe(subscriber);
+
+    processor.onNext({text: 'first'});
+    processor.onNext({text: 'second'});
+    processor.onNext({text: 'second'});
+    subscriber.requestSnapshot();
+    processor.onNext({text: 'third'});
+    processor.onComplete();
+
+    assert.assertJsonEquals([
+        {data: {onMessage: {text: 'first'}}},
+        {patch: [{op: 'replace', path: '/onMessage/text', value: 'second'}]},
+        {data: {onMessage: {text: 'third'}}}
+    ], received);
+}
+
+function testRegistryAndCallbacks() {
+    var processor = graphQlRxLib.createPublishProcessor();
+    eventSource = processor;
+    var registry = graphQlRxLib.createSubscriberRegistry();
+
+    var received = [];
+    var completed = 0;
+    function subscribe(key) {
+        var result = graphQlLib.execute(schema, 'subscription { onMessage { text } }');
+        result.data.subscribe(graphQlRxLib.createSubscriber({
+            registry: registry,
+            key: key,
+            prefetch: 4,
+            onNext: function (payload) {
+                received.push(key + ':' + payload.data.onMessage.text);
+            },
+            onComplete: function () {
+                completed++;
+            }
+        }));
+    }
+    subscribe('a');
+    subscribe('b');
+    assert.assertEquals(2, registry.getCount());
+
+    processor.onNext({text: 'first'});
+    assert.assertEquals(1, registry.cancel('a'));
+    processor.onNext({text: 'second'});
+    processor.onComplete();
+
+    assert.assertJsonEquals(['a:first', 'b:first', 'b:second'], received);
+    // 'a' is completed by the registry, 'b' by the processor.
+    assert.assertEquals(2, completed);
+    assert.assertEquals(0, registry.getCount());
+}
+
+function testBridgeForwardsEventsBetweenNodes() {
+    // Two nodes, with bridges handing batches to each other as distributed XP events would.
+    var bridgeA = graphQlRxLib.createEventBridge({
+        send: function (channel, batch) {
+            bridgeB.receive(channel, batch);
+        }
+    });
+    var bridgeB = graphQlRxLib.createEventBridge({
+        send: function (channel, batch) {
+            bridgeA.receive(channel, batch);
+        }
+    });
+    var processorA = graphQlRxLib.createPublishProcessor({bridge: bridgeA, channel: 'messages', idKey: 'id'});
+    var processorB = graphQlRxLib.createPublishProcessor({bridge: bridgeB, channel: 'messages', idKey: 'id'});
+
+    eventSource = processorB;
+    var result = graphQlLib.execute(schema, 'subscription { onMessage { text } }');
+    var received = [];
+    result.data.subscribe(newSubscriber(received));
+
+    processorA.onNext({id: '1', text: 'from A'});
+    processorA.flush();
+    // Published on both nodes, delivered once.
+    processorB.onNext({id: '1', text: 'from A'});
+    processorB.onNext({id: '2', text: 'from B'});
+
+    assert.assertJsonEquals([
+        {data: {onMessage: {text: 'from A'}}},
+        {data: {onMessage: {text: 'from B'}}}
+    ], received);
+}
@@ -1,5 +1,6 @@
 var graphQlLib = require('/lib/graphql');
 var graphQlConnectionLib = require('/lib/graphql-connection');
+var graphQlRxLib = require('/lib/graphql-rx');
 var assert = require('/lib/xp/testing');
 var schemaGenerator = graphQlLib.newSchemaGenerator();
 
@@ -22,6 +23,16 @@ exports.test = function () {
     testFailingQuery(schema);
     testMutation(schema);
     testReadValueFromContext(schema);
+    testDocumentCache(schema);
+    testPersistedQuery(schema);
+    testDataLoader(schema);
+    testQueryLimits(schema);
+    testPropertyField(schema);
+    testBuildStats();
+    testSchemaSnapshot();
+    testSchemaFromSDL();
+    testExecuteIncremental();
+    testResultCache();
 };
 
 function testShortQuery(schema) {
@@ -127,12 +138,12 @@ function testConnection(schema) {
                         node: {
                             id: "0000-0000-0000-0001"
                         },
-                        cursor: "MA=="
+                        cursor: "AW8A"
                     }
                 ],
                 pageInfo: {
-                    startCursor: "MA==",
-                    endCursor: "MA==",
+                    startCursor: "AW8A",
+                    endCursor: "AW8A",
                     hasNext: false
                 }
             }
@@ -225,6 +236,252 @@ function testReadValueFromContext(schema) {
     }, result);
 }
 
+function testDocumentCache(schema) {
+    var query = '{getObject(id:"0000-0000-0000-0001"){id, aString}}';
+    graphQlLib.execute(schema, query);
+    var before = graphQlLib.getDocumentCacheStats(schema);
+    graphQlLib.execute(schema, query);
+    var afterHit = graphQlLib.getDocumentCacheStats(schema);
+    assert.assertEquals(before.hits + 1, afterHit.hits);
+    assert.assertEquals(before.misses, afterHit.misses);
+
+    var result = graphQlLib.execute(schema, query, null, null, {documentCache: false});
+    var afterBypass = graphQlLib.getDocumentCacheStats(schema);
+    assert.assertEquals(afterHit.hits, afterBypass.hits);
+    assert.assertEquals(afterHit.misses, afterBypass.misses);
+    assert.assertJsonEquals({
+        data: {
+            getObject: {
+                id: '0000-0000-0000-0001',
+                aString: 'content'
+            }
+        }
+    }, result);
+}
+
+function testPersistedQuery(schema) {
+    var query = '{getObject(id:"0000-0000-0000-0001"){id}}';
+    var extensions = {
+        persistedQuery: {
+            version: 1,
+            sha256Hash: 'f4548ae7712df3f0e50e4d60740d2482ac6262e36168fa7b2a9e68e35a1d7de4'
+        }
+    };
+    var expected = {
+        data: {
+            getObject: {
+                id: '0000-0000-0000-0001'
+            }
+        }
+    };
+
+    var notFound = graphQlLib.execute(schema, null, null, null, {extensions: extensions});
+    assert.assertEquals('PersistedQueryNotFound', notFound.errors[0].message);
+
+    assert.assertJsonEquals(expected, graphQlLib.execute(schema, query, null, null, {extensions: extensions}));
+    assert.assertJsonEquals(expected, graphQlLib.execute(schema, null, null, null, {extensions: extensions}));
+}
+
+function testDataLoader(schema) {
+    var batches = [];
+    var query = '{getObject(id:"0000-0000-0000-0001"){aLoadedString, aRelatedObject{id}}, getInterface(id:"0000-0000-0000-0001"){... on ObjectType{aLoadedString}}}';
+    var result = graphQlLib.execute(schema, query, null, null, {
+        dataLoaders: {
+            loadedString: function (keys) {
+                batches.push(keys.length);
+                return keys.map(function (key) {
+                    return 'loaded ' + key;
+                });
+            }
+        }
+    });
+    assert.assertJsonEquals({
+        data: {
+            getObject: {
+                aLoadedString: 'loaded 0000-0000-0000-0001',
+                aRelatedObject: {
+                    id: '0000-0000-0000-0002'
+                }
+            },
+            getInterface: {
+                aLoadedString: 'loaded 0000-0000-0000-0001'
+            }
+        }
+    }, result);
+    assert.assertJsonEquals([1], batches);
+}
+
+function testQueryLimits(schema) {
+    var query = '{getObject(id:"0000-0000-0000-0001"){id, aRelatedObject{id}}}';
+
+    var result = graphQlLib.execute(schema, query, null, null, {limits: {maxCost: 4}});
+    assert.assertJsonEquals({depth: 3, fields: 4, cost: 4}, result.extensions.cost);
+
+    result = graphQlLib.execute(schema, query, null, null, {limits: {maxDepth: 2}});
+    assert.assertEquals('ExecutionAborted', result.errors[0].errorType);
+    assert.assertJsonEquals({code: 'QUERY_LIMIT_EXCEEDED', limit: 'maxDepth', value: 3, max: 2}, result.errors[0].extensions);
+}
+
+function testPropertyField(schema) {
+    var query = '{getObject(id:"0000-0000-0000-0001"){anId}}';
+    var result = graphQlLib.execute(schema, query);
+    assert.assertJsonEquals({
+        data: {
+            getObject: {
+                anId: '0000-0000-0000-0001'
+            }
+        }
+    }, result);
+}
+
+function testBuildStats() {
+    var buildStats = schemaGenerator.getBuildStats();
+    assert.assertTrue(buildStats.types > 0);
+    assert.assertTrue(buildStats.fields > 0);
+}
+
+function testSchemaSnapshot() {
+    var fingerprint = String(Date.now());
+    var builds = 0;
+    var resolvers = {
+        Query: {
+            greeting: function (env) {
+                return 'Hello ' + env.args.name;
+            }
+        }
+    };
+
+    function loadSchema() {
+        var generator = graphQlLib.newSchemaGenerator();
+        return generator.loadSchema({
+            name: 'snapshot-test',
+            fingerprint: fingerprint,
+            resolvers: resolvers,
+            build: function () {
+                builds++;
+                return generator.createSchema({
+                    query: generator.createObjectType({
+                        name: 'Query',
+                        fields: {
+                            greeting: {
+                                type: graphQlLib.GraphQLString,
+                                args: {name: graphQlLib.GraphQLString},
+                                resolve: resolvers.Query.greeting
+                            }
+                        }
+                    })
+                });
+            }
+        });
+    }
+
+    var query = '{greeting(name:"World")}';
+    var expected = {data: {greeting: 'Hello World'}};
+    assert.assertJsonEquals(expected, graphQlLib.execute(loadSchema(), query));
+    assert.assertJsonEquals(expected, graphQlLib.execute(loadSchema(), query));
+    assert.assertEquals(1, builds);
+}
+
+function testSchemaFromSDL() {
+    var generator = graphQlLib.newSchemaGenerator();
+    var schema = generator.fromSDL(
+        'type Query { animals: [Animal], greeting(name: String!): String }\n' +
+        'interface Animal { name: String }\n' +
+        'type Dog implements Animal { name: String, barks: Boolean }\n' +
+        'type Cat implements Animal { name: String, lives: Int }', {
+            Query: {
+                animals: function () {
+                    return [{name: 'Rex', barks: true}, {name: 'Tom', lives: 9}];
+                },
+                greeting: {
+                    resolve: function (env) {
+                        return 'Hello ' + env.args.name;
+                    }
+                }
+            },
+            Animal: {
+                __resolveType: function (animal) {
+                    return animal.lives != null ? 'Cat' : 'Dog';
+                }
+            }
+        });
+
+    var result = graphQlLib.execute(schema, '{greeting(name:"World"), animals{name, ... on Dog{barks}, ... on Cat{lives}}}');
+    assert.assertJsonEquals({
+        data: {
+            greeting: 'Hello World',
+            animals: [{name: 'Rex', barks: true}, {name: 'Tom', lives: 9}]
+        }
+    }, result);
+}
+
+function testExecuteIncremental() {
+    var generator = graphQlLib.newSchemaGenerator();
+    var schema = generator.fromSDL('type Query { header: String, body: String }', {
+        Query: {
+            header: function () {
+                return 'Header';
+            },
+            body: function () {
+                return 'Body';
+            }
+        }
+    });
+
+    var result = graphQlLib.executeIncremental(schema, '{header ... @defer(label: "body") {body}}');
+    assert.assertJsonEquals({header: 'Header'}, result.data);
+    assert.assertEquals(true, result.hasNext);
+
+    var payloads = [];
+    result.subsequent.subscribe(graphQlRxLib.createSubscriber({
+        onNext: function (payload) {
+            payloads.push(payload);
+        }
+    }));
+    assert.assertJsonEquals([{
+        incremental: [{data: {body: 'Body'}, path: [], label: 'body'}],
+        hasNext: false
+    }], payloads);
+}
+
+function testResultCache() {
+    var generator = graphQlLib.newSchemaGenerator();
+    var calls = 0;
+    var schema = generator.createSchema({
+        query: generator.createObjectType({
+            name: 'Query',
+            fields: {
+                greeting: {
+                    type: graphQlLib.GraphQLString,
+                    cacheControl: {maxAge: 60},
+                    resolve: function () {
+                        calls++;
+                        return 'Hello';
+                    }
+                }
+            }
+        })
+    });
+    var options = {cache: {scope: 'master', tags: ['greeting']}};
+
+    var result = graphQlLib.execute(schema, '{greeting}', null, null, options);
+    graphQlLib.execute(schema, '{ greeting }', null, null, options);
+    assert.assertJsonEquals({data: {greeting: 'Hello'}}, result);
+    assert.assertEquals(1, calls);
+
+    graphQlLib.execute(schema, '{greeting}', null, null, {cache: {scope: 'draft'}});
+    assert.assertEquals(2, calls);
+
+    assert.assertEquals(1, graphQlLib.invalidateResultCache(schema, 'greeting'));
+    graphQlLib.execute(schema, '{greeting}', null, null, options);
+    assert.assertEquals(3, calls);
+
+    var stats = graphQlLib.getResultCacheStats(schema);
+    assert.assertEquals(1, stats.hits);
+    assert.assertEquals(3, stats.misses);
+    assert.assertEquals(2, stats.size);
+}
+
 function createSchema(database) {
     return schemaGenerator.createSchema({
         query: createRootQueryType(database),
@@ -329,6 +586,10 @@ function createObjectType() {
             id: {
                 type: graphQlLib.nonNull(graphQlLib.GraphQLID)
             },
+            anId: {
+                type: graphQlLib.GraphQLID,
+                property: 'id'
+            },
             anInteger: {
                 type: graphQlLib.GraphQLInt,
                 resolve: function (env) {
@@ -379,6 +640,12 @@ function createObjectType() {
                     };
                 }
             },
+            aLoadedString: {
+                type: graphQlLib.GraphQLString,
+                resolve: function (env) {
+                    return env.loader('loadedString').load(env.source.id);
+                }
+            },
             aFailingField: {
                 type: graphQlLib.GraphQLString,
                 resolve: function (env) {